@@ -1,6 +1,11 @@
 package com.amtrak.application.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Properties specific to Amtec Portal.
@@ -11,4 +16,398 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final SprImport sprImport = new SprImport();
+
+    private final Releases releases = new Releases();
+
+    private final SearchIndexing searchIndexing = new SearchIndexing();
+
+    private final Reindex reindex = new Reindex();
+
+    private final Search search = new Search();
+
+    private final Cache cache = new Cache();
+
+    public SprImport getSprImport() {
+        return sprImport;
+    }
+
+    public Releases getReleases() {
+        return releases;
+    }
+
+    public SearchIndexing getSearchIndexing() {
+        return searchIndexing;
+    }
+
+    public Reindex getReindex() {
+        return reindex;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class SprImport {
+
+        /**
+         * Number of rows committed in each transaction.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Number of failed rows reported in detail by an import job.
+         */
+        private int maxReportedErrors = 100;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+    }
+
+    public static class Releases {
+
+        /**
+         * Whether a release replaces the current release of its territory in production once its date arrives.
+         */
+        private boolean autoPromote = false;
+
+        public boolean isAutoPromote() {
+            return autoPromote;
+        }
+
+        public void setAutoPromote(boolean autoPromote) {
+            this.autoPromote = autoPromote;
+        }
+    }
+
+    public static class SearchIndexing {
+
+        /**
+         * Number of outbox entries indexed in each transaction.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Delay between two drains of the outbox, in milliseconds.
+         */
+        private long pollInterval = 1000;
+
+        /**
+         * Delay before the first retry of a failed change, in milliseconds, doubled on each attempt.
+         */
+        private long initialBackoff = 1000;
+
+        /**
+         * Maximum delay between two retries of a failed change, in milliseconds.
+         */
+        private long maxBackoff = 300000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(long pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public long getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(long initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public long getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(long maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
+
+    public static class Reindex {
+
+        /**
+         * Number of threads reading and indexing ranges of ids in parallel.
+         */
+        private int workers = 4;
+
+        /**
+         * Number of ids read and sent in each bulk request.
+         */
+        private int chunkSize = 1000;
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * The search backends.
+         */
+        public enum Mode {
+            /**
+             * A remote Elasticsearch cluster, reached through Jest.
+             */
+            ELASTICSEARCH,
+            /**
+             * Local Lucene indices, searched in process.
+             */
+            EMBEDDED
+        }
+
+        /**
+         * Backend of the search repositories.
+         */
+        private Mode mode = Mode.ELASTICSEARCH;
+
+        /**
+         * Directory holding one Lucene index per entity, in the embedded mode. The indices are filled from the
+         * database when they are empty, but keep it on a persistent volume.
+         */
+        private String directory = "data/search";
+
+        private final Client client = new Client();
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Client getClient() {
+            return client;
+        }
+
+        /**
+         * HTTP transport of the Jest client, when {@code spring.data.jest.uri} points to a cluster.
+         */
+        public static class Client {
+
+            /**
+             * Maximum number of pooled connections, to all the nodes.
+             */
+            private int maxConnections = 40;
+
+            /**
+             * Maximum number of pooled connections to one node.
+             */
+            private int maxConnectionsPerRoute = 20;
+
+            /**
+             * Timeout to open a connection, in milliseconds.
+             */
+            private int connectTimeout = 3000;
+
+            /**
+             * Timeout waiting for data on an open connection, in milliseconds.
+             */
+            private int readTimeout = 10000;
+
+            /**
+             * Time an idle connection is kept alive in the pool, in milliseconds.
+             */
+            private long keepAlive = 60000;
+
+            /**
+             * Whether request bodies are gzipped; responses are gzipped whenever the cluster compresses them.
+             */
+            private boolean compression = true;
+
+            public int getMaxConnections() {
+                return maxConnections;
+            }
+
+            public void setMaxConnections(int maxConnections) {
+                this.maxConnections = maxConnections;
+            }
+
+            public int getMaxConnectionsPerRoute() {
+                return maxConnectionsPerRoute;
+            }
+
+            public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+                this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            }
+
+            public int getConnectTimeout() {
+                return connectTimeout;
+            }
+
+            public void setConnectTimeout(int connectTimeout) {
+                this.connectTimeout = connectTimeout;
+            }
+
+            public int getReadTimeout() {
+                return readTimeout;
+            }
+
+            public void setReadTimeout(int readTimeout) {
+                this.readTimeout = readTimeout;
+            }
+
+            public long getKeepAlive() {
+                return keepAlive;
+            }
+
+            public void setKeepAlive(long keepAlive) {
+                this.keepAlive = keepAlive;
+            }
+
+            public boolean isCompression() {
+                return compression;
+            }
+
+            public void setCompression(boolean compression) {
+                this.compression = compression;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Limits of the cache regions, by cache name, such as {@code [com.amtrak.application.domain.Spr]}.
+         * A region not listed here gets the {@code jhipster.cache.ehcache} limits.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        /**
+         * Whether Hibernate gathers its statistics, published as the {@code hibernate.*} meters: queries, entity
+         * loads, and second level cache hits and misses by region.
+         */
+        private boolean hibernateStatistics = false;
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public boolean isHibernateStatistics() {
+            return hibernateStatistics;
+        }
+
+        public void setHibernateStatistics(boolean hibernateStatistics) {
+            this.hibernateStatistics = hibernateStatistics;
+        }
+
+        public static class Region {
+
+            /**
+             * Maximum number of entries on the heap, {@code jhipster.cache.ehcache.max-entries} by default.
+             */
+            private Long maxEntries;
+
+            /**
+             * Maximum size of the entries on the heap, instead of a number of entries.
+             */
+            private DataSize heapSize;
+
+            /**
+             * Size of an off-heap tier below the heap, holding the entries serialized outside of the garbage
+             * collected heap. The JVM must allow as much direct memory, with {@code -XX:MaxDirectMemorySize}.
+             */
+            private DataSize offHeapSize;
+
+            /**
+             * Time an entry stays in the region, {@code jhipster.cache.ehcache.time-to-live-seconds} by default.
+             */
+            private Duration timeToLive;
+
+            /**
+             * Time an entry stays in the region once it is no longer read, instead of a time to live.
+             */
+            private Duration timeToIdle;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public DataSize getHeapSize() {
+                return heapSize;
+            }
+
+            public void setHeapSize(DataSize heapSize) {
+                this.heapSize = heapSize;
+            }
+
+            public DataSize getOffHeapSize() {
+                return offHeapSize;
+            }
+
+            public void setOffHeapSize(DataSize offHeapSize) {
+                this.offHeapSize = offHeapSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+        }
+    }
 }
@@ -1,27 +1,59 @@
 package com.amtrak.application.config;
 
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
 
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.*;
 
+/**
+ * Ehcache regions of the Hibernate second level cache and of the application caches.
+ * <p>
+ * Every region gets the {@code jhipster.cache.ehcache} limits, unless {@code application.cache.regions} sizes it:
+ * large read-mostly regions can then be bounded in bytes, and overflow to an off-heap tier which holds the entries
+ * serialized outside of the garbage collected heap.
+ * <p>
+ * The statistics of every region are enabled and published as the {@code cache.*} meters, tagged with the region
+ * name. The Hibernate statistics, published as the {@code hibernate.*} meters, are only gathered when
+ * {@code application.cache.hibernate-statistics} is set, as they are recorded on every session.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
 
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache =
-            jHipsterProperties.getCache().getEhcache();
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+
+    private final Map<String, ApplicationProperties.Cache.Region> regions;
+
+    private final boolean hibernateStatistics;
+
+    private final Set<String> cacheNames = new HashSet<>();
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ehcache = jHipsterProperties.getCache().getEhcache();
+        regions = applicationProperties.getCache().getRegions();
+        hibernateStatistics = applicationProperties.getCache().isHibernateStatistics();
 
         jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
             CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
@@ -32,11 +64,14 @@ public class CacheConfiguration {
 
     @Bean
     public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, hibernateStatistics);
+        };
     }
 
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer() {
+    public JCacheManagerCustomizer cacheManagerCustomizer(MeterRegistry meterRegistry) {
         return cm -> {
             createCache(cm, com.amtrak.application.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.amtrak.application.repository.UserRepository.USERS_BY_EMAIL_CACHE);
@@ -44,12 +79,21 @@ public class CacheConfiguration {
             createCache(cm, com.amtrak.application.domain.Authority.class.getName());
             createCache(cm, com.amtrak.application.domain.User.class.getName() + ".authorities");
             createCache(cm, com.amtrak.application.domain.Release.class.getName());
-            createCache(cm, com.amtrak.application.domain.Release.class.getName() + ".sprs");
             createCache(cm, com.amtrak.application.domain.Spr.class.getName());
             createCache(cm, com.amtrak.application.domain.OutOfOffice.class.getName());
             createCache(cm, com.amtrak.application.domain.Event.class.getName());
             createCache(cm, com.amtrak.application.domain.TeamEvent.class.getName());
+            createCache(cm, com.amtrak.application.service.ReleaseDiffService.RELEASE_DIFFS_CACHE);
+            createCache(cm, com.amtrak.application.service.ReleaseNotesService.RELEASE_NOTES_CACHE);
+            createCache(cm, com.amtrak.application.service.ReleaseStatsService.RELEASE_STATS_CACHE);
+            createCache(cm, com.amtrak.application.service.SearchCache.SEARCH_RESULTS_CACHE);
             // jhipster-needle-ehcache-add-entry
+            regions.keySet().stream()
+                .filter(cacheName -> !cacheNames.contains(cacheName))
+                .forEach(cacheName -> log.warn("The {} cache region is configured, but there is no such cache", cacheName));
+            // Same tags as the caches of the cacheManager bean bound by Spring Boot, so that both share the meters
+            cacheNames.forEach(cacheName -> JCacheMetrics.monitor(meterRegistry, cm.getCache(cacheName),
+                "name", cacheName, "cacheManager", "cacheManager"));
         };
     }
 
@@ -58,6 +102,26 @@ public class CacheConfiguration {
         if (cache != null) {
             cm.destroyCache(cacheName);
         }
-        cm.createCache(cacheName, jcacheConfiguration);
+        cacheNames.add(cacheName);
+        ApplicationProperties.Cache.Region region = regions.get(cacheName);
+        cm.createCache(cacheName, region == null ? jcacheConfiguration : regionConfiguration(region));
+        cm.enableStatistics(cacheName, true);
+    }
+
+    private javax.cache.configuration.Configuration<Object, Object> regionConfiguration(ApplicationProperties.Cache.Region region) {
+        ResourcePoolsBuilder resources = region.getHeapSize() != null ?
+            ResourcePoolsBuilder.newResourcePoolsBuilder().heap(region.getHeapSize().toBytes(), MemoryUnit.B) :
+            ResourcePoolsBuilder.heap(region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries());
+        if (region.getOffHeapSize() != null) {
+            resources = resources.offheap(region.getOffHeapSize().toBytes(), MemoryUnit.B);
+        }
+        ExpiryPolicy<Object, Object> expiry = region.getTimeToIdle() != null ?
+            ExpiryPolicyBuilder.timeToIdleExpiration(region.getTimeToIdle()) :
+            ExpiryPolicyBuilder.timeToLiveExpiration(region.getTimeToLive() != null ?
+                region.getTimeToLive() : Duration.ofSeconds(ehcache.getTimeToLiveSeconds()));
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resources)
+                .withExpiry(expiry)
+                .build());
     }
 }
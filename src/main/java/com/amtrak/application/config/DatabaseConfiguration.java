@@ -3,6 +3,7 @@ package com.amtrak.application.config;
 import io.github.jhipster.config.JHipsterConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,8 +18,18 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EnableJpaRepositories("com.amtrak.application.repository")
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
-@EnableElasticsearchRepositories("com.amtrak.application.repository.search")
 public class DatabaseConfiguration {
 
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
+
+    /**
+     * The Elasticsearch repositories, unless the embedded search replaces them.
+     *
+     * @see EmbeddedSearchConfiguration
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "application.search", name = "mode", havingValue = "elasticsearch", matchIfMissing = true)
+    @EnableElasticsearchRepositories("com.amtrak.application.repository.search")
+    public static class ElasticsearchRepositoriesConfiguration {
+    }
 }
@@ -2,10 +2,23 @@ package com.amtrak.application.config;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
 import com.github.vanroy.springdata.jest.mapper.DefaultJestResultsMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.searchbox.client.JestClient;
+import io.searchbox.client.JestClientFactory;
+import io.searchbox.client.config.HttpClientConfig;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -17,11 +30,19 @@ import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverte
 import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableConfigurationProperties(ElasticsearchProperties.class)
 public class ElasticsearchConfiguration {
 
+    private static final String REQUEST_START = ElasticsearchConfiguration.class.getName() + ".requestStart";
+
     private ObjectMapper mapper;
 
     public ElasticsearchConfiguration(ObjectMapper mapper) {
@@ -33,39 +54,126 @@ public class ElasticsearchConfiguration {
         return new CustomEntityMapper(mapper);
     }
 
-    @Bean
-    @Primary
-    public ElasticsearchOperations elasticsearchTemplate(final JestClient jestClient,
-                                                         final ElasticsearchConverter elasticsearchConverter,
-                                                         final SimpleElasticsearchMappingContext simpleElasticsearchMappingContext,
-                                                         EntityMapper mapper) {
-        return new JestElasticsearchTemplate(
-            jestClient,
-            elasticsearchConverter,
-            new DefaultJestResultsMapper(simpleElasticsearchMappingContext, mapper));
+    /**
+     * The Jest client and the template of the Elasticsearch repositories, unless the embedded search replaces them.
+     *
+     * @see EmbeddedSearchConfiguration
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "application.search", name = "mode", havingValue = "elasticsearch", matchIfMissing = true)
+    public static class ElasticsearchClientConfiguration {
+
+        /**
+         * Jest client of a remote cluster, replacing the one of the Jest starter to tune its HTTP transport.
+         * <p>
+         * Connections are pooled and kept alive between requests, request bodies are gzipped, and the latency of every
+         * request is published as the {@code search.client.requests} timer, tagged with the index, with a histogram.
+         * Without {@code spring.data.jest.uri}, the starter keeps starting its local node.
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "spring.data.jest", name = "uri")
+        public JestClient jestClient(@Value("${spring.data.jest.uri}") String uri,
+                                     @Value("${spring.data.jest.username:}") String username,
+                                     @Value("${spring.data.jest.password:}") String password,
+                                     ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+            ApplicationProperties.Search.Client properties = applicationProperties.getSearch().getClient();
+            HttpClientConfig.Builder config = new HttpClientConfig.Builder(
+                Arrays.stream(uri.split(",")).map(String::trim).collect(Collectors.toList()))
+                .multiThreaded(true)
+                .maxTotalConnection(properties.getMaxConnections())
+                .defaultMaxTotalConnectionPerRoute(properties.getMaxConnectionsPerRoute())
+                .connTimeout(properties.getConnectTimeout())
+                .readTimeout(properties.getReadTimeout())
+                .maxConnectionIdleTime(properties.getKeepAlive(), TimeUnit.MILLISECONDS)
+                .requestCompressionEnabled(properties.isCompression());
+            if (!username.isEmpty()) {
+                config.defaultCredentials(username, password);
+            }
+            JestClientFactory factory = new JestClientFactory() {
+                @Override
+                protected HttpClientBuilder configureHttpClient(HttpClientBuilder builder) {
+                    // Responses are decompressed by the client, which accepts gzip by default
+                    return builder
+                        .setKeepAliveStrategy((response, context) -> properties.getKeepAlive())
+                        .addInterceptorFirst((HttpRequestInterceptor) (request, context) ->
+                            context.setAttribute(REQUEST_START, System.nanoTime()))
+                        .addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+                            Object start = context.getAttribute(REQUEST_START);
+                            HttpRequest request = HttpClientContext.adapt(context).getRequest();
+                            if (start != null && request != null) {
+                                Timer.builder("search.client.requests")
+                                    .description("The latency of the requests to the search cluster")
+                                    .tag("index", indexOf(request))
+                                    .tag("method", request.getRequestLine().getMethod())
+                                    .tag("status", String.valueOf(response.getStatusLine().getStatusCode()))
+                                    .publishPercentileHistogram()
+                                    .register(meterRegistry)
+                                    .record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+                            }
+                        });
+                }
+            };
+            factory.setHttpClientConfig(config.build());
+            return factory.getObject();
+        }
+
+        @Bean
+        @Primary
+        public ElasticsearchOperations elasticsearchTemplate(final JestClient jestClient,
+                                                             final ElasticsearchConverter elasticsearchConverter,
+                                                             final SimpleElasticsearchMappingContext simpleElasticsearchMappingContext,
+                                                             EntityMapper mapper) {
+            return new JestElasticsearchTemplate(
+                jestClient,
+                elasticsearchConverter,
+                new DefaultJestResultsMapper(simpleElasticsearchMappingContext, mapper));
+        }
     }
 
+    /**
+     * @return the index of a request, without the version of the indices rebuilt by the reindex job,
+     * or the endpoint of a request on no index, such as {@code _bulk}.
+     */
+    static String indexOf(HttpRequest request) {
+        String path;
+        try {
+            path = URI.create(request.getRequestLine().getUri()).getPath();
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+        String first = path == null ? "" : path.replaceFirst("^/+", "").split("/", 2)[0];
+        return first.isEmpty() ? "_root" : first.replaceAll("_\\d{14}$", "");
+    }
+
+    /**
+     * Maps the documents with a reader and a writer per document class, built once from a copy of the mapper of the
+     * application configured for the documents: the mapper of the REST API keeps its own configuration.
+     */
     public class CustomEntityMapper implements EntityMapper {
 
-        private ObjectMapper objectMapper;
+        private final ObjectMapper objectMapper;
+
+        private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+        private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
 
         public CustomEntityMapper(ObjectMapper objectMapper) {
-            this.objectMapper = objectMapper;
-            objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            objectMapper.configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
-            objectMapper.configure(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS, true);
-            objectMapper.configure(SerializationFeature.INDENT_OUTPUT, false);
-            objectMapper.configure(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS, true);
+            this.objectMapper = objectMapper.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true)
+                .configure(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS, true)
+                .configure(SerializationFeature.INDENT_OUTPUT, false)
+                .configure(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS, true);
         }
 
         @Override
         public String mapToString(Object object) throws IOException {
-            return objectMapper.writeValueAsString(object);
+            return writers.computeIfAbsent(object.getClass(), objectMapper::writerFor).writeValueAsString(object);
         }
 
         @Override
         public <T> T mapToObject(String source, Class<T> clazz) throws IOException {
-            return objectMapper.readValue(source, clazz);
+            return readers.computeIfAbsent(clazz, objectMapper::readerFor).readValue(source);
         }
     }
 
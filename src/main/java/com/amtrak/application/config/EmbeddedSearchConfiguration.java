@@ -0,0 +1,83 @@
+package com.amtrak.application.config;
+
+import com.amtrak.application.domain.Event;
+import com.amtrak.application.domain.OutOfOffice;
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.TeamEvent;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.repository.search.EventSearchRepository;
+import com.amtrak.application.repository.search.OutOfOfficeSearchRepository;
+import com.amtrak.application.repository.search.ReleaseSearchRepository;
+import com.amtrak.application.repository.search.SprSearchRepository;
+import com.amtrak.application.repository.search.TeamEventSearchRepository;
+import com.amtrak.application.repository.search.UserSearchRepository;
+import com.amtrak.application.repository.search.embedded.EmbeddedSearchEngine;
+import com.amtrak.application.repository.search.embedded.EmbeddedSearchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+
+import java.nio.file.Paths;
+
+/**
+ * Search repositories backed by local Lucene indices, when {@code application.search.mode} is {@code embedded}.
+ * <p>
+ * They replace the Elasticsearch repositories enabled in {@link DatabaseConfiguration}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.search", name = "mode", havingValue = "embedded")
+public class EmbeddedSearchConfiguration {
+
+    private final EntityMapper entityMapper;
+
+    private final ObjectMapper objectMapper;
+
+    public EmbeddedSearchConfiguration(EntityMapper entityMapper, ObjectMapper objectMapper) {
+        this.entityMapper = entityMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedSearchEngine embeddedSearchEngine(ApplicationProperties applicationProperties) {
+        return new EmbeddedSearchEngine(Paths.get(applicationProperties.getSearch().getDirectory()));
+    }
+
+    @Bean
+    public SprSearchRepository sprSearchRepository(EmbeddedSearchEngine engine) {
+        return EmbeddedSearchRepository.create(SprSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, Spr.class, entityMapper, objectMapper));
+    }
+
+    @Bean
+    public ReleaseSearchRepository releaseSearchRepository(EmbeddedSearchEngine engine) {
+        return EmbeddedSearchRepository.create(ReleaseSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, Release.class, entityMapper, objectMapper));
+    }
+
+    @Bean
+    public OutOfOfficeSearchRepository outOfOfficeSearchRepository(EmbeddedSearchEngine engine) {
+        return EmbeddedSearchRepository.create(OutOfOfficeSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, OutOfOffice.class, entityMapper, objectMapper));
+    }
+
+    @Bean
+    public TeamEventSearchRepository teamEventSearchRepository(EmbeddedSearchEngine engine) {
+        return EmbeddedSearchRepository.create(TeamEventSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, TeamEvent.class, entityMapper, objectMapper));
+    }
+
+    @Bean
+    public EventSearchRepository eventSearchRepository(EmbeddedSearchEngine engine) {
+        return EmbeddedSearchRepository.create(EventSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, Event.class, entityMapper, objectMapper));
+    }
+
+    @Bean
+    public UserSearchRepository userSearchRepository(EmbeddedSearchEngine engine) {
+        return EmbeddedSearchRepository.create(UserSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, User.class, entityMapper, objectMapper));
+    }
+}
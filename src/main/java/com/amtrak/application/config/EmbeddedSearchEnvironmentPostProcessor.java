@@ -0,0 +1,47 @@
+package com.amtrak.application.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Excludes the Elasticsearch auto-configurations when {@code application.search.mode} is {@code embedded}.
+ * <p>
+ * Otherwise the Jest starter creates a client, and starts a local Elasticsearch node when {@code spring.data.jest.uri}
+ * is not set, and Spring Boot registers Elasticsearch repositories over the embedded ones. The exclusions are added
+ * to the ones of {@code spring.autoconfigure.exclude}.
+ *
+ * @see EmbeddedSearchConfiguration
+ */
+public class EmbeddedSearchEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final String EXCLUDE = "spring.autoconfigure.exclude";
+
+    private static final List<String> ELASTICSEARCH_AUTO_CONFIGURATIONS = Arrays.asList(
+        "com.github.vanroy.springboot.autoconfigure.data.jest.ElasticsearchJestAutoConfiguration",
+        "com.github.vanroy.springboot.autoconfigure.data.jest.ElasticsearchJestDataAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRepositoriesAutoConfiguration",
+        "org.springframework.boot.autoconfigure.elasticsearch.jest.JestAutoConfiguration");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        Binder binder = Binder.get(environment);
+        ApplicationProperties.Search.Mode mode = binder.bind("application.search.mode", ApplicationProperties.Search.Mode.class)
+            .orElse(ApplicationProperties.Search.Mode.ELASTICSEARCH);
+        if (mode != ApplicationProperties.Search.Mode.EMBEDDED) {
+            return;
+        }
+        Set<String> excluded = new LinkedHashSet<>(Arrays.asList(binder.bind(EXCLUDE, String[].class).orElse(new String[0])));
+        excluded.addAll(ELASTICSEARCH_AUTO_CONFIGURATIONS);
+        environment.getPropertySources().addFirst(
+            new MapPropertySource("embeddedSearch", Collections.singletonMap(EXCLUDE, String.join(",", excluded))));
+    }
+}
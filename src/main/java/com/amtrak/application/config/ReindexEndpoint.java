@@ -0,0 +1,37 @@
+package com.amtrak.application.config;
+
+import com.amtrak.application.service.SearchReindexService;
+import com.amtrak.application.service.dto.ReindexJobDTO;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint rebuilding the search indices, exposed as {@code /management/reindex}.
+ * <p>
+ * A {@code POST} starts a rebuild, and a {@code GET} returns the progress of the running or last one.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.search", name = "mode", havingValue = "elasticsearch", matchIfMissing = true)
+@Endpoint(id = "reindex")
+public class ReindexEndpoint {
+
+    private final SearchReindexService searchReindexService;
+
+    public ReindexEndpoint(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    @ReadOperation
+    public ReindexJobDTO job() {
+        return searchReindexService.getJob().orElse(null);
+    }
+
+    @WriteOperation
+    public ReindexJobDTO start() {
+        return searchReindexService.start();
+    }
+}
@@ -2,6 +2,8 @@ package com.amtrak.application.domain;
 
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 
@@ -31,7 +33,7 @@ public class Release implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
     @SequenceGenerator(name = "sequenceGenerator")
-    @org.springframework.data.elasticsearch.annotations.Field(type = FieldType.Keyword)
+    @org.springframework.data.elasticsearch.annotations.Field(type = FieldType.Long)
     private Long id;
 
     @NotNull
@@ -79,10 +81,19 @@ public class Release implements Serializable {
     @Column(name = "jhi_current", nullable = false)
     private Boolean current;
 
+    /**
+     * The SPRs of a release can be many: they are neither serialized nor cached with it, and they are
+     * initialized for several releases at once. Use {@code /api/releases/{id}/sprs} to page through them.
+     */
     @OneToMany(mappedBy = "release")
-    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+    @BatchSize(size = 20)
+    @JsonIgnore
     private Set<Spr> sprs = new HashSet<>();
 
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long sprCount;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
         return id;
@@ -272,6 +283,22 @@ public class Release implements Serializable {
     public void setSprs(Set<Spr> sprs) {
         this.sprs = sprs;
     }
+
+    /**
+     * @return the number of SPRs of the release, only set when the release is read on its own.
+     */
+    public Long getSprCount() {
+        return sprCount;
+    }
+
+    public Release sprCount(Long sprCount) {
+        this.sprCount = sprCount;
+        return this;
+    }
+
+    public void setSprCount(Long sprCount) {
+        this.sprCount = sprCount;
+    }
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here, do not remove
 
     @Override
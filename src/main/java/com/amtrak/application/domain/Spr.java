@@ -24,15 +24,21 @@ import com.amtrak.application.domain.enumeration.Resolution;
 @Entity
 @Table(name = "spr")
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@NamedEntityGraph(name = Spr.USER_AND_RELEASE_GRAPH, attributeNodes = {@NamedAttributeNode("user"), @NamedAttributeNode("release")})
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "spr")
 public class Spr implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Fetches the user and the release of an SPR along with it.
+     */
+    public static final String USER_AND_RELEASE_GRAPH = "Spr.userAndRelease";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
     @SequenceGenerator(name = "sequenceGenerator")
-    @org.springframework.data.elasticsearch.annotations.Field(type = FieldType.Keyword)
+    @org.springframework.data.elasticsearch.annotations.Field(type = FieldType.Long)
     private Long id;
 
     @NotNull
@@ -0,0 +1,8 @@
+package com.amtrak.application.domain.enumeration;
+
+/**
+ * The IndexOperation enumeration.
+ */
+public enum IndexOperation {
+    INDEX, DELETE
+}
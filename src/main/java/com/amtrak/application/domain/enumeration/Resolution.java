@@ -1,8 +1,29 @@
 package com.amtrak.application.domain.enumeration;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * The Resolution enumeration.
  */
 public enum Resolution {
-    NEW, RELEASED, DUPLICATE, TESTED, FIXED, PARTIALLY_FIXED, REVIEWED, CANNOT_REPRODUCE
+    NEW, RELEASED, DUPLICATE, TESTED, FIXED, PARTIALLY_FIXED, REVIEWED, CANNOT_REPRODUCE;
+
+    /**
+     * Resolutions for which an SPR is no longer considered open.
+     * An SPR without a resolution is open.
+     */
+    public static final Set<Resolution> CLOSED =
+        Collections.unmodifiableSet(EnumSet.of(RELEASED, CANNOT_REPRODUCE, TESTED, REVIEWED, FIXED));
+
+    /**
+     * Whether the given resolution leaves an SPR open, {@code null} included.
+     *
+     * @param resolution the resolution to check, may be {@code null}.
+     * @return true if the SPR is still open.
+     */
+    public static boolean isOpen(Resolution resolution) {
+        return resolution == null || !CLOSED.contains(resolution);
+    }
 }
@@ -17,4 +17,12 @@ public class ReleaseException {
             super(errorMessage, err);
         }
     }
+    public static class TerritoryMismatch extends Exception {
+        public TerritoryMismatch(String errorMessage) {
+            super(errorMessage);
+        }
+        public TerritoryMismatch(String errorMessage, Throwable err) {
+            super(errorMessage, err);
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.amtrak.application.repository;
+
+import com.amtrak.application.domain.IndexOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * Spring Data  repository for the IndexOutboxEntry entity.
+ */
+@Repository
+public interface IndexOutboxRepository extends JpaRepository<IndexOutboxEntry, Long> {
+
+    List<IndexOutboxEntry> findAllByNextAttemptDateLessThanEqualOrderById(Instant date, Pageable pageable);
+
+    Optional<IndexOutboxEntry> findFirstByOrderByCreatedDate();
+}
@@ -2,11 +2,15 @@ package com.amtrak.application.repository;
 
 import com.amtrak.application.domain.Release;
 import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 /**
@@ -15,8 +19,53 @@ import java.util.List;
 @SuppressWarnings("unused")
 @Repository
 public interface ReleaseRepository extends JpaRepository<Release, Long>, JpaSpecificationExecutor<Release> {
+
+    String SELECT_SUMMARY = "select new com.amtrak.application.service.dto.ReleaseSummaryDTO(" +
+        "release.id, release.date, release.territory, release.build, release.releaseLetter, release.prefixLetter, " +
+        "release.databaseVersion, release.wsVersion, release.tmaVersion, release.port, release.current) " +
+        "from Release release ";
+
     List<Release> findAllByCurrentIsTrue();
     List<Release> findAllByDateIsGreaterThanEqual(Instant now);
     List<Release> findAllByDateIsGreaterThanAndCurrent(Instant now, Boolean current);
     List<Release> findAllByTerritoryAndCurrentIsTrue(Territory territory);
+
+    @Query(SELECT_SUMMARY + "where release.id = :id")
+    Optional<ReleaseSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query(SELECT_SUMMARY)
+    List<ReleaseSummaryDTO> findAllSummaries();
+
+    @Query("select release.id from Release release where release.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_SUMMARY + "where release.current = true")
+    List<ReleaseSummaryDTO> findAllSummariesByCurrentIsTrue();
+
+    @Query(SELECT_SUMMARY + "where release.date > :date and release.current = :current")
+    List<ReleaseSummaryDTO> findAllSummariesByDateIsGreaterThanAndCurrent(@Param("date") Instant date, @Param("current") Boolean current);
+
+    /**
+     * Counts the releases of every territory per month, in UTC.
+     *
+     * @return rows of territory, year, month and number of releases, ordered by territory then month.
+     */
+    @Query(value = "select territory, extract(year from jhi_date) as bucket_year, extract(month from jhi_date) as bucket_month, " +
+        "count(*) as releases from release " +
+        "group by territory, extract(year from jhi_date), extract(month from jhi_date) " +
+        "order by territory, bucket_year, bucket_month", nativeQuery = true)
+    List<Object[]> countPerTerritoryAndMonth();
+
+    /**
+     * Lists the releases of every territory in order, each with the date of the previous release of its territory
+     * and its number of SPRs.
+     *
+     * @return rows of id, territory, build, date, previous date, number of SPRs and current flag,
+     * ordered by territory then date.
+     */
+    @Query(value = "select r.id, r.territory, r.build, r.jhi_date, " +
+        "lag(r.jhi_date) over (partition by r.territory order by r.jhi_date, r.id) as previous_date, " +
+        "(select count(*) from spr s where s.release_id = r.id) as sprs, r.jhi_current " +
+        "from release r order by r.territory, r.jhi_date, r.id", nativeQuery = true)
+    List<Object[]> findTimeline();
 }
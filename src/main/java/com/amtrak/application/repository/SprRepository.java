@@ -2,28 +2,154 @@ package com.amtrak.application.repository;
 
 import com.amtrak.application.domain.Spr;
 import com.amtrak.application.domain.User;
+import com.amtrak.application.domain.enumeration.Priority;
 import com.amtrak.application.domain.enumeration.Resolution;
 import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.service.dto.SprReferenceDTO;
+import com.amtrak.application.service.dto.SuggestionDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data  repository for the Spr entity.
+ * <p>
+ * The queries returning SPRs fetch their user and release in the same statement, see {@link Spr#USER_AND_RELEASE_GRAPH},
+ * so that listing SPRs does not run one more select per user and release. Count queries do not join them.
  */
 @SuppressWarnings("unused")
 @Repository
 public interface SprRepository extends JpaRepository<Spr, Long>, JpaSpecificationExecutor<Spr> {
 
+    @Override
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
+    List<Spr> findAll();
+
+    @Override
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
+    List<Spr> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
+    List<Spr> findAll(Specification<Spr> specification);
+
+    @Override
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
+    Page<Spr> findAll(Specification<Spr> specification, Pageable pageable);
+
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
     @Query("select spr from Spr spr where spr.user.login = ?#{principal.username}")
     List<Spr> findByUserIsCurrentUser();
 
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
     List<Spr> findAllByResolution(Resolution resolution);
 
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
     List<Spr> findAllByTerritory(Territory territory);
 
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
     List<Spr> findAllByUser(User user);
 
+    long countByReleaseId(Long releaseId);
+
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
+    List<Spr> findAllByReleaseIdOrderByNumber(Long releaseId);
+
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
     List<Spr> findAllByUserAndResolution(User user, Resolution resolution);
+
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
+    @Query("select spr from Spr spr where spr.resolution is null or spr.resolution not in :closed")
+    List<Spr> findAllByResolutionNotIn(@Param("closed") Collection<Resolution> closed);
+
+    @EntityGraph(Spr.USER_AND_RELEASE_GRAPH)
+    @Query("select spr from Spr spr where spr.user = :user and (spr.resolution is null or spr.resolution not in :closed)")
+    List<Spr> findAllByUserAndResolutionNotIn(@Param("user") User user, @Param("closed") Collection<Resolution> closed);
+
+    @Query("select spr.territory as territory, spr.priority as priority, " +
+        "sprUser.id as userId, sprUser.login as login, count(spr) as total " +
+        "from Spr spr left join spr.user sprUser " +
+        "where spr.resolution is null or spr.resolution not in :closed " +
+        "group by spr.territory, spr.priority, sprUser.id, sprUser.login")
+    List<OpenSprCount> countByResolutionNotIn(@Param("closed") Collection<Resolution> closed);
+
+    /**
+     * Finds all SPRs which are still open, see {@link Resolution#CLOSED}.
+     */
+    default List<Spr> findAllOpen() {
+        return findAllByResolutionNotIn(Resolution.CLOSED);
+    }
+
+    /**
+     * Finds all SPRs of a user which are still open, see {@link Resolution#CLOSED}.
+     */
+    default List<Spr> findAllOpenByUser(User user) {
+        return findAllByUserAndResolutionNotIn(user, Resolution.CLOSED);
+    }
+
+    /**
+     * Counts the open SPRs grouped by territory, priority and user, see {@link Resolution#CLOSED}.
+     */
+    default List<OpenSprCount> countOpen() {
+        return countByResolutionNotIn(Resolution.CLOSED);
+    }
+
+    @Query("select spr.id as id, spr.number as number, spr.fullNumber as fullNumber from Spr spr " +
+        "where spr.number in :numbers or spr.fullNumber in :fullNumbers")
+    List<SprKey> findKeysByNumberInOrFullNumberIn(@Param("numbers") Collection<Integer> numbers,
+                                                  @Param("fullNumbers") Collection<String> fullNumbers);
+
+    @Query("select new com.amtrak.application.service.dto.SuggestionDTO(spr.id, spr.fullNumber) from Spr spr " +
+        "where spr.fullNumber is not null")
+    List<SuggestionDTO> findAllSuggestions();
+
+    /**
+     * Finds the SPRs delivered by the releases of a territory after a release, up to and including another one,
+     * releases being ordered by date then id. The SPRs are sorted by number.
+     */
+    @Query("select new com.amtrak.application.service.dto.SprReferenceDTO(" +
+        "spr.id, spr.number, spr.fullNumber, spr.resolution, sprRelease.id) " +
+        "from Spr spr join spr.release sprRelease " +
+        "where sprRelease.territory = :territory " +
+        "and (sprRelease.date > :afterDate or (sprRelease.date = :afterDate and sprRelease.id > :afterId)) " +
+        "and (sprRelease.date < :untilDate or (sprRelease.date = :untilDate and sprRelease.id <= :untilId)) " +
+        "order by spr.number")
+    List<SprReferenceDTO> findReferencesDeliveredBetween(@Param("territory") Territory territory,
+                                                         @Param("afterDate") Instant afterDate, @Param("afterId") Long afterId,
+                                                         @Param("untilDate") Instant untilDate, @Param("untilId") Long untilId);
+
+    /**
+     * The unique keys of an SPR.
+     */
+    interface SprKey {
+
+        Long getId();
+
+        Integer getNumber();
+
+        String getFullNumber();
+    }
+
+    /**
+     * Number of open SPRs sharing the same territory, priority and user.
+     */
+    interface OpenSprCount {
+
+        Territory getTerritory();
+
+        Priority getPriority();
+
+        Long getUserId();
+
+        String getLogin();
+
+        long getTotal();
+    }
 }
@@ -1,6 +1,7 @@
 package com.amtrak.application.repository;
 
 import com.amtrak.application.domain.User;
+import com.amtrak.application.service.dto.SuggestionDTO;
 
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
@@ -8,8 +9,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.time.Instant;
@@ -46,4 +50,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneWithAuthoritiesByEmail(String email);
 
     Page<User> findAllByLoginNot(Pageable pageable, String login);
+
+    @Query("select new com.amtrak.application.service.dto.SuggestionDTO(u.id, u.login) from User u where u.login <> :login")
+    List<SuggestionDTO> findAllSuggestionsByLoginNot(@Param("login") String login);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,187 @@
+package com.amtrak.application.repository.search.embedded;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local Lucene indices, one directory per index, used instead of Elasticsearch in the embedded search mode.
+ * <p>
+ * Every write is committed, so that it survives a restart once the outbox entry it comes from is deleted, and the
+ * searchers are refreshed from the writer (near real-time), so that it is visible to the next search.
+ */
+public class EmbeddedSearchEngine implements Closeable {
+
+    /**
+     * Stored field holding the id of a document.
+     */
+    static final String ID = "_id";
+
+    private final Logger log = LoggerFactory.getLogger(EmbeddedSearchEngine.class);
+
+    private final Path directory;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final Map<String, Index> indices = new ConcurrentHashMap<>();
+
+    public EmbeddedSearchEngine(Path directory) {
+        this.directory = directory;
+    }
+
+    Analyzer getAnalyzer() {
+        return analyzer;
+    }
+
+    /**
+     * Adds the documents to the index, replacing the documents having the same ids.
+     *
+     * @param index the name of the index.
+     * @param documents the documents, by id.
+     */
+    void update(String index, Map<String, Document> documents) {
+        write(index, writer -> {
+            for (Map.Entry<String, Document> document : documents.entrySet()) {
+                writer.updateDocument(new Term(ID, document.getKey()), document.getValue());
+            }
+        });
+    }
+
+    /**
+     * Deletes the documents from the index.
+     *
+     * @param index the name of the index.
+     * @param ids the ids of the documents.
+     */
+    void delete(String index, Collection<String> ids) {
+        write(index, writer -> writer.deleteDocuments(ids.stream().map(id -> new Term(ID, id)).toArray(Term[]::new)));
+    }
+
+    /**
+     * Deletes all the documents of the index.
+     *
+     * @param index the name of the index.
+     */
+    void deleteAll(String index) {
+        write(index, IndexWriter::deleteAll);
+    }
+
+    /**
+     * Runs a search on the latest searcher of the index.
+     *
+     * @param index the name of the index.
+     * @param search the search.
+     * @param <R> the type of the result.
+     * @return the result of the search.
+     */
+    <R> R search(String index, Search<R> search) {
+        SearcherManager searchers = getIndex(index).searchers;
+        try {
+            IndexSearcher searcher = searchers.acquire();
+            try {
+                return search.run(searcher);
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not search the " + index + " index", e);
+        }
+    }
+
+    /**
+     * Makes the latest writes visible to the searches, they already are once a write returns.
+     *
+     * @param index the name of the index.
+     */
+    void refresh(String index) {
+        try {
+            getIndex(index).searchers.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not refresh the " + index + " index", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        indices.forEach((name, index) -> {
+            try {
+                index.searchers.close();
+                index.writer.close();
+                index.directory.close();
+            } catch (IOException e) {
+                log.warn("Could not close the {} index: {}", name, e.getMessage());
+            }
+        });
+        indices.clear();
+    }
+
+    private void write(String index, Write write) {
+        Index target = getIndex(index);
+        try {
+            write.run(target.writer);
+            target.writer.commit();
+            target.searchers.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write to the " + index + " index", e);
+        }
+    }
+
+    private Index getIndex(String name) {
+        return indices.computeIfAbsent(name, this::open);
+    }
+
+    private Index open(String name) {
+        Path path = directory.resolve(name);
+        log.debug("Opening the {} index in {}", name, path);
+        try {
+            Directory index = FSDirectory.open(path);
+            IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(analyzer));
+            return new Index(index, writer, new SearcherManager(writer, new SearcherFactory()));
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not open the " + name + " index in " + path, e);
+        }
+    }
+
+    @FunctionalInterface
+    interface Search<R> {
+        R run(IndexSearcher searcher) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void run(IndexWriter writer) throws IOException;
+    }
+
+    private static final class Index {
+
+        private final Directory directory;
+
+        private final IndexWriter writer;
+
+        private final SearcherManager searchers;
+
+        private Index(Directory directory, IndexWriter writer, SearcherManager searchers) {
+            this.directory = directory;
+            this.writer = writer;
+            this.searchers = searchers;
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package com.amtrak.application.repository.search.embedded;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
+import org.elasticsearch.index.query.IdsQueryBuilder;
+import org.elasticsearch.index.query.MatchAllQueryBuilder;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.index.query.Operator;
+import org.elasticsearch.index.query.PrefixQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryStringQueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.index.query.TermsQueryBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.ScoreSortBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Search repository keeping the documents of an entity in a local Lucene index, instead of Elasticsearch.
+ * <p>
+ * Documents are the same JSON as the one sent to Elasticsearch, each value being indexed like the dynamic mapping of
+ * Elasticsearch does: as text under its path, as a keyword under its path suffixed with {@code .keyword}, and as a
+ * long for integral numbers. Every value is also indexed in a catch-all field, which is the default field of query
+ * strings. Only the queries built by this application are translated: query string, bool, range, term, terms, ids,
+ * match, prefix, constant score and match all. Hits can be sorted by score or by an integral field.
+ *
+ * @param <T> the type of the entity.
+ */
+public class EmbeddedSearchRepository<T> implements ElasticsearchRepository<T, Long> {
+
+    private static final String SOURCE = "_source";
+
+    private static final String ALL = "_all";
+
+    private static final String KEYWORD = ".keyword";
+
+    private static final String SCORE = "_score";
+
+    private static final int IGNORE_ABOVE = 256;
+
+    private final EmbeddedSearchEngine engine;
+
+    private final Class<T> entityClass;
+
+    private final String index;
+
+    private final EntityMapper entityMapper;
+
+    private final ObjectMapper objectMapper;
+
+    public EmbeddedSearchRepository(EmbeddedSearchEngine engine, Class<T> entityClass, EntityMapper entityMapper,
+                                    ObjectMapper objectMapper) {
+        this.engine = engine;
+        this.entityClass = entityClass;
+        this.index = entityClass.getAnnotation(org.springframework.data.elasticsearch.annotations.Document.class).indexName();
+        this.entityMapper = entityMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Create an implementation of a search repository interface, backed by an embedded index.
+     * <p>
+     * The interface must not declare query methods of its own, they fail with an {@link UnsupportedOperationException}.
+     *
+     * @param repositoryInterface the search repository interface.
+     * @param repository the embedded repository implementing its operations.
+     * @param <R> the type of the search repository.
+     * @param <T> the type of the entity.
+     * @return the search repository.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends ElasticsearchRepository<T, Long>, T> R create(Class<R> repositoryInterface,
+                                                                          EmbeddedSearchRepository<T> repository) {
+        return (R) Proxy.newProxyInstance(repositoryInterface.getClassLoader(), new Class<?>[] {repositoryInterface},
+            (proxy, method, args) -> {
+                if (!method.getDeclaringClass().isAssignableFrom(EmbeddedSearchRepository.class)) {
+                    throw new UnsupportedOperationException(method.getName() + " is not supported by the embedded search");
+                }
+                try {
+                    return method.invoke(repository, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    @Override
+    public <S extends T> S index(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        saveAll(Collections.singletonList(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> entities) {
+        Map<String, Document> documents = new LinkedHashMap<>();
+        for (S entity : entities) {
+            documents.put(String.valueOf(getId(entity)), toDocument(entity));
+        }
+        if (!documents.isEmpty()) {
+            engine.update(index, documents);
+        }
+        return entities;
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return search(new TermQuery(new Term(EmbeddedSearchEngine.ID, String.valueOf(id))), null, PageRequest.of(0, 1))
+            .getContent().stream().findFirst();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return engine.search(index, searcher -> searcher.count(new TermQuery(new Term(EmbeddedSearchEngine.ID, String.valueOf(id)))) > 0);
+    }
+
+    @Override
+    public Iterable<T> findAll() {
+        return search(new MatchAllDocsQuery(), null, Pageable.unpaged());
+    }
+
+    @Override
+    public Iterable<T> findAll(org.springframework.data.domain.Sort sort) {
+        return search(new MatchAllDocsQuery(), toSort(sort), Pageable.unpaged());
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return search(new MatchAllDocsQuery(), toSort(pageable.getSort()), pageable);
+    }
+
+    @Override
+    public Iterable<T> findAllById(Iterable<Long> ids) {
+        List<BytesRef> terms = StreamSupport.stream(ids.spliterator(), false)
+            .map(id -> new BytesRef(String.valueOf(id)))
+            .collect(Collectors.toList());
+        return search(new TermInSetQuery(EmbeddedSearchEngine.ID, terms), null, Pageable.unpaged());
+    }
+
+    @Override
+    public long count() {
+        return engine.search(index, searcher -> (long) searcher.count(new MatchAllDocsQuery()));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        engine.delete(index, Collections.singletonList(String.valueOf(id)));
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(getId(entity));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        List<String> ids = new ArrayList<>();
+        entities.forEach(entity -> ids.add(String.valueOf(getId(entity))));
+        if (!ids.isEmpty()) {
+            engine.delete(index, ids);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        engine.deleteAll(index);
+    }
+
+    @Override
+    public Iterable<T> search(QueryBuilder query) {
+        return search(toQuery(query), null, Pageable.unpaged());
+    }
+
+    @Override
+    public Page<T> search(QueryBuilder query, Pageable pageable) {
+        return search(toQuery(query), toSort(pageable.getSort()), pageable);
+    }
+
+    @Override
+    public Page<T> search(SearchQuery searchQuery) {
+        Query query = searchQuery.getQuery() != null ? toQuery(searchQuery.getQuery()) : new MatchAllDocsQuery();
+        if (searchQuery.getFilter() != null) {
+            query = new BooleanQuery.Builder()
+                .add(query, Occur.MUST)
+                .add(toQuery(searchQuery.getFilter()), Occur.FILTER)
+                .build();
+        }
+        List<SortField> sorts = new ArrayList<>();
+        if (searchQuery instanceof NativeSearchQuery && ((NativeSearchQuery) searchQuery).getElasticsearchSorts() != null) {
+            for (SortBuilder<?> sort : ((NativeSearchQuery) searchQuery).getElasticsearchSorts()) {
+                sorts.add(toSortField(sort));
+            }
+        }
+        Sort sort = toSort(searchQuery.getSort());
+        if (sort != null) {
+            Collections.addAll(sorts, sort.getSort());
+        }
+        return search(query, sorts.isEmpty() ? null : new Sort(sorts.toArray(new SortField[0])), searchQuery.getPageable());
+    }
+
+    @Override
+    public Page<T> searchSimilar(T entity, String[] fields, Pageable pageable) {
+        throw new UnsupportedOperationException("searchSimilar is not supported by the embedded search");
+    }
+
+    @Override
+    public void refresh() {
+        engine.refresh(index);
+    }
+
+    @Override
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    private Page<T> search(Query query, Sort sort, Pageable pageable) {
+        return engine.search(index, searcher -> {
+            int offset = pageable.isPaged() ? (int) pageable.getOffset() : 0;
+            int size = pageable.isPaged() ? pageable.getPageSize() : Math.max(searcher.getIndexReader().numDocs(), 1);
+            TopDocs hits = sort == null ? searcher.search(query, offset + size) : searcher.search(query, offset + size, sort);
+            List<T> content = new ArrayList<>();
+            for (int i = offset; i < hits.scoreDocs.length; i++) {
+                content.add(read(searcher, hits.scoreDocs[i]));
+            }
+            return new PageImpl<>(content, pageable, hits.totalHits);
+        });
+    }
+
+    private T read(IndexSearcher searcher, ScoreDoc hit) throws IOException {
+        BytesRef source = searcher.doc(hit.doc).getBinaryValue(SOURCE);
+        try {
+            return entityMapper.mapToObject(new String(source.bytes, source.offset, source.length, StandardCharsets.UTF_8), entityClass);
+        } catch (IOException e) {
+            throw new DataRetrievalFailureException("Could not read a document of the " + index + " index", e);
+        }
+    }
+
+    private Long getId(Object entity) {
+        return (Long) PropertyAccessorFactory.forDirectFieldAccess(entity).getPropertyValue("id");
+    }
+
+    private Document toDocument(T entity) {
+        String source;
+        JsonNode json;
+        try {
+            source = entityMapper.mapToString(entity);
+            json = objectMapper.readTree(source);
+        } catch (IOException e) {
+            throw new InvalidDataAccessApiUsageException("Could not write a document of the " + index + " index", e);
+        }
+        Document document = new Document();
+        document.add(new StringField(EmbeddedSearchEngine.ID, String.valueOf(getId(entity)), Field.Store.YES));
+        document.add(new StoredField(SOURCE, new BytesRef(source)));
+        addFields(document, "", json);
+        return document;
+    }
+
+    private void addFields(Document document, String path, JsonNode node) {
+        if (node.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                addFields(document, path.isEmpty() ? field.getKey() : path + "." + field.getKey(), field.getValue());
+            }
+        } else if (node.isArray()) {
+            node.forEach(element -> addFields(document, path, element));
+        } else if (!node.isNull()) {
+            String value = node.asText();
+            document.add(new TextField(path, value, Field.Store.NO));
+            document.add(new TextField(ALL, value, Field.Store.NO));
+            if (value.length() <= IGNORE_ABOVE) {
+                document.add(new StringField(path + KEYWORD, value, Field.Store.NO));
+            }
+            if (node.isIntegralNumber()) {
+                document.add(new LongPoint(path, node.asLong()));
+                document.add(new SortedNumericDocValuesField(path, node.asLong()));
+            }
+        }
+    }
+
+    private Query toQuery(QueryBuilder builder) {
+        if (builder instanceof QueryStringQueryBuilder) {
+            QueryStringQueryBuilder queryString = (QueryStringQueryBuilder) builder;
+            QueryParser parser = new NumericRangeQueryParser(queryString.defaultField() != null ? queryString.defaultField() : ALL);
+            parser.setAllowLeadingWildcard(true);
+            parser.setDefaultOperator(queryString.defaultOperator() == Operator.AND ? QueryParser.Operator.AND : QueryParser.Operator.OR);
+            try {
+                return parser.parse(queryString.queryString());
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Invalid query: " + e.getMessage(), e);
+            }
+        } else if (builder instanceof BoolQueryBuilder) {
+            BoolQueryBuilder bool = (BoolQueryBuilder) builder;
+            BooleanQuery.Builder query = new BooleanQuery.Builder();
+            bool.must().forEach(clause -> query.add(toQuery(clause), Occur.MUST));
+            bool.filter().forEach(clause -> query.add(toQuery(clause), Occur.FILTER));
+            bool.should().forEach(clause -> query.add(toQuery(clause), Occur.SHOULD));
+            bool.mustNot().forEach(clause -> query.add(toQuery(clause), Occur.MUST_NOT));
+            if (bool.must().isEmpty() && bool.filter().isEmpty() && bool.should().isEmpty()) {
+                query.add(new MatchAllDocsQuery(), Occur.MUST);
+            } else if (bool.minimumShouldMatch() != null && bool.minimumShouldMatch().matches("\\d+")) {
+                query.setMinimumNumberShouldMatch(Integer.parseInt(bool.minimumShouldMatch()));
+            }
+            return query.build();
+        } else if (builder instanceof RangeQueryBuilder) {
+            RangeQueryBuilder range = (RangeQueryBuilder) builder;
+            if (isLong(range.from()) && isLong(range.to())) {
+                long from = range.from() == null ? Long.MIN_VALUE : toLong(range.from()) + (range.includeLower() ? 0 : 1);
+                long to = range.to() == null ? Long.MAX_VALUE : toLong(range.to()) - (range.includeUpper() ? 0 : 1);
+                return LongPoint.newRangeQuery(range.fieldName(), from, to);
+            }
+            return TermRangeQuery.newStringRange(keyword(range.fieldName()), toText(range.from()), toText(range.to()),
+                range.includeLower(), range.includeUpper());
+        } else if (builder instanceof TermQueryBuilder) {
+            TermQueryBuilder term = (TermQueryBuilder) builder;
+            return toTermQuery(term.fieldName(), term.value());
+        } else if (builder instanceof TermsQueryBuilder) {
+            TermsQueryBuilder terms = (TermsQueryBuilder) builder;
+            BooleanQuery.Builder query = new BooleanQuery.Builder();
+            terms.values().forEach(value -> query.add(toTermQuery(terms.fieldName(), value), Occur.SHOULD));
+            return new ConstantScoreQuery(query.build());
+        } else if (builder instanceof IdsQueryBuilder) {
+            List<BytesRef> ids = ((IdsQueryBuilder) builder).ids().stream().map(BytesRef::new).collect(Collectors.toList());
+            return new TermInSetQuery(EmbeddedSearchEngine.ID, ids);
+        } else if (builder instanceof MatchQueryBuilder) {
+            MatchQueryBuilder match = (MatchQueryBuilder) builder;
+            Query query = new org.apache.lucene.util.QueryBuilder(engine.getAnalyzer())
+                .createBooleanQuery(match.fieldName(), String.valueOf(match.value()), match.operator() == Operator.AND ? Occur.MUST : Occur.SHOULD);
+            return query != null ? query : new BooleanQuery.Builder().build();
+        } else if (builder instanceof PrefixQueryBuilder) {
+            PrefixQueryBuilder prefix = (PrefixQueryBuilder) builder;
+            return new PrefixQuery(new Term(prefix.fieldName(), engine.getAnalyzer().normalize(prefix.fieldName(), prefix.value())));
+        } else if (builder instanceof ConstantScoreQueryBuilder) {
+            return new ConstantScoreQuery(toQuery(((ConstantScoreQueryBuilder) builder).innerQuery()));
+        } else if (builder instanceof MatchAllQueryBuilder) {
+            return new MatchAllDocsQuery();
+        }
+        throw new UnsupportedOperationException(builder.getName() + " queries are not supported by the embedded search");
+    }
+
+    private static Query toTermQuery(String field, Object value) {
+        if (isLong(value)) {
+            return LongPoint.newExactQuery(field, toLong(value));
+        }
+        return new TermQuery(new Term(field, toText(value)));
+    }
+
+    private static SortField toSortField(SortBuilder<?> sort) {
+        boolean reverse = sort.order() == SortOrder.DESC;
+        if (sort instanceof ScoreSortBuilder) {
+            return new SortField(null, SortField.Type.SCORE, !reverse);
+        } else if (sort instanceof FieldSortBuilder) {
+            return toSortField(((FieldSortBuilder) sort).getFieldName(), reverse);
+        }
+        throw new UnsupportedOperationException(sort.getWriteableName() + " sorts are not supported by the embedded search");
+    }
+
+    private static SortField toSortField(String field, boolean reverse) {
+        if (SCORE.equals(field)) {
+            return new SortField(null, SortField.Type.SCORE, !reverse);
+        }
+        return new SortedNumericSortField(field, SortField.Type.LONG, reverse);
+    }
+
+    private static Sort toSort(org.springframework.data.domain.Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return null;
+        }
+        return new Sort(sort.stream()
+            .map(order -> toSortField(order.getProperty(), order.isDescending()))
+            .toArray(SortField[]::new));
+    }
+
+    private static String keyword(String field) {
+        return field.endsWith(KEYWORD) ? field : field + KEYWORD;
+    }
+
+    private static boolean isLong(Object value) {
+        if (value == null || value instanceof Long || value instanceof Integer || value instanceof Short) {
+            return true;
+        }
+        if (value instanceof String || value instanceof BytesRef) {
+            try {
+                Long.parseLong(toText(value));
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(toText(value));
+    }
+
+    private static String toText(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof BytesRef ? ((BytesRef) value).utf8ToString() : value.toString();
+    }
+
+    /**
+     * Query parser reading the ranges of integral numbers as numeric ranges, rather than as ranges of terms.
+     */
+    private final class NumericRangeQueryParser extends QueryParser {
+
+        private NumericRangeQueryParser(String defaultField) {
+            super(defaultField, engine.getAnalyzer());
+        }
+
+        @Override
+        protected Query getRangeQuery(String field, String part1, String part2, boolean startInclusive,
+                                      boolean endInclusive) throws ParseException {
+            if (isLong(part1) && isLong(part2)) {
+                long from = part1 == null ? Long.MIN_VALUE : Long.parseLong(part1) + (startInclusive ? 0 : 1);
+                long to = part2 == null ? Long.MAX_VALUE : Long.parseLong(part2) - (endInclusive ? 0 : 1);
+                return LongPoint.newRangeQuery(field, from, to);
+            }
+            return super.getRangeQuery(field, part1, part2, startInclusive, endInclusive);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory snapshot of the current {@link Release} of every territory.
+ * <p>
+ * The snapshot is loaded from the database at startup and never modified: {@link ReleaseService} swaps in a changed
+ * copy once its transactions commit, and a periodic check against the database repairs any drift.
+ * Reading it never touches the database.
+ */
+@Service
+public class CurrentReleaseRegistry {
+
+    /**
+     * Which release wins when a territory has several current ones: the latest, then the last created.
+     */
+    private static final Comparator<ReleaseSummaryDTO> LATEST = Comparator
+        .comparing(ReleaseSummaryDTO::getDate)
+        .thenComparing(ReleaseSummaryDTO::getId);
+
+    private final Logger log = LoggerFactory.getLogger(CurrentReleaseRegistry.class);
+
+    private final ReleaseRepository releaseRepository;
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private volatile Map<Territory, ReleaseSummaryDTO> snapshot = Collections.unmodifiableMap(new EnumMap<>(Territory.class));
+
+    /**
+     * The number of changes applied to the snapshot, so that a check does not overwrite the changes committed while it read the database.
+     */
+    private long changes;
+
+    public CurrentReleaseRegistry(ReleaseRepository releaseRepository, EntityVersionRegistry entityVersionRegistry) {
+        this.releaseRepository = releaseRepository;
+        this.entityVersionRegistry = entityVersionRegistry;
+    }
+
+    /**
+     * Checks the snapshot against the database, and replaces it if they differ.
+     * <p>
+     * This is fired once the application is ready, then every 15 minutes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 */15 * * * ?")
+    public void reconcile() {
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = changes;
+        }
+        Map<Territory, ReleaseSummaryDTO> loaded = new EnumMap<>(Territory.class);
+        try {
+            releaseRepository.findAllSummariesByCurrentIsTrue().forEach(release -> put(loaded, release));
+        } catch (RuntimeException e) {
+            log.warn("Could not check the current releases, keeping the current snapshot", e);
+            return;
+        }
+        synchronized (this) {
+            if (changes != changesBefore) {
+                log.debug("Current releases changed during the check, it will be done again on the next run");
+                return;
+            }
+            if (!loaded.equals(snapshot)) {
+                log.info("Current releases snapshot differed from the database, reloaded {} territories", loaded.size());
+                snapshot = Collections.unmodifiableMap(loaded);
+                entityVersionRegistry.bumpAfterCommit(Release.class);
+            }
+        }
+    }
+
+    /**
+     * Applies a saved release to the snapshot once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param release the saved release.
+     */
+    public void savedAfterCommit(Release release) {
+        ReleaseSummaryDTO summary = toSummary(release);
+        afterCommit(() -> apply(summary.getId(), Boolean.TRUE.equals(summary.getCurrent()) ? summary : null));
+    }
+
+    /**
+     * Removes a deleted release from the snapshot once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param id the id of the deleted release.
+     */
+    public void deletedAfterCommit(Long id) {
+        afterCommit(() -> apply(id, null));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private synchronized void apply(Long id, ReleaseSummaryDTO current) {
+        Map<Territory, ReleaseSummaryDTO> copy = new EnumMap<>(Territory.class);
+        copy.putAll(snapshot);
+        copy.values().removeIf(release -> release.getId().equals(id));
+        if (current != null) {
+            put(copy, current);
+        }
+        snapshot = Collections.unmodifiableMap(copy);
+        changes++;
+    }
+
+    private static void put(Map<Territory, ReleaseSummaryDTO> releases, ReleaseSummaryDTO release) {
+        releases.merge(release.getTerritory(), release, (kept, other) -> LATEST.compare(kept, other) >= 0 ? kept : other);
+    }
+
+    /**
+     * @return the current releases, in the order of their territories.
+     */
+    public List<ReleaseSummaryDTO> getCurrentReleases() {
+        return new ArrayList<>(snapshot.values());
+    }
+
+    /**
+     * @param territory the territory.
+     * @return the current release of the territory, if any.
+     */
+    public Optional<ReleaseSummaryDTO> getCurrentRelease(Territory territory) {
+        return Optional.ofNullable(snapshot.get(territory));
+    }
+
+    static ReleaseSummaryDTO toSummary(Release release) {
+        return new ReleaseSummaryDTO(release.getId(), release.getDate(), release.getTerritory(), release.getBuild(),
+            release.getReleaseLetter(), release.getPrefixLetter(), release.getDatabaseVersion(), release.getWsVersion(),
+            release.getTmaVersion(), release.getPort(), release.isCurrent());
+    }
+}
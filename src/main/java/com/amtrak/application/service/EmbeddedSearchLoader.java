@@ -0,0 +1,95 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.List;
+
+/**
+ * Service filling the empty indices of the embedded search from the database, once the application is ready.
+ * <p>
+ * The local indices start empty, on the first start in the embedded mode or once their directory is deleted, and
+ * the reindex endpoint only rebuilds Elasticsearch indices. The table of every entity whose index is empty is read
+ * by pages of {@code application.reindex.chunk-size} ids, after the last id of the previous page. The
+ * {@link SearchIndexer} is paused meanwhile, so that the changes made during the load are applied after it.
+ */
+@ConditionalOnProperty(prefix = "application.search", name = "mode", havingValue = "embedded")
+@Service
+public class EmbeddedSearchLoader {
+
+    private final Logger log = LoggerFactory.getLogger(EmbeddedSearchLoader.class);
+
+    private final SearchIndexer searchIndexer;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public EmbeddedSearchLoader(SearchIndexer searchIndexer, EntityManager entityManager,
+                                PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        this.searchIndexer = searchIndexer;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.chunkSize = applicationProperties.getReindex().getChunkSize();
+    }
+
+    /**
+     * Loads the entities of the empty indices.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadEmptyIndices() {
+        searchIndexer.pause();
+        try {
+            for (Class<?> type : searchIndexer.getIndexedTypes()) {
+                try {
+                    if (searchIndexer.countIndexed(type) == 0) {
+                        load(type);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Could not load the {} index", type.getSimpleName(), e);
+                }
+            }
+        } finally {
+            searchIndexer.resume();
+        }
+    }
+
+    private void load(Class<?> type) {
+        String entityName = entityManager.getMetamodel().entity(type).getName();
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        long loaded = 0;
+        long last = Long.MIN_VALUE;
+        int size;
+        do {
+            long after = last;
+            List<?> entities = transactionTemplate.execute(status -> {
+                List<?> page = entityManager
+                    .createQuery("select e from " + entityName + " e where e.id > :after order by e.id", type)
+                    .setParameter("after", after)
+                    .setMaxResults(chunkSize)
+                    .getResultList();
+                // Indexed in the transaction, so that lazy associations can be serialized
+                searchIndexer.indexNow(type, page);
+                return page;
+            });
+            size = entities.size();
+            if (size > 0) {
+                last = (Long) persistenceUnitUtil.getIdentifier(entities.get(size - 1));
+                loaded += size;
+            }
+        } while (size == chunkSize);
+        log.info("Loaded {} documents into the empty {} index", loaded, type.getSimpleName());
+    }
+}
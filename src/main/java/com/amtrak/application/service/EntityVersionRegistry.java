@@ -0,0 +1,64 @@
+package com.amtrak.application.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Modification counters of the entity types, bumped by the services once their changes are committed.
+ * <p>
+ * They tag the collections served by the REST resources, so that a client which already holds the current
+ * version of a collection gets a {@code 304 (Not Modified)} without any query. The counters live in memory,
+ * they only see the changes made through this instance and start over with a new epoch on every start.
+ */
+@Service
+public class EntityVersionRegistry {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+
+    private final ConcurrentMap<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Bumps the version of an entity type once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param entityType the type of the changed entity.
+     */
+    public void bumpAfterCommit(Class<?> entityType) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    bump(entityType);
+                }
+            });
+        } else {
+            bump(entityType);
+        }
+    }
+
+    private void bump(Class<?> entityType) {
+        versions.computeIfAbsent(entityType, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Get the version of data made of the given entity types.
+     * <p>
+     * It must be read before the data: a change committed in between then only causes one more refresh.
+     *
+     * @param entityTypes the types of the entities the data is made of.
+     * @return the version, which changes whenever one of the entity types changes.
+     */
+    public String getVersion(Class<?>... entityTypes) {
+        return epoch + "-" + Arrays.stream(entityTypes)
+            .map(entityType -> String.valueOf(versions.computeIfAbsent(entityType, key -> new AtomicLong()).get()))
+            .collect(Collectors.joining("."));
+    }
+}
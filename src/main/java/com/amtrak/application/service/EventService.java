@@ -29,9 +29,13 @@ public class EventService {
 
     private final EventSearchRepository eventSearchRepository;
 
-    public EventService(EventRepository eventRepository, EventSearchRepository eventSearchRepository) {
+    private final SearchIndexer searchIndexer;
+
+    public EventService(EventRepository eventRepository, EventSearchRepository eventSearchRepository,
+                        SearchIndexer searchIndexer) {
         this.eventRepository = eventRepository;
         this.eventSearchRepository = eventSearchRepository;
+        this.searchIndexer = searchIndexer;
     }
 
     /**
@@ -43,7 +47,7 @@ public class EventService {
     public Event save(Event event) {
         log.debug("Request to save Event : {}", event);
         Event result = eventRepository.save(event);
-        eventSearchRepository.save(result);
+        searchIndexer.index(Event.class, result.getId());
         return result;
     }
 
@@ -79,7 +83,7 @@ public class EventService {
     public void delete(Long id) {
         log.debug("Request to delete Event : {}", id);
         eventRepository.deleteById(id);
-        eventSearchRepository.deleteById(id);
+        searchIndexer.delete(Event.class, id);
     }
 
     /**
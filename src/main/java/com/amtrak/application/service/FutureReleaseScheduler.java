@@ -0,0 +1,203 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory list of the upcoming {@link Release}s, ordered by date.
+ * <p>
+ * The list is loaded from the database at startup and kept up to date by {@link ReleaseService} once its transactions
+ * commit. A single task is scheduled at the date of the next release: it takes the releases whose date arrived off
+ * the list, publishes a {@link ReleasesDueEvent} for them, and schedules itself again for the following release.
+ * Reading the list never touches the database.
+ */
+@Service
+public class FutureReleaseScheduler {
+
+    private static final Comparator<ReleaseSummaryDTO> BY_DATE = Comparator
+        .comparing(ReleaseSummaryDTO::getDate)
+        .thenComparing(ReleaseSummaryDTO::getId);
+
+    private final Logger log = LoggerFactory.getLogger(FutureReleaseScheduler.class);
+
+    private final ReleaseRepository releaseRepository;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile List<ReleaseSummaryDTO> upcoming = Collections.emptyList();
+
+    /**
+     * The task run at the date of the next release, guarded by this.
+     */
+    private ScheduledFuture<?> nextRelease;
+
+    /**
+     * The number of changes applied to the list, so that a reload does not overwrite the changes committed while it read the database.
+     */
+    private long changes;
+
+    public FutureReleaseScheduler(ReleaseRepository releaseRepository, TaskScheduler taskScheduler,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.releaseRepository = releaseRepository;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Reloads the upcoming releases from the database.
+     * <p>
+     * This is fired once the application is ready, then every hour to repair any drift.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 * * * ?")
+    public void reload() {
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = changes;
+        }
+        List<ReleaseSummaryDTO> loaded;
+        try {
+            loaded = new ArrayList<>(releaseRepository.findAllSummariesByDateIsGreaterThanAndCurrent(Instant.now(), false));
+        } catch (RuntimeException e) {
+            log.warn("Could not load the upcoming releases, keeping the current ones", e);
+            return;
+        }
+        loaded.sort(BY_DATE);
+        synchronized (this) {
+            if (changes != changesBefore) {
+                log.debug("Upcoming releases changed during the reload, it will be done again on the next run");
+                return;
+            }
+            upcoming = Collections.unmodifiableList(loaded);
+            scheduleNextRelease();
+        }
+    }
+
+    /**
+     * Applies a saved release to the upcoming releases once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param release the saved release.
+     */
+    public void savedAfterCommit(Release release) {
+        ReleaseSummaryDTO summary = CurrentReleaseRegistry.toSummary(release);
+        afterCommit(() -> apply(summary.getId(), summary));
+    }
+
+    /**
+     * Removes a deleted release from the upcoming releases once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param id the id of the deleted release.
+     */
+    public void deletedAfterCommit(Long id) {
+        afterCommit(() -> apply(id, null));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private synchronized void apply(Long id, ReleaseSummaryDTO saved) {
+        List<ReleaseSummaryDTO> copy = upcoming.stream()
+            .filter(release -> !release.getId().equals(id))
+            .collect(Collectors.toCollection(ArrayList::new));
+        if (saved != null && !Boolean.TRUE.equals(saved.getCurrent()) && saved.getDate().isAfter(Instant.now())) {
+            copy.add(saved);
+            copy.sort(BY_DATE);
+        }
+        upcoming = Collections.unmodifiableList(copy);
+        changes++;
+        scheduleNextRelease();
+    }
+
+    /**
+     * Replaces the scheduled task by one at the date of the next release, must be called holding the lock.
+     */
+    private void scheduleNextRelease() {
+        if (nextRelease != null) {
+            nextRelease.cancel(false);
+            nextRelease = null;
+        }
+        if (!upcoming.isEmpty()) {
+            Instant date = upcoming.get(0).getDate();
+            nextRelease = taskScheduler.schedule(this::releaseDue, Date.from(date));
+            log.debug("Next release due at {}", date);
+        }
+    }
+
+    private void releaseDue() {
+        List<ReleaseSummaryDTO> due;
+        synchronized (this) {
+            Instant now = Instant.now();
+            due = upcoming.stream().filter(release -> !release.getDate().isAfter(now)).collect(Collectors.toList());
+            if (!due.isEmpty()) {
+                upcoming = Collections.unmodifiableList(new ArrayList<>(upcoming.subList(due.size(), upcoming.size())));
+                changes++;
+            }
+            scheduleNextRelease();
+        }
+        if (!due.isEmpty()) {
+            log.info("{} release(s) reached their date", due.size());
+            eventPublisher.publishEvent(new ReleasesDueEvent(due));
+        }
+    }
+
+    /**
+     * @return the upcoming releases, ordered by date.
+     */
+    public List<ReleaseSummaryDTO> getFutureReleases() {
+        Instant now = Instant.now();
+        return upcoming.stream().filter(release -> release.getDate().isAfter(now)).collect(Collectors.toList());
+    }
+
+    /**
+     * Published when the date of upcoming releases arrives.
+     */
+    public static final class ReleasesDueEvent {
+
+        private final List<ReleaseSummaryDTO> releases;
+
+        private ReleasesDueEvent(List<ReleaseSummaryDTO> releases) {
+            this.releases = Collections.unmodifiableList(releases);
+        }
+
+        /**
+         * @return the releases whose date arrived, ordered by date.
+         */
+        public List<ReleaseSummaryDTO> getReleases() {
+            return releases;
+        }
+    }
+}
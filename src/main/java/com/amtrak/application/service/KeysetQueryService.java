@@ -0,0 +1,190 @@
+package com.amtrak.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.jhipster.service.QueryService;
+
+import com.amtrak.application.service.dto.KeysetPage;
+
+/**
+ * Base service for executing keyset (seek) paginated queries with the {@link Specification}s of a {@link QueryService}.
+ * <p>
+ * Entities are ordered by one sortable attribute, then by id, and every page starts right after the
+ * (sort key, id) pair of the last entity of the previous page. Reading a deep page costs the same as
+ * reading the first one, and no count query is needed.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ */
+@Transactional(readOnly = true)
+public abstract class KeysetQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    private static final String ID = "id";
+
+    private static final String CURSOR_SEPARATOR = "\n";
+
+    private final EntityManager entityManager;
+
+    private final Class<ENTITY> entityClass;
+
+    private final Set<String> sortableProperties;
+
+    /**
+     * @param entityManager the entity manager used to run the queries.
+     * @param entityClass the type of the entity which is queried.
+     * @param sortableProperties the properties a page can be sorted by, they must not be nullable.
+     */
+    protected KeysetQueryService(EntityManager entityManager, Class<ENTITY> entityClass, Set<String> sortableProperties) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.sortableProperties = sortableProperties;
+    }
+
+    /**
+     * Return the page of entities matching the specification which comes right after the cursor.
+     * <p>
+     * Only the first order of the sort of the {@link Pageable} is used, and its page number is ignored.
+     *
+     * @param specification the filters, which the entities should match.
+     * @param after the cursor of the previous page, or {@code null} for the first page.
+     * @param page the size and the sort of the page.
+     * @return the matching entities.
+     * @throws IllegalArgumentException if the sort is not supported or the cursor is not valid for it.
+     */
+    protected KeysetPage<ENTITY> findByCriteriaAfter(Specification<ENTITY> specification, String after, Pageable page) {
+        return findByCriteriaAfter(specification, after, page, entityClass, (root, builder) -> root);
+    }
+
+    /**
+     * Return the page of projections of the entities matching the specification which comes right after the cursor.
+     * <p>
+     * The projection must hold the id and the sort key in fields named like the properties of the entity.
+     *
+     * @param specification the filters, which the entities should match.
+     * @param after the cursor of the previous page, or {@code null} for the first page.
+     * @param page the size and the sort of the page.
+     * @param resultClass the type of the projection.
+     * @param selection builds the selection of the projection from the root of the query.
+     * @param <R> the type of the projection.
+     * @return the projections of the matching entities.
+     * @throws IllegalArgumentException if the sort is not supported or the cursor is not valid for it.
+     */
+    protected <R> KeysetPage<R> findByCriteriaAfter(Specification<ENTITY> specification, String after, Pageable page,
+                                                    Class<R> resultClass,
+                                                    BiFunction<Root<ENTITY>, CriteriaBuilder, Selection<? extends R>> selection) {
+        Sort.Order order = page.getSort().stream().findFirst().orElse(Sort.Order.asc(ID));
+        if (!ID.equals(order.getProperty()) && !sortableProperties.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Sorting by " + order.getProperty() + " is not supported");
+        }
+        boolean ascending = order.isAscending();
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = builder.createQuery(resultClass);
+        Root<ENTITY> root = query.from(entityClass);
+        Path<?> key = root.get(order.getProperty());
+        Path<?> id = root.get(ID);
+
+        Specification<ENTITY> seekSpecification = specification;
+        if (after != null) {
+            String[] cursor = decodeCursor(after, order);
+            Long lastId = Long.valueOf(cursor[2]);
+            if (ID.equals(order.getProperty())) {
+                seekSpecification = seekSpecification.and((r, q, cb) -> beyond(cb, id, lastId, ascending));
+            } else {
+                Comparable<?> lastKey = parseKey(key.getJavaType(), cursor[3]);
+                seekSpecification = seekSpecification.and((r, q, cb) -> cb.or(
+                    beyond(cb, key, lastKey, ascending),
+                    cb.and(cb.equal(key, lastKey), beyond(cb, id, lastId, ascending))));
+            }
+        }
+        Predicate predicate = seekSpecification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(selection.apply(root, builder));
+        if (ID.equals(order.getProperty())) {
+            query.orderBy(ascending ? builder.asc(id) : builder.desc(id));
+        } else {
+            query.orderBy(ascending ? builder.asc(key) : builder.desc(key), ascending ? builder.asc(id) : builder.desc(id));
+        }
+
+        int size = page.getPageSize();
+        List<R> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<R> content = new ArrayList<>(rows.subList(0, size));
+        return new KeysetPage<>(content, encodeCursor(content.get(size - 1), order));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder builder, Path path, Comparable value, boolean ascending) {
+        return ascending ? builder.greaterThan(path, value) : builder.lessThan(path, value);
+    }
+
+    private static String encodeCursor(Object entity, Sort.Order order) {
+        Object id = PropertyAccessorFactory.forDirectFieldAccess(entity).getPropertyValue(ID);
+        Object key = PropertyAccessorFactory.forDirectFieldAccess(entity).getPropertyValue(order.getProperty());
+        String cursor = String.join(CURSOR_SEPARATOR, order.getProperty(), order.getDirection().name(),
+            String.valueOf(id), key instanceof Enum ? ((Enum<?>) key).name() : String.valueOf(key));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the property, direction, id and sort key of the cursor.
+     */
+    private static String[] decodeCursor(String after, Sort.Order order) {
+        String[] cursor;
+        try {
+            cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split(CURSOR_SEPARATOR, 4);
+            Long.valueOf(cursor[2]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (cursor.length != 4 || !cursor[0].equals(order.getProperty()) || !cursor[1].equals(order.getDirection().name())) {
+            throw new IllegalArgumentException("The cursor does not match the requested sort");
+        }
+        return cursor;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<?> parseKey(Class<?> type, String value) {
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Integer.class) {
+                return Integer.valueOf(value);
+            } else if (type == Long.class) {
+                return Long.valueOf(value);
+            } else if (type == Boolean.class) {
+                return Boolean.valueOf(value);
+            } else if (type == Instant.class) {
+                return Instant.parse(value);
+            } else if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, value);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        throw new IllegalArgumentException("Sorting by a " + type.getSimpleName() + " is not supported");
+    }
+}
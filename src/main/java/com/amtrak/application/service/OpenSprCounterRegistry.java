@@ -0,0 +1,236 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.enumeration.Priority;
+import com.amtrak.application.domain.enumeration.Resolution;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.repository.SprRepository;
+import com.amtrak.application.service.dto.UserOpenSprCountDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory counters of the open {@link Spr}s per user, territory and priority.
+ * <p>
+ * The counters are seeded from the database at startup, kept up to date by {@link SprService} once its
+ * transactions commit, and periodically rebuilt from the database to repair any drift.
+ * Reading them never touches the database.
+ */
+@Service
+public class OpenSprCounterRegistry {
+
+    private final Logger log = LoggerFactory.getLogger(OpenSprCounterRegistry.class);
+
+    private final SprRepository sprRepository;
+
+    private volatile Counters counters = new Counters();
+
+    /**
+     * The number of changes applied to the counters, so that a rebuild does not overwrite the changes committed while it read the database.
+     */
+    private long changes;
+
+    public OpenSprCounterRegistry(SprRepository sprRepository) {
+        this.sprRepository = sprRepository;
+    }
+
+    /**
+     * Rebuilds all the counters from the database.
+     * <p>
+     * This is fired once the application is ready, then every 5 minutes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 */5 * * * ?")
+    public void reconcile() {
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = changes;
+        }
+        Counters rebuilt = new Counters();
+        try {
+            sprRepository.countOpen().forEach(row ->
+                rebuilt.add(row.getUserId(), row.getLogin(), row.getTerritory(), row.getPriority(), row.getTotal()));
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the open SPR counters, keeping the current ones", e);
+            return;
+        }
+        synchronized (this) {
+            if (changes != changesBefore) {
+                log.debug("Open SPR counters changed during the rebuild, it will be done again on the next run");
+                return;
+            }
+            long drift = rebuilt.total.sum() - counters.total.sum();
+            if (drift != 0) {
+                log.info("Open SPR counters drifted by {}, repaired from the database", drift);
+            }
+            counters = rebuilt;
+        }
+    }
+
+    /**
+     * Moves an SPR from one set of counters to another once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param before what the SPR counted for before the change, {@code null} if it did not count.
+     * @param after what the SPR counts for after the change, {@code null} if it does not count anymore.
+     */
+    public void updateAfterCommit(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    update(before, after);
+                }
+            });
+        } else {
+            update(before, after);
+        }
+    }
+
+    private synchronized void update(Contribution before, Contribution after) {
+        Counters current = counters;
+        if (before != null) {
+            current.add(before.userId, before.login, before.territory, before.priority, -1);
+        }
+        if (after != null) {
+            current.add(after.userId, after.login, after.territory, after.priority, 1);
+        }
+        changes++;
+    }
+
+    /**
+     * @return the number of open SPRs of every user having at least one.
+     */
+    public List<UserOpenSprCountDTO> getUserCounts() {
+        Counters current = counters;
+        return current.byUser.entrySet().stream()
+            .filter(entry -> entry.getValue().sum() > 0)
+            .map(entry -> new UserOpenSprCountDTO(entry.getKey(), current.logins.get(entry.getKey()), entry.getValue().sum()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the number of open SPRs of every territory having at least one.
+     */
+    public Map<Territory, Long> getTerritoryCounts() {
+        return sums(counters.byTerritory, Territory.class);
+    }
+
+    /**
+     * @return the number of open SPRs of every priority having at least one.
+     */
+    public Map<Priority, Long> getPriorityCounts() {
+        return sums(counters.byPriority, Priority.class);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> sums(Map<E, LongAdder> adders, Class<E> type) {
+        Map<E, Long> result = new EnumMap<>(type);
+        adders.forEach((key, adder) -> {
+            long sum = adder.sum();
+            if (sum > 0) {
+                result.put(key, sum);
+            }
+        });
+        return result;
+    }
+
+    private static final class Counters {
+
+        private final ConcurrentMap<Long, LongAdder> byUser = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Long, String> logins = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Territory, LongAdder> byTerritory = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Priority, LongAdder> byPriority = new ConcurrentHashMap<>();
+
+        private final LongAdder total = new LongAdder();
+
+        private void add(Long userId, String login, Territory territory, Priority priority, long delta) {
+            if (userId != null) {
+                byUser.computeIfAbsent(userId, key -> new LongAdder()).add(delta);
+                if (login != null) {
+                    logins.put(userId, login);
+                }
+            }
+            if (territory != null) {
+                byTerritory.computeIfAbsent(territory, key -> new LongAdder()).add(delta);
+            }
+            if (priority != null) {
+                byPriority.computeIfAbsent(priority, key -> new LongAdder()).add(delta);
+            }
+            total.add(delta);
+        }
+    }
+
+    /**
+     * The counters an open SPR is part of.
+     */
+    public static final class Contribution {
+
+        private final Long userId;
+
+        private final String login;
+
+        private final Territory territory;
+
+        private final Priority priority;
+
+        private Contribution(Long userId, String login, Territory territory, Priority priority) {
+            this.userId = userId;
+            this.login = login;
+            this.territory = territory;
+            this.priority = priority;
+        }
+
+        /**
+         * @param spr the SPR, may be {@code null}.
+         * @return the counters the SPR is part of, or {@code null} if it is not open.
+         */
+        public static Contribution of(Spr spr) {
+            if (spr == null || !Resolution.isOpen(spr.getResolution())) {
+                return null;
+            }
+            return spr.getUser() == null
+                ? new Contribution(null, null, spr.getTerritory(), spr.getPriority())
+                : new Contribution(spr.getUser().getId(), spr.getUser().getLogin(), spr.getTerritory(), spr.getPriority());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Contribution)) {
+                return false;
+            }
+            Contribution that = (Contribution) o;
+            return Objects.equals(userId, that.userId) &&
+                territory == that.territory &&
+                priority == that.priority;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, territory, priority);
+        }
+    }
+}
@@ -3,18 +3,17 @@ package com.amtrak.application.service;
 import com.amtrak.application.domain.OutOfOffice;
 import com.amtrak.application.repository.OutOfOfficeRepository;
 import com.amtrak.application.repository.search.OutOfOfficeSearchRepository;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * Service Implementation for managing {@link OutOfOffice}.
@@ -29,9 +28,20 @@ public class OutOfOfficeService {
 
     private final OutOfOfficeSearchRepository outOfOfficeSearchRepository;
 
-    public OutOfOfficeService(OutOfOfficeRepository outOfOfficeRepository, OutOfOfficeSearchRepository outOfOfficeSearchRepository) {
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final SearchIndexer searchIndexer;
+
+    private final SearchCache searchCache;
+
+    public OutOfOfficeService(OutOfOfficeRepository outOfOfficeRepository, OutOfOfficeSearchRepository outOfOfficeSearchRepository,
+                     EntityVersionRegistry entityVersionRegistry, SearchIndexer searchIndexer,
+                     SearchCache searchCache) {
         this.outOfOfficeRepository = outOfOfficeRepository;
         this.outOfOfficeSearchRepository = outOfOfficeSearchRepository;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.searchIndexer = searchIndexer;
+        this.searchCache = searchCache;
     }
 
     /**
@@ -43,7 +53,8 @@ public class OutOfOfficeService {
     public OutOfOffice save(OutOfOffice outOfOffice) {
         log.debug("Request to save OutOfOffice : {}", outOfOffice);
         OutOfOffice result = outOfOfficeRepository.save(outOfOffice);
-        outOfOfficeSearchRepository.save(result);
+        searchIndexer.index(OutOfOffice.class, result.getId());
+        entityVersionRegistry.bumpAfterCommit(OutOfOffice.class);
         return result;
     }
 
@@ -79,20 +90,23 @@ public class OutOfOfficeService {
     public void delete(Long id) {
         log.debug("Request to delete OutOfOffice : {}", id);
         outOfOfficeRepository.deleteById(id);
-        outOfOfficeSearchRepository.deleteById(id);
+        searchIndexer.delete(OutOfOffice.class, id);
+        entityVersionRegistry.bumpAfterCommit(OutOfOffice.class);
     }
 
     /**
-     * Search for the outOfOffice corresponding to the query.
+     * Search for the outOfOffice corresponding to the query, one page at a time.
      *
      * @param query the query of the search.
-     * @return the list of entities.
+     * @param after the cursor of the previous page, or {@code null} for the first page.
+     * @param pageable the size and the sort of the page.
+     * @return the page of entities.
+     * @throws IllegalArgumentException if the sort is not supported or the cursor is not valid for it.
      */
     @Transactional(readOnly = true)
-    public List<OutOfOffice> search(String query) {
-        log.debug("Request to search OutOfOffices for query {}", query);
-        return StreamSupport
-            .stream(outOfOfficeSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-            .collect(Collectors.toList());
+    public SearchPage<OutOfOffice> search(String query, String after, Pageable pageable) {
+        log.debug("Request to search a page of OutOfOffices for query {}, after: {}", query, after);
+        return searchCache.get(OutOfOffice.class, query, after, pageable,
+            () -> SearchPageUtil.search(outOfOfficeSearchRepository, OutOfOffice::getId, query, after, pageable));
     }
 }
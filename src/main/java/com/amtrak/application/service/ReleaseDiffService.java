@@ -0,0 +1,102 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.exceptions.ReleaseException;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.repository.SprRepository;
+import com.amtrak.application.service.dto.ReleaseDiffDTO;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
+import com.amtrak.application.service.dto.SprReferenceDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Service comparing the SPRs delivered by two builds of a territory.
+ * <p>
+ * Builds are cumulative, so the difference between two builds is made of the SPRs of the releases between them:
+ * it is read with one query returning SPR references, without loading any entity. The differences are cached
+ * under the current version of the releases and SPRs, so that any change makes them stale.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReleaseDiffService {
+
+    public static final String RELEASE_DIFFS_CACHE = "releaseDiffs";
+
+    private static final Comparator<ReleaseSummaryDTO> RELEASE_ORDER = Comparator
+        .comparing(ReleaseSummaryDTO::getDate)
+        .thenComparing(ReleaseSummaryDTO::getId);
+
+    private final Logger log = LoggerFactory.getLogger(ReleaseDiffService.class);
+
+    private final ReleaseRepository releaseRepository;
+
+    private final SprRepository sprRepository;
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final CacheManager cacheManager;
+
+    public ReleaseDiffService(ReleaseRepository releaseRepository, SprRepository sprRepository,
+                              EntityVersionRegistry entityVersionRegistry, CacheManager cacheManager) {
+        this.releaseRepository = releaseRepository;
+        this.sprRepository = sprRepository;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Compare the SPRs delivered by two builds of the same territory.
+     *
+     * @param fromId the id of the release to compare from.
+     * @param toId the id of the release to compare to.
+     * @return the difference, or empty if one of the releases does not exist.
+     * @throws ReleaseException.TerritoryMismatch if the releases are not of the same territory.
+     */
+    public Optional<ReleaseDiffDTO> diff(Long fromId, Long toId) throws ReleaseException.TerritoryMismatch {
+        log.debug("Request to diff Release : {} to Release : {}", fromId, toId);
+        String key = fromId + ":" + toId + ":" + entityVersionRegistry.getVersion(Release.class, Spr.class);
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(RELEASE_DIFFS_CACHE));
+        ReleaseDiffDTO cached = cache.get(key, ReleaseDiffDTO.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<ReleaseSummaryDTO> from = releaseRepository.findSummaryById(fromId);
+        Optional<ReleaseSummaryDTO> to = releaseRepository.findSummaryById(toId);
+        if (!from.isPresent() || !to.isPresent()) {
+            return Optional.empty();
+        }
+        if (from.get().getTerritory() != to.get().getTerritory()) {
+            throw new ReleaseException.TerritoryMismatch("Only releases of the same territory can be compared");
+        }
+
+        ReleaseDiffDTO diff;
+        int order = RELEASE_ORDER.compare(from.get(), to.get());
+        if (order < 0) {
+            diff = new ReleaseDiffDTO(from.get(), to.get(), deliveredBetween(from.get(), to.get()), Collections.emptyList());
+        } else if (order > 0) {
+            diff = new ReleaseDiffDTO(from.get(), to.get(), Collections.emptyList(), deliveredBetween(to.get(), from.get()));
+        } else {
+            diff = new ReleaseDiffDTO(from.get(), to.get(), Collections.emptyList(), Collections.emptyList());
+        }
+        cache.put(key, diff);
+        return Optional.of(diff);
+    }
+
+    private List<SprReferenceDTO> deliveredBetween(ReleaseSummaryDTO after, ReleaseSummaryDTO until) {
+        return sprRepository.findReferencesDeliveredBetween(after.getTerritory(),
+            after.getDate(), after.getId(), until.getDate(), until.getId());
+    }
+}
@@ -0,0 +1,295 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.repository.SprRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service rendering the notes of a {@link Release}: its versions, its new and updated features and its SPRs.
+ * <p>
+ * The notes are rendered once per version of the releases and SPRs, and kept gzipped in a bounded cache along with
+ * the hash of their content, which the REST resource uses as a strong {@code ETag}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReleaseNotesService {
+
+    public static final String RELEASE_NOTES_CACHE = "releaseNotes";
+
+    /**
+     * The supported release notes formats.
+     */
+    public enum Format {
+        HTML("text/html", "html"), MARKDOWN("text/markdown", "md");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Optional<Format> fromExtension(String extension) {
+            return Arrays.stream(values()).filter(format -> format.getExtension().equalsIgnoreCase(extension)).findFirst();
+        }
+    }
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+
+    private final Logger log = LoggerFactory.getLogger(ReleaseNotesService.class);
+
+    private final ReleaseRepository releaseRepository;
+
+    private final SprRepository sprRepository;
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final CacheManager cacheManager;
+
+    public ReleaseNotesService(ReleaseRepository releaseRepository, SprRepository sprRepository,
+                               EntityVersionRegistry entityVersionRegistry, CacheManager cacheManager) {
+        this.releaseRepository = releaseRepository;
+        this.sprRepository = sprRepository;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Get the notes of a release, rendered if they are not cached yet.
+     *
+     * @param id the id of the release.
+     * @param format the format of the notes.
+     * @return the rendered notes, or empty if the release does not exist.
+     */
+    public Optional<ReleaseNotes> getNotes(Long id, Format format) {
+        log.debug("Request to get the {} notes of Release : {}", format, id);
+        String key = id + ":" + format + ":" + entityVersionRegistry.getVersion(Release.class, Spr.class);
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(RELEASE_NOTES_CACHE));
+        ReleaseNotes cached = cache.get(key, ReleaseNotes.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<ReleaseNotes> notes = releaseRepository.findById(id).map(release -> {
+            List<Spr> sprs = sprRepository.findAllByReleaseIdOrderByNumber(id);
+            String content = format == Format.HTML ? toHtml(release, sprs) : toMarkdown(release, sprs);
+            return new ReleaseNotes(content.getBytes(StandardCharsets.UTF_8));
+        });
+        notes.ifPresent(rendered -> cache.put(key, rendered));
+        return notes;
+    }
+
+    private static String toMarkdown(Release release, List<Spr> sprs) {
+        StringBuilder markdown = new StringBuilder()
+            .append("# ").append(title(release)).append("\n\n")
+            .append("Released on ").append(DATE_FORMAT.format(release.getDate())).append(".\n\n")
+            .append("| Database | WS | TMA | Port |\n")
+            .append("| --- | --- | --- | --- |\n")
+            .append("| ").append(text(release.getDatabaseVersion()))
+            .append(" | ").append(text(release.getWsVersion()))
+            .append(" | ").append(text(release.getTmaVersion()))
+            .append(" | ").append(text(release.getPort())).append(" |\n");
+        if (release.getNewFeatures() != null) {
+            markdown.append("\n## New features\n\n").append(release.getNewFeatures().trim()).append('\n');
+        }
+        if (release.getUpdatedFeatures() != null) {
+            markdown.append("\n## Updated features\n\n").append(release.getUpdatedFeatures().trim()).append('\n');
+        }
+        if (!sprs.isEmpty()) {
+            markdown.append("\n## SPRs\n\n");
+            for (Spr spr : sprs) {
+                markdown.append("- **").append(spr.getFullNumber()).append("**").append(status(spr));
+                if (spr.getDescription() != null) {
+                    markdown.append(": ").append(spr.getDescription().trim().replace("\n", "\n  "));
+                }
+                markdown.append('\n');
+            }
+        }
+        return markdown.toString();
+    }
+
+    private static String toHtml(Release release, List<Spr> sprs) {
+        String title = escape(title(release));
+        StringBuilder html = new StringBuilder()
+            .append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>").append(title).append("</title>\n</head>\n<body>\n")
+            .append("<h1>").append(title).append("</h1>\n")
+            .append("<p>Released on ").append(DATE_FORMAT.format(release.getDate())).append(".</p>\n")
+            .append("<dl>\n")
+            .append("<dt>Database</dt><dd>").append(escape(text(release.getDatabaseVersion()))).append("</dd>\n")
+            .append("<dt>WS</dt><dd>").append(escape(text(release.getWsVersion()))).append("</dd>\n")
+            .append("<dt>TMA</dt><dd>").append(escape(text(release.getTmaVersion()))).append("</dd>\n")
+            .append("<dt>Port</dt><dd>").append(escape(text(release.getPort()))).append("</dd>\n")
+            .append("</dl>\n");
+        if (release.getNewFeatures() != null) {
+            html.append("<h2>New features</h2>\n<p>").append(paragraph(release.getNewFeatures())).append("</p>\n");
+        }
+        if (release.getUpdatedFeatures() != null) {
+            html.append("<h2>Updated features</h2>\n<p>").append(paragraph(release.getUpdatedFeatures())).append("</p>\n");
+        }
+        if (!sprs.isEmpty()) {
+            html.append("<h2>SPRs</h2>\n<ul>\n");
+            for (Spr spr : sprs) {
+                html.append("<li><strong>").append(escape(spr.getFullNumber())).append("</strong>").append(escape(status(spr)));
+                if (spr.getDescription() != null) {
+                    html.append(": ").append(paragraph(spr.getDescription()));
+                }
+                html.append("</li>\n");
+            }
+            html.append("</ul>\n");
+        }
+        return html.append("</body>\n</html>\n").toString();
+    }
+
+    private static String title(Release release) {
+        return release.getTerritory() + " release " + text(release.getPrefixLetter()) + release.getReleaseLetter() +
+            " build " + release.getBuild();
+    }
+
+    /**
+     * @return the priority and resolution of the SPR in parentheses, or nothing if it has neither.
+     */
+    private static String status(Spr spr) {
+        String status = Stream.of(spr.getPriority(), spr.getResolution())
+            .filter(Objects::nonNull)
+            .map(Object::toString)
+            .collect(Collectors.joining(", "));
+        return status.isEmpty() ? "" : " (" + status + ")";
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String paragraph(String text) {
+        return escape(text.trim()).replace("\r\n", "\n").replace("\n", "<br>\n");
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                case '\'':
+                    escaped.append("&#39;");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Rendered release notes, kept gzipped.
+     */
+    public static final class ReleaseNotes implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] gzipped;
+
+        private final String hash;
+
+        private ReleaseNotes(byte[] content) {
+            this.hash = sha256(content);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (OutputStream gzip = new GZIPOutputStream(output)) {
+                gzip.write(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.gzipped = output.toByteArray();
+        }
+
+        /**
+         * @return the notes, gzipped.
+         */
+        public byte[] getGzipped() {
+            return gzipped.clone();
+        }
+
+        /**
+         * @return the notes, uncompressed.
+         */
+        public byte[] getContent() {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(gzipped.length * 4);
+            byte[] buffer = new byte[8192];
+            try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+                int read;
+                while ((read = gzip.read(buffer)) > 0) {
+                    output.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return output.toByteArray();
+        }
+
+        /**
+         * @return the SHA-256 hash of the uncompressed notes, in hexadecimal.
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        private static String sha256(byte[] content) {
+            try {
+                StringBuilder hex = new StringBuilder(64);
+                for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.amtrak.application.service;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
+import javax.persistence.EntityManager;
 import javax.persistence.criteria.JoinType;
 
 import org.slf4j.Logger;
@@ -12,13 +15,13 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
 import com.amtrak.application.domain.Release;
 import com.amtrak.application.domain.*; // for static metamodels
 import com.amtrak.application.repository.ReleaseRepository;
 import com.amtrak.application.repository.search.ReleaseSearchRepository;
+import com.amtrak.application.service.dto.KeysetPage;
 import com.amtrak.application.service.dto.ReleaseCriteria;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
 
 /**
  * Service for executing complex queries for {@link Release} entities in the database.
@@ -28,7 +31,7 @@ import com.amtrak.application.service.dto.ReleaseCriteria;
  */
 @Service
 @Transactional(readOnly = true)
-public class ReleaseQueryService extends QueryService<Release> {
+public class ReleaseQueryService extends KeysetQueryService<Release> {
 
     private final Logger log = LoggerFactory.getLogger(ReleaseQueryService.class);
 
@@ -36,7 +39,9 @@ public class ReleaseQueryService extends QueryService<Release> {
 
     private final ReleaseSearchRepository releaseSearchRepository;
 
-    public ReleaseQueryService(ReleaseRepository releaseRepository, ReleaseSearchRepository releaseSearchRepository) {
+    public ReleaseQueryService(ReleaseRepository releaseRepository, ReleaseSearchRepository releaseSearchRepository,
+                               EntityManager entityManager) {
+        super(entityManager, Release.class, new HashSet<>(Arrays.asList("date", "territory", "build", "releaseLetter", "databaseVersion", "current")));
         this.releaseRepository = releaseRepository;
         this.releaseSearchRepository = releaseSearchRepository;
     }
@@ -66,6 +71,26 @@ public class ReleaseQueryService extends QueryService<Release> {
         return releaseRepository.findAll(specification, page);
     }
 
+    /**
+     * Return a {@link KeysetPage} of {@link ReleaseSummaryDTO} of the {@link Release}s which match the criteria
+     * from the database, starting right after the given cursor. The new and updated features are never read.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous page, or {@code null} for the first page.
+     * @param page The size and the sort of the page, which should be returned.
+     * @return the summaries of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ReleaseSummaryDTO> findSummariesByCriteria(ReleaseCriteria criteria, String after, Pageable page) {
+        log.debug("find summaries by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Release> specification = createSpecification(criteria);
+        return findByCriteriaAfter(specification, after, page, ReleaseSummaryDTO.class, (root, builder) ->
+            builder.construct(ReleaseSummaryDTO.class,
+                root.get(Release_.id), root.get(Release_.date), root.get(Release_.territory), root.get(Release_.build),
+                root.get(Release_.releaseLetter), root.get(Release_.prefixLetter), root.get(Release_.databaseVersion),
+                root.get(Release_.wsVersion), root.get(Release_.tmaVersion), root.get(Release_.port),
+                root.get(Release_.current)));
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
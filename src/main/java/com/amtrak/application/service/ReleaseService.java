@@ -1,23 +1,31 @@
 package com.amtrak.application.service;
 
+import com.amtrak.application.config.ApplicationProperties;
 import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.enumeration.Territory;
 import com.amtrak.application.exceptions.ReleaseException;
 import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.repository.SprRepository;
 import com.amtrak.application.repository.search.ReleaseSearchRepository;
+import com.amtrak.application.service.FutureReleaseScheduler.ReleasesDueEvent;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
 import com.amtrak.application.web.rest.errors.BadRequestAlertException;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * Service Implementation for managing {@link Release}.
@@ -32,9 +40,37 @@ public class ReleaseService {
 
     private final ReleaseSearchRepository releaseSearchRepository;
 
-    public ReleaseService(ReleaseRepository releaseRepository, ReleaseSearchRepository releaseSearchRepository) {
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final CurrentReleaseRegistry currentReleaseRegistry;
+
+    private final SprRepository sprRepository;
+
+    private final FutureReleaseScheduler futureReleaseScheduler;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final SearchIndexer searchIndexer;
+
+    private final SearchCache searchCache;
+
+    private final SuggestionRegistry suggestionRegistry;
+
+    public ReleaseService(ReleaseRepository releaseRepository, ReleaseSearchRepository releaseSearchRepository,
+                     EntityVersionRegistry entityVersionRegistry, CurrentReleaseRegistry currentReleaseRegistry,
+                     SprRepository sprRepository, FutureReleaseScheduler futureReleaseScheduler,
+                     ApplicationProperties applicationProperties, SearchIndexer searchIndexer, SearchCache searchCache,
+                     SuggestionRegistry suggestionRegistry) {
         this.releaseRepository = releaseRepository;
         this.releaseSearchRepository = releaseSearchRepository;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.currentReleaseRegistry = currentReleaseRegistry;
+        this.sprRepository = sprRepository;
+        this.futureReleaseScheduler = futureReleaseScheduler;
+        this.applicationProperties = applicationProperties;
+        this.searchIndexer = searchIndexer;
+        this.searchCache = searchCache;
+        this.suggestionRegistry = suggestionRegistry;
     }
 
     /**
@@ -46,7 +82,11 @@ public class ReleaseService {
     public Release save(Release release) {
         log.debug("Request to save Release : {}", release);
         Release result = releaseRepository.save(release);
-        releaseSearchRepository.save(result);
+        searchIndexer.index(Release.class, result.getId());
+        currentReleaseRegistry.savedAfterCommit(result);
+        futureReleaseScheduler.savedAfterCommit(result);
+        suggestionRegistry.savedAfterCommit(result);
+        entityVersionRegistry.bumpAfterCommit(Release.class);
         return result;
     }
 
@@ -55,8 +95,7 @@ public class ReleaseService {
         throws ReleaseException.ProductionReleaseExists, ReleaseException.ProductionIsFuture {
         log.debug("Request to create Release: {}", release);
         if ( release.isCurrent() ) {
-            List<Release> releases = releaseRepository.findAllByTerritoryAndCurrentIsTrue(release.getTerritory());
-            if ( !releases.isEmpty() )
+            if ( currentReleaseRegistry.getCurrentRelease(release.getTerritory()).isPresent() )
                 throw new ReleaseException.ProductionReleaseExists("A release for this territory is already in production");
             if ( release.getDate().isAfter(Instant.now()))
                 throw new ReleaseException.ProductionIsFuture("A release can not be in production at a date later than now");
@@ -77,7 +116,7 @@ public class ReleaseService {
 
 
     /**
-     * Get one release by id.
+     * Get one release by id, with the number of its SPRs.
      *
      * @param id the id of the entity.
      * @return the entity.
@@ -85,7 +124,19 @@ public class ReleaseService {
     @Transactional(readOnly = true)
     public Optional<Release> findOne(Long id) {
         log.debug("Request to get Release : {}", id);
-        return releaseRepository.findById(id);
+        return releaseRepository.findById(id)
+            .map(release -> release.sprCount(sprRepository.countByReleaseId(id)));
+    }
+
+    /**
+     * Check that a release exists.
+     *
+     * @param id the id of the entity.
+     * @return true if the entity exists.
+     */
+    @Transactional(readOnly = true)
+    public boolean exists(Long id) {
+        return releaseRepository.existsById(id);
     }
 
     /**
@@ -96,44 +147,76 @@ public class ReleaseService {
     public void delete(Long id) {
         log.debug("Request to delete Release : {}", id);
         releaseRepository.deleteById(id);
-        releaseSearchRepository.deleteById(id);
+        searchIndexer.delete(Release.class, id);
+        currentReleaseRegistry.deletedAfterCommit(id);
+        futureReleaseScheduler.deletedAfterCommit(id);
+        suggestionRegistry.deletedAfterCommit(SuggestionRegistry.Type.RELEASE, id);
+        entityVersionRegistry.bumpAfterCommit(Release.class);
     }
 
     /**
-     * Search for the release corresponding to the query.
+     * Search for the release corresponding to the query, one page at a time.
      *
      * @param query the query of the search.
-     * @return the list of entities.
+     * @param after the cursor of the previous page, or {@code null} for the first page.
+     * @param pageable the size and the sort of the page.
+     * @return the page of entities.
+     * @throws IllegalArgumentException if the sort is not supported or the cursor is not valid for it.
      */
     @Transactional(readOnly = true)
-    public List<Release> search(String query) {
-        log.debug("Request to search Releases for query {}", query);
-        return StreamSupport
-            .stream(releaseSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-            .collect(Collectors.toList());
+    public SearchPage<Release> search(String query, String after, Pageable pageable) {
+        log.debug("Request to search a page of Releases for query {}, after: {}", query, after);
+        return searchCache.get(Release.class, query, after, pageable,
+            () -> SearchPageUtil.search(releaseSearchRepository, Release::getId, query, after, pageable));
     }
 
     /**
-     * Finds all current production releases
+     * Finds all current production releases, from the in-memory snapshot
      *
      * @return List
      */
-    @Transactional(readOnly = true)
-    public List<Release> getCurrentReleases ()
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ReleaseSummaryDTO> getCurrentReleases ()
     {
         log.debug("Request to find all current releases");
-        return releaseRepository.findAllByCurrentIsTrue();
+        return currentReleaseRegistry.getCurrentReleases();
     }
 
     /**
-     * Finds all future releases
+     * Finds all future releases, from the in-memory schedule
      *
      * @return List
      */
-    @Transactional(readOnly = true)
-    public List<Release> findFutureReleases()
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ReleaseSummaryDTO> findFutureReleases()
     {
         log.debug("Request to find all future releases");
-        return releaseRepository.findAllByDateIsGreaterThanAndCurrent(Instant.now(), false);
+        return futureReleaseScheduler.getFutureReleases();
+    }
+
+    /**
+     * Puts in production the latest release of each territory whose date arrived, when auto-promotion is enabled.
+     *
+     * @param event the releases whose date arrived.
+     */
+    @EventListener
+    public void promoteDueReleases(ReleasesDueEvent event) {
+        if (!applicationProperties.getReleases().isAutoPromote()) {
+            return;
+        }
+        Map<Territory, ReleaseSummaryDTO> latest = new EnumMap<>(Territory.class);
+        event.getReleases().forEach(release -> latest.put(release.getTerritory(), release));
+        for (ReleaseSummaryDTO due : latest.values()) {
+            Optional<Release> release = releaseRepository.findById(due.getId());
+            if (!release.isPresent() || Boolean.TRUE.equals(release.get().isCurrent())
+                || release.get().getDate().isAfter(Instant.now())) {
+                continue;
+            }
+            log.info("Promoting Release : {} to production", due.getId());
+            for (Release current : releaseRepository.findAllByTerritoryAndCurrentIsTrue(due.getTerritory())) {
+                save(current.current(false));
+            }
+            save(release.get().current(true));
+        }
     }
 }
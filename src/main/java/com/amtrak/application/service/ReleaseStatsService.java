@@ -0,0 +1,137 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.service.dto.ReleaseStatsDTO;
+import com.amtrak.application.service.dto.ReleaseStatsDTO.MonthlyCount;
+import com.amtrak.application.service.dto.ReleaseStatsDTO.TerritoryStats;
+import com.amtrak.application.service.dto.ReleaseStatsDTO.TimelineEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Service computing the release cadence of every territory.
+ * <p>
+ * The aggregates are computed by the database: releases are bucketed per month, and the lead time between
+ * releases comes from a window over the releases of each territory. The result is cached until the next change
+ * of a release or an SPR.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReleaseStatsService {
+
+    public static final String RELEASE_STATS_CACHE = "releaseStats";
+
+    private static final double SECONDS_PER_DAY = 86400;
+
+    private final Logger log = LoggerFactory.getLogger(ReleaseStatsService.class);
+
+    private final ReleaseRepository releaseRepository;
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final CacheManager cacheManager;
+
+    public ReleaseStatsService(ReleaseRepository releaseRepository, EntityVersionRegistry entityVersionRegistry,
+                               CacheManager cacheManager) {
+        this.releaseRepository = releaseRepository;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Get the release cadence of every territory having releases.
+     *
+     * @return the statistics, ordered by territory.
+     */
+    public ReleaseStatsDTO getStats() {
+        log.debug("Request to get Release statistics");
+        String key = entityVersionRegistry.getVersion(Release.class, Spr.class);
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(RELEASE_STATS_CACHE));
+        ReleaseStatsDTO cached = cache.get(key, ReleaseStatsDTO.class);
+        if (cached != null) {
+            return cached;
+        }
+        ReleaseStatsDTO stats = computeStats();
+        cache.put(key, stats);
+        return stats;
+    }
+
+    private ReleaseStatsDTO computeStats() {
+        Map<Territory, TerritoryStats> territories = new EnumMap<>(Territory.class);
+        for (Object[] row : releaseRepository.countPerTerritoryAndMonth()) {
+            TerritoryStats stats = territories.computeIfAbsent(Territory.valueOf((String) row[0]), TerritoryStats::new);
+            String month = String.format("%04d-%02d", ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            stats.getReleasesPerMonth().add(new MonthlyCount(month, ((Number) row[3]).longValue()));
+        }
+
+        Map<Territory, double[]> totals = new EnumMap<>(Territory.class);
+        for (Object[] row : releaseRepository.findTimeline()) {
+            Territory territory = Territory.valueOf((String) row[1]);
+            TerritoryStats stats = territories.computeIfAbsent(territory, TerritoryStats::new);
+            Instant date = toInstant(row[3]);
+            Instant previousDate = toInstant(row[4]);
+            Double daysSincePrevious = previousDate == null ? null
+                : Duration.between(previousDate, date).getSeconds() / SECONDS_PER_DAY;
+            long sprs = ((Number) row[5]).longValue();
+            Long releaseId = ((Number) row[0]).longValue();
+            Integer build = row[2] == null ? null : ((Number) row[2]).intValue();
+            stats.getTimeline().add(new TimelineEntry(releaseId, build, date, daysSincePrevious, sprs));
+            if (Boolean.TRUE.equals(row[6])) {
+                stats.setCurrentReleaseId(releaseId);
+                stats.setCurrentBuild(build);
+            }
+
+            // Sum of the lead times, number of lead times and sum of the SPRs of the territory
+            double[] total = totals.computeIfAbsent(territory, key -> new double[3]);
+            if (daysSincePrevious != null) {
+                total[0] += daysSincePrevious;
+                total[1]++;
+            }
+            total[2] += sprs;
+        }
+
+        territories.forEach((territory, stats) -> {
+            stats.setReleaseCount(stats.getTimeline().size());
+            double[] total = totals.get(territory);
+            if (total != null) {
+                stats.setAverageDaysBetweenReleases(total[1] == 0 ? null : round(total[0] / total[1]));
+                stats.setAverageSprsPerRelease(round(total[2] / stats.getReleaseCount()));
+            }
+        });
+        return new ReleaseStatsDTO(new ArrayList<>(territories.values()));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100d;
+    }
+
+    /**
+     * Dates are stored in UTC, see {@code hibernate.jdbc.time_zone}, but native queries return them as local date-times.
+     */
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toInstant(ZoneOffset.UTC);
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toInstant(ZoneOffset.UTC);
+        }
+        return null;
+    }
+}
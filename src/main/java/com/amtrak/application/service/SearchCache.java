@@ -0,0 +1,102 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.service.dto.SearchPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the pages of search results, in front of the search indices.
+ * <p>
+ * The pages are cached under the normalized query, the page, and two versions of the searched entity type: the
+ * version of the entities, bumped by the services once their changes are committed, and the version of the index,
+ * bumped once a change is written to it. The index is updated in the background, after the commit: a page read in
+ * between is cached under the new version of the entities, then made stale as soon as the change is indexed.
+ * Stale pages are never read again, and leave the cache as it evicts its oldest entries.
+ * <p>
+ * The lookups are counted as {@code search.cache.gets}, tagged with the entity type and whether the page was cached.
+ */
+@Service
+public class SearchCache {
+
+    public static final String SEARCH_RESULTS_CACHE = "searchResults";
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final CacheManager cacheManager;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Class<?>, AtomicLong> indexVersions = new ConcurrentHashMap<>();
+
+    public SearchCache(EntityVersionRegistry entityVersionRegistry, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Get a page of search results from the cache, or search it and cache it.
+     *
+     * @param type the class of the searched entities.
+     * @param query the query of the search.
+     * @param after the cursor of the previous page, or {@code null} for the first page.
+     * @param pageable the size and the sort of the page.
+     * @param search the search, run when the page is not cached.
+     * @param <T> the type of the entities.
+     * @return the page of entities.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> SearchPage<T> get(Class<T> type, String query, String after, Pageable pageable, Supplier<SearchPage<T>> search) {
+        // The versions are read before searching: a change committed in between only makes the page stale sooner
+        String key = type.getSimpleName() + ":" + entityVersionRegistry.getVersion(type) + "." + indexVersion(type).get() +
+            ":" + pageable.getPageSize() + ":" + pageable.getSort() + ":" + after + ":" + normalize(query);
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(SEARCH_RESULTS_CACHE));
+        SearchPage<T> cached = cache.get(key, SearchPage.class);
+        count(type, cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        SearchPage<T> page = search.get();
+        cache.put(key, page);
+        return page;
+    }
+
+    /**
+     * Makes the cached pages of an entity type stale, once its index has changed.
+     *
+     * @param type the class of the indexed entities.
+     */
+    public void invalidate(Class<?> type) {
+        indexVersion(type).incrementAndGet();
+    }
+
+    private AtomicLong indexVersion(Class<?> type) {
+        return indexVersions.computeIfAbsent(type, key -> new AtomicLong());
+    }
+
+    private void count(Class<?> type, boolean hit) {
+        Counter.builder("search.cache.gets")
+            .description("The number of search result lookups in the cache")
+            .tag("entity", type.getSimpleName())
+            .tag("result", hit ? "hit" : "miss")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * Queries differing only by their surrounding or repeated whitespace are the same search.
+     */
+    private static String normalize(String query) {
+        return query.trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,379 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.config.ApplicationProperties;
+import com.amtrak.application.domain.Event;
+import com.amtrak.application.domain.IndexOutboxEntry;
+import com.amtrak.application.domain.OutOfOffice;
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.TeamEvent;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.domain.enumeration.IndexOperation;
+import com.amtrak.application.repository.EventRepository;
+import com.amtrak.application.repository.IndexOutboxRepository;
+import com.amtrak.application.repository.OutOfOfficeRepository;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.repository.SprRepository;
+import com.amtrak.application.repository.TeamEventRepository;
+import com.amtrak.application.repository.UserRepository;
+import com.amtrak.application.repository.search.EventSearchRepository;
+import com.amtrak.application.repository.search.OutOfOfficeSearchRepository;
+import com.amtrak.application.repository.search.ReleaseSearchRepository;
+import com.amtrak.application.repository.search.SprSearchRepository;
+import com.amtrak.application.repository.search.TeamEventSearchRepository;
+import com.amtrak.application.repository.search.UserSearchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service keeping the search indices in sync with the database through an outbox.
+ * <p>
+ * Services record their changes with {@link #index} and {@link #delete}, in the transaction changing the entities,
+ * instead of calling Elasticsearch themselves: a write no longer waits for Elasticsearch, nor fails with it.
+ * The outbox is drained in the background: the latest state of the changed entities is read from the database and
+ * sent with one bulk request per entity type. A failed request is retried with an exponential backoff.
+ * <p>
+ * The cached search results of an entity type are made stale whenever its index is written to.
+ * <p>
+ * The number of pending changes and the age of the oldest one are published as the {@code search.outbox.pending}
+ * and {@code search.outbox.lag} gauges.
+ */
+@Service
+public class SearchIndexer {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    private final IndexOutboxRepository indexOutboxRepository;
+
+    private final ApplicationProperties.SearchIndexing properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final SearchCache searchCache;
+
+    private final Map<String, IndexTarget<?>> targets = new LinkedHashMap<>();
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicInteger pauses = new AtomicInteger();
+
+    private final Lock draining = new ReentrantLock();
+
+    private volatile Instant oldestPending;
+
+    public SearchIndexer(IndexOutboxRepository indexOutboxRepository, ApplicationProperties applicationProperties,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, SearchCache searchCache,
+                         SprRepository sprRepository, SprSearchRepository sprSearchRepository,
+                         ReleaseRepository releaseRepository, ReleaseSearchRepository releaseSearchRepository,
+                         OutOfOfficeRepository outOfOfficeRepository, OutOfOfficeSearchRepository outOfOfficeSearchRepository,
+                         TeamEventRepository teamEventRepository, TeamEventSearchRepository teamEventSearchRepository,
+                         EventRepository eventRepository, EventSearchRepository eventSearchRepository,
+                         UserRepository userRepository, UserSearchRepository userSearchRepository) {
+        this.indexOutboxRepository = indexOutboxRepository;
+        this.properties = applicationProperties.getSearchIndexing();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.searchCache = searchCache;
+        addTarget(Spr.class, Spr::getId, sprRepository, sprSearchRepository);
+        addTarget(Release.class, Release::getId, releaseRepository, releaseSearchRepository);
+        addTarget(OutOfOffice.class, OutOfOffice::getId, outOfOfficeRepository, outOfOfficeSearchRepository);
+        addTarget(TeamEvent.class, TeamEvent::getId, teamEventRepository, teamEventSearchRepository);
+        addTarget(Event.class, Event::getId, eventRepository, eventSearchRepository);
+        addTarget(User.class, User::getId, userRepository, userSearchRepository);
+
+        Gauge.builder("search.outbox.pending", pending, AtomicLong::get)
+            .description("The number of changes waiting to be indexed")
+            .register(meterRegistry);
+        Gauge.builder("search.outbox.lag", this, SearchIndexer::lagSeconds)
+            .description("The age of the oldest change waiting to be indexed, in seconds")
+            .register(meterRegistry);
+    }
+
+    private <T> void addTarget(Class<T> type, Function<T, Long> id, JpaRepository<T, Long> repository,
+                               ElasticsearchRepository<T, Long> searchRepository) {
+        targets.put(type.getSimpleName(), new IndexTarget<>(type, id, repository, searchRepository));
+    }
+
+    /**
+     * @return the classes of the indexed entities.
+     */
+    public List<Class<?>> getIndexedTypes() {
+        return targets.values().stream().map(target -> target.type).collect(Collectors.toList());
+    }
+
+    /**
+     * @param type the class of the indexed entities.
+     * @return the number of documents in the index of the entities.
+     */
+    public long countIndexed(Class<?> type) {
+        return target(type).searchRepository.count();
+    }
+
+    /**
+     * Writes entities to their index right away, without going through the outbox.
+     * <p>
+     * This is meant to fill an index from the database: changes are recorded with {@link #index} instead.
+     *
+     * @param type the class of the entities.
+     * @param entities the entities.
+     */
+    public void indexNow(Class<?> type, List<?> entities) {
+        IndexTarget<?> target = target(type);
+        try {
+            saveAll(target, entities);
+        } finally {
+            searchCache.invalidate(target.type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void saveAll(IndexTarget<T> target, List<?> entities) {
+        if (!entities.isEmpty()) {
+            target.searchRepository.saveAll((List<T>) entities);
+        }
+        count(target, IndexOperation.INDEX, entities.size());
+    }
+
+    /**
+     * Stops draining the outbox until {@link #resume()} is called, the changes keep being recorded meanwhile.
+     * <p>
+     * Waits for the changes being drained, if any, to be indexed.
+     */
+    public void pause() {
+        pauses.incrementAndGet();
+        draining.lock();
+        draining.unlock();
+    }
+
+    /**
+     * Resumes draining the outbox after {@link #pause()}.
+     */
+    public void resume() {
+        pauses.decrementAndGet();
+    }
+
+    /**
+     * Records that an entity must be indexed, in the current transaction.
+     *
+     * @param type the class of the entity.
+     * @param id the id of the entity.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void index(Class<?> type, Long id) {
+        enqueue(type, IndexOperation.INDEX, Collections.singletonList(id));
+    }
+
+    /**
+     * Records that entities must be indexed, in the current transaction.
+     *
+     * @param type the class of the entities.
+     * @param ids the ids of the entities.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void indexAll(Class<?> type, Collection<Long> ids) {
+        enqueue(type, IndexOperation.INDEX, ids);
+    }
+
+    /**
+     * Records that an entity must be removed from its index, in the current transaction.
+     *
+     * @param type the class of the entity.
+     * @param id the id of the entity.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(Class<?> type, Long id) {
+        enqueue(type, IndexOperation.DELETE, Collections.singletonList(id));
+    }
+
+    private void enqueue(Class<?> type, IndexOperation operation, Collection<Long> ids) {
+        target(type);
+        Instant now = Instant.now();
+        indexOutboxRepository.saveAll(ids.stream()
+            .map(id -> new IndexOutboxEntry(type.getSimpleName(), id, operation, now))
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Drains the outbox until no change is due.
+     * <p>
+     * This is scheduled to run every {@code application.search-indexing.poll-interval} milliseconds.
+     */
+    @Scheduled(fixedDelayString = "${application.search-indexing.poll-interval:1000}")
+    public void indexPending() {
+        draining.lock();
+        try {
+            if (pauses.get() > 0) {
+                log.debug("Indexing is paused");
+                return;
+            }
+            int drained;
+            do {
+                drained = transactionTemplate.execute(status -> drainBatch());
+            } while (drained == properties.getBatchSize() && pauses.get() == 0);
+            transactionTemplate.execute(status -> {
+                pending.set(indexOutboxRepository.count());
+                oldestPending = indexOutboxRepository.findFirstByOrderByCreatedDate()
+                    .map(IndexOutboxEntry::getCreatedDate)
+                    .orElse(null);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not drain the index outbox", e);
+        } finally {
+            draining.unlock();
+        }
+    }
+
+    private int drainBatch() {
+        Instant now = Instant.now();
+        List<IndexOutboxEntry> entries = indexOutboxRepository
+            .findAllByNextAttemptDateLessThanEqualOrderById(now, PageRequest.of(0, properties.getBatchSize()));
+        Map<String, List<IndexOutboxEntry>> byType = entries.stream()
+            .collect(Collectors.groupingBy(IndexOutboxEntry::getEntityType, LinkedHashMap::new, Collectors.toList()));
+        byType.forEach((type, typeEntries) -> {
+            IndexTarget<?> target = targets.get(type);
+            if (target == null) {
+                log.warn("Dropping {} changes of unknown type {}", typeEntries.size(), type);
+                indexOutboxRepository.deleteInBatch(typeEntries);
+                return;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                apply(target, typeEntries);
+                indexOutboxRepository.deleteInBatch(typeEntries);
+            } catch (RuntimeException e) {
+                log.warn("Could not index {} changes of {}, retrying later: {}", typeEntries.size(), type, e.getMessage());
+                Counter.builder("search.outbox.failures").tag("entity", type).register(meterRegistry).increment();
+                String error = String.valueOf(e.getMessage());
+                for (IndexOutboxEntry entry : typeEntries) {
+                    entry.setAttempts(entry.getAttempts() + 1);
+                    entry.setNextAttemptDate(now.plus(backoff(entry.getAttempts())));
+                    entry.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                }
+                indexOutboxRepository.saveAll(typeEntries);
+            } finally {
+                // Even a failed bulk request may have written some of the changes
+                searchCache.invalidate(target.type);
+                sample.stop(Timer.builder("search.outbox.bulk").tag("entity", type).register(meterRegistry));
+            }
+        });
+        return entries.size();
+    }
+
+    /**
+     * Sends the latest state of the changed entities: the ones still in the database are indexed in bulk,
+     * the others are removed from the index.
+     */
+    private <T> void apply(IndexTarget<T> target, List<IndexOutboxEntry> entries) {
+        // Only the latest change of an entity matters
+        Map<Long, IndexOperation> operations = new HashMap<>();
+        entries.forEach(entry -> operations.put(entry.getEntityId(), entry.getOperation()));
+
+        Set<Long> toIndex = operations.entrySet().stream()
+            .filter(operation -> operation.getValue() == IndexOperation.INDEX)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+        List<Long> toDelete = operations.entrySet().stream()
+            .filter(operation -> operation.getValue() == IndexOperation.DELETE)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toCollection(ArrayList::new));
+
+        if (!toIndex.isEmpty()) {
+            List<T> entities = target.repository.findAllById(toIndex);
+            if (!entities.isEmpty()) {
+                target.searchRepository.saveAll(entities);
+            }
+            if (entities.size() < toIndex.size()) {
+                // Deleted since the change was recorded
+                toIndex.removeAll(entities.stream().map(target.id).collect(Collectors.toSet()));
+                toDelete.addAll(toIndex);
+            }
+            count(target, IndexOperation.INDEX, entities.size());
+        }
+        toDelete.forEach(target.searchRepository::deleteById);
+        count(target, IndexOperation.DELETE, toDelete.size());
+    }
+
+    private IndexTarget<?> target(Class<?> type) {
+        IndexTarget<?> target = targets.get(type.getSimpleName());
+        if (target == null) {
+            throw new IllegalArgumentException(type.getSimpleName() + " is not indexed");
+        }
+        return target;
+    }
+
+    private void count(IndexTarget<?> target, IndexOperation operation, int changes) {
+        Counter.builder("search.outbox.indexed")
+            .tag("entity", target.type.getSimpleName())
+            .tag("operation", operation.name().toLowerCase())
+            .register(meterRegistry)
+            .increment(changes);
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = properties.getInitialBackoff() << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, properties.getMaxBackoff()));
+    }
+
+    private double lagSeconds() {
+        Instant oldest = oldestPending;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis() / 1000d);
+    }
+
+    /**
+     * An indexed entity type, with the repositories reading it from the database and writing it to its index.
+     */
+    private static final class IndexTarget<T> {
+
+        private final Class<T> type;
+
+        private final Function<T, Long> id;
+
+        private final JpaRepository<T, Long> repository;
+
+        private final ElasticsearchRepository<T, Long> searchRepository;
+
+        private IndexTarget(Class<T> type, Function<T, Long> id, JpaRepository<T, Long> repository,
+                            ElasticsearchRepository<T, Long> searchRepository) {
+            this.type = type;
+            this.id = id;
+            this.repository = repository;
+            this.searchRepository = searchRepository;
+        }
+
+    }
+}
@@ -0,0 +1,456 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.config.ApplicationProperties;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.service.dto.ReindexJobDTO;
+import com.amtrak.application.service.dto.ReindexJobDTO.State;
+import com.google.gson.JsonElement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.aliases.AddAliasMapping;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import io.searchbox.indices.aliases.RemoveAliasMapping;
+import io.searchbox.indices.mapping.GetMapping;
+import io.searchbox.indices.settings.UpdateSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Service rebuilding the search indices from the database.
+ * <p>
+ * Each index is rebuilt into a new versioned index, named after its alias and the start of the job, while searches
+ * keep reading the current one. The table of the entity is read by pages of ids, after the last id of the previous
+ * page, since the ids come from a sequence shared by all tables and are sparse. The documents of every page are
+ * read and sent with one bulk request, spread over several workers. Once all ranges are indexed, the alias is switched to the new index in
+ * a single request and the previous index is deleted. The {@link SearchIndexer} is paused meanwhile, so that the
+ * changes made during the rebuild are applied to the new index once the alias is switched.
+ * <p>
+ * The first rebuild of an index created by Spring Data, under the name of its alias, has to delete that index
+ * before the alias can be created: searches fail in between.
+ * <p>
+ * Once the application is ready, the indices whose mapping is outdated are rebuilt: the ones mapping the id, which
+ * orders the pages of search results, as anything but a long.
+ */
+@ConditionalOnProperty(prefix = "application.search", name = "mode", havingValue = "elasticsearch", matchIfMissing = true)
+@Service
+public class SearchReindexService {
+
+    private static final String ID_TYPE = "long";
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private final SearchIndexer searchIndexer;
+
+    private final SearchCache searchCache;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final JestClient jestClient;
+
+    private final EntityMapper entityMapper;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.Reindex properties;
+
+    private final AtomicReference<Job> currentJob = new AtomicReference<>();
+
+    public SearchReindexService(SearchIndexer searchIndexer, SearchCache searchCache,
+                                ElasticsearchOperations elasticsearchOperations, JestClient jestClient,
+                                EntityMapper entityMapper, EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                @Qualifier("taskExecutor") Executor taskExecutor, MeterRegistry meterRegistry,
+                                ApplicationProperties applicationProperties) {
+        this.searchIndexer = searchIndexer;
+        this.searchCache = searchCache;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.jestClient = jestClient;
+        this.entityMapper = entityMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+        this.properties = applicationProperties.getReindex();
+    }
+
+    /**
+     * Start rebuilding all the search indices in the background, unless a rebuild is already running.
+     *
+     * @return the running job.
+     */
+    public ReindexJobDTO start() {
+        return start(searchIndexer.getIndexedTypes());
+    }
+
+    /**
+     * Rebuilds the indices mapping the id as anything but a long, in the background. Indices mapping it as a keyword
+     * would order the ids as text, so that the pages of search results would not follow their numeric order.
+     * <p>
+     * This is fired once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOutdatedIndices() {
+        List<Class<?>> outdated = new ArrayList<>();
+        for (Class<?> type : searchIndexer.getIndexedTypes()) {
+            ElasticsearchPersistentEntity<?> entity = elasticsearchOperations.getPersistentEntityFor(type);
+            try {
+                String idType = idType(entity.getIndexName(), entity.getIndexType());
+                if (idType != null && !ID_TYPE.equals(idType)) {
+                    log.warn("The {} index maps the id as {} instead of {}, it will be rebuilt", entity.getIndexName(), idType, ID_TYPE);
+                    outdated.add(type);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not read the mapping of the {} index: {}", entity.getIndexName(), e.getMessage());
+            }
+        }
+        if (!outdated.isEmpty()) {
+            start(outdated);
+        }
+    }
+
+    private ReindexJobDTO start(List<Class<?>> types) {
+        Job job = new Job(UUID.randomUUID().toString(), types);
+        Job previous = currentJob.get();
+        if (previous != null && previous.finishedAt == null) {
+            log.debug("Reindex job {} is already running", previous.id);
+            return previous.toDTO();
+        }
+        if (!currentJob.compareAndSet(previous, job)) {
+            return currentJob.get().toDTO();
+        }
+        log.info("Starting reindex job {}", job.id);
+        try {
+            taskExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            job.finish(State.FAILED, "The job could not be started");
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * @return the running job, or the last one.
+     */
+    public Optional<ReindexJobDTO> getJob() {
+        return Optional.ofNullable(currentJob.get()).map(Job::toDTO);
+    }
+
+    private void run(Job job) {
+        job.startedAt = Instant.now();
+        job.state = State.RUNNING;
+        String version = VERSION_FORMAT.format(job.startedAt);
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getWorkers());
+        searchIndexer.pause();
+        try {
+            for (IndexJob index : job.indices) {
+                try {
+                    rebuild(index, version, workers);
+                } catch (Exception e) {
+                    log.error("Could not rebuild the {} index", index.alias, e);
+                    index.finish(State.FAILED, e.getMessage());
+                    deleteQuietly(index.index);
+                }
+            }
+            boolean failed = job.indices.stream().anyMatch(index -> index.state == State.FAILED);
+            job.finish(failed ? State.FAILED : State.COMPLETED, failed ? "Some indices could not be rebuilt" : null);
+        } catch (RuntimeException e) {
+            log.error("Reindex job {} failed", job.id, e);
+            job.finish(State.FAILED, e.getMessage());
+        } finally {
+            searchIndexer.resume();
+            workers.shutdownNow();
+            log.info("Reindex job {} finished: {}", job.id, job.state);
+        }
+    }
+
+    private void rebuild(IndexJob index, String version, ExecutorService workers) throws Exception {
+        ElasticsearchPersistentEntity<?> entity = elasticsearchOperations.getPersistentEntityFor(index.type);
+        index.alias = entity.getIndexName();
+        index.index = index.alias + "_" + version;
+        index.startedAt = Instant.now();
+        index.state = State.RUNNING;
+
+        // Neither replicas nor refreshes while loading, the settings of the entity are applied once loaded
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("index.number_of_shards", entity.getShards());
+        settings.put("index.number_of_replicas", 0);
+        settings.put("index.refresh_interval", "-1");
+        elasticsearchOperations.createIndex(index.index, settings);
+        elasticsearchOperations.putMapping(index.index, entity.getIndexType(), elasticsearchOperations.getMapping(index.type));
+
+        String entityName = entityName(index.type);
+        index.total = transactionTemplate.execute(status -> entityManager
+            .createQuery("select count(e) from " + entityName + " e", Long.class)
+            .getSingleResult());
+        List<Future<?>> ranges = new ArrayList<>();
+        List<Long> ids;
+        long last = Long.MIN_VALUE;
+        do {
+            long after = last;
+            ids = transactionTemplate.execute(status -> entityManager
+                .createQuery("select e.id from " + entityName + " e where e.id > :after order by e.id", Long.class)
+                .setParameter("after", after)
+                .setMaxResults(properties.getChunkSize())
+                .getResultList());
+            if (!ids.isEmpty()) {
+                long from = ids.get(0);
+                long to = ids.get(ids.size() - 1);
+                ranges.add(workers.submit(() -> indexRange(index, entity.getIndexType(), from, to)));
+                last = to;
+            }
+        } while (ids.size() == properties.getChunkSize());
+        try {
+            for (Future<?> range : ranges) {
+                range.get();
+            }
+        } catch (ExecutionException e) {
+            ranges.forEach(range -> range.cancel(true));
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+
+        String replicas = "{\"index\":{\"number_of_replicas\":" + entity.getReplicas() +
+            ",\"refresh_interval\":\"" + entity.getRefreshInterval() + "\"}}";
+        execute(new UpdateSettings.Builder(replicas).addIndex(index.index).build());
+        elasticsearchOperations.refresh(index.index);
+        switchAlias(index.alias, index.index);
+        searchCache.invalidate(index.type);
+
+        Duration duration = Duration.between(index.startedAt, Instant.now());
+        Timer.builder("search.reindex.duration").tag("index", index.alias).register(meterRegistry).record(duration);
+        index.finish(State.COMPLETED, null);
+        log.info("Rebuilt the {} index into {} with {} documents in {}", index.alias, index.index, index.indexed.get(), duration);
+    }
+
+    private void indexRange(IndexJob index, String indexType, long from, long to) {
+        List<IndexQuery> queries = transactionTemplate.execute(status -> {
+            TypedQuery<?> query = entityManager
+                .createQuery("select e from " + entityName(index.type) + " e where e.id between :from and :to", index.type)
+                .setParameter("from", from)
+                .setParameter("to", to);
+            if (index.type == Spr.class) {
+                query.setHint("javax.persistence.fetchgraph", entityManager.getEntityGraph(Spr.USER_AND_RELEASE_GRAPH));
+            }
+            // Documents are serialized in the transaction, so that lazy associations can be read
+            return query.getResultList().stream()
+                .map(document -> new IndexQueryBuilder()
+                    .withId(String.valueOf(entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(document)))
+                    .withSource(toSource(document))
+                    .withIndexName(index.index)
+                    .withType(indexType)
+                    .build())
+                .collect(Collectors.toList());
+        });
+        if (!queries.isEmpty()) {
+            elasticsearchOperations.bulkIndex(queries);
+            index.indexed.addAndGet(queries.size());
+            Counter.builder("search.reindex.documents").tag("index", index.alias).register(meterRegistry).increment(queries.size());
+        }
+    }
+
+    private String toSource(Object document) {
+        try {
+            return entityMapper.mapToString(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Points the alias to the new index, and deletes the indices it pointed to.
+     */
+    private void switchAlias(String alias, String index) throws IOException {
+        JestResult current = jestClient.execute(new GetAliases.Builder().addIndex(alias).build());
+        Set<String> previous = current.isSucceeded() ? current.getJsonObject().keySet() : Collections.emptySet();
+        if (previous.contains(alias)) {
+            // The index was created by Spring Data under the name of the alias
+            log.warn("Deleting the {} index to replace it by an alias", alias);
+            elasticsearchOperations.deleteIndex(alias);
+            execute(new ModifyAliases.Builder(new AddAliasMapping.Builder(index, alias).build()).build());
+            return;
+        }
+        ModifyAliases.Builder aliases = new ModifyAliases.Builder(new AddAliasMapping.Builder(index, alias).build());
+        for (String old : previous) {
+            aliases.addAlias(new RemoveAliasMapping.Builder(old, alias).build());
+        }
+        execute(aliases.build());
+        previous.forEach(this::deleteQuietly);
+    }
+
+    /**
+     * @return the type of the id in the mapping of the index, or {@code null} when the index does not exist yet.
+     */
+    private String idType(String alias, String indexType) throws IOException {
+        JestResult result = jestClient.execute(new GetMapping.Builder().addIndex(alias).addType(indexType).build());
+        if (!result.isSucceeded()) {
+            return null;
+        }
+        // The mappings are keyed by the indices the alias points to
+        for (Map.Entry<String, JsonElement> index : result.getJsonObject().entrySet()) {
+            JsonElement element = index.getValue();
+            for (String key : new String[] {"mappings", indexType, "properties", "id", "type"}) {
+                element = element != null && element.isJsonObject() ? element.getAsJsonObject().get(key) : null;
+            }
+            if (element != null && !ID_TYPE.equals(element.getAsString())) {
+                return element.getAsString();
+            }
+        }
+        return ID_TYPE;
+    }
+
+    private void execute(Action<? extends JestResult> action) throws IOException {
+        JestResult result = jestClient.execute(action);
+        if (!result.isSucceeded()) {
+            throw new IOException(result.getErrorMessage());
+        }
+    }
+
+    private void deleteQuietly(String index) {
+        if (index == null) {
+            return;
+        }
+        try {
+            elasticsearchOperations.deleteIndex(index);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete the {} index: {}", index, e.getMessage());
+        }
+    }
+
+    private String entityName(Class<?> type) {
+        return entityManager.getMetamodel().entity(type).getName();
+    }
+
+    private static final class Job {
+
+        private final String id;
+
+        private final List<IndexJob> indices;
+
+        private volatile State state = State.QUEUED;
+
+        private volatile String message;
+
+        private volatile Instant startedAt;
+
+        private volatile Instant finishedAt;
+
+        private Job(String id, List<Class<?>> types) {
+            this.id = id;
+            this.indices = types.stream().map(IndexJob::new).collect(Collectors.toList());
+        }
+
+        private void finish(State state, String message) {
+            this.message = message;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private ReindexJobDTO toDTO() {
+            ReindexJobDTO dto = new ReindexJobDTO();
+            dto.setId(id);
+            dto.setState(state);
+            dto.setMessage(message);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setIndices(indices.stream().map(IndexJob::toDTO).collect(Collectors.toList()));
+            return dto;
+        }
+    }
+
+    private static final class IndexJob {
+
+        private final Class<?> type;
+
+        private final AtomicLong indexed = new AtomicLong();
+
+        private volatile String alias;
+
+        private volatile String index;
+
+        private volatile State state = State.QUEUED;
+
+        private volatile long total;
+
+        private volatile String message;
+
+        private volatile Instant startedAt;
+
+        private volatile Instant finishedAt;
+
+        private IndexJob(Class<?> type) {
+            this.type = type;
+        }
+
+        private void finish(State state, String message) {
+            this.message = message;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private ReindexJobDTO.IndexProgress toDTO() {
+            ReindexJobDTO.IndexProgress dto = new ReindexJobDTO.IndexProgress();
+            dto.setEntity(type.getSimpleName());
+            dto.setAlias(alias);
+            dto.setIndex(index);
+            dto.setState(state);
+            dto.setTotal(total);
+            dto.setIndexed(indexed.get());
+            dto.setMessage(message);
+            if (startedAt != null) {
+                long millis = Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis();
+                dto.setDocumentsPerSecond(millis == 0 ? null : Math.round(indexed.get() * 100000d / millis) / 100d);
+            }
+            return dto;
+        }
+    }
+}
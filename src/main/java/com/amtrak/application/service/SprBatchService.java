@@ -0,0 +1,231 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.repository.SprRepository;
+import com.amtrak.application.repository.UserRepository;
+import com.amtrak.application.service.dto.SprBatchResultDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for creating and updating many {@link Spr}s at once.
+ * <p>
+ * Every SPR is checked up front, so that one invalid SPR does not fail the others. The valid ones are
+ * written in chunks of {@link #CHUNK_SIZE}, which Hibernate sends as JDBC batches, and are then
+ * indexed in bulk by the {@link SearchIndexer}.
+ */
+@Service
+@Transactional
+public class SprBatchService {
+
+    /**
+     * The maximum number of SPRs of a batch.
+     */
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    /**
+     * The number of SPRs written before the persistence context is flushed and cleared,
+     * it matches {@code hibernate.jdbc.batch_size}.
+     */
+    static final int CHUNK_SIZE = 50;
+
+    private final Logger log = LoggerFactory.getLogger(SprBatchService.class);
+
+    private final SprRepository sprRepository;
+
+    private final UserRepository userRepository;
+
+    private final ReleaseRepository releaseRepository;
+
+    private final SearchIndexer searchIndexer;
+
+    private final OpenSprCounterRegistry openSprCounterRegistry;
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final SuggestionRegistry suggestionRegistry;
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    public SprBatchService(SprRepository sprRepository, UserRepository userRepository, ReleaseRepository releaseRepository,
+                           SearchIndexer searchIndexer, OpenSprCounterRegistry openSprCounterRegistry,
+                           EntityVersionRegistry entityVersionRegistry, SuggestionRegistry suggestionRegistry,
+                           EntityManager entityManager, Validator validator) {
+        this.sprRepository = sprRepository;
+        this.userRepository = userRepository;
+        this.releaseRepository = releaseRepository;
+        this.searchIndexer = searchIndexer;
+        this.openSprCounterRegistry = openSprCounterRegistry;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.suggestionRegistry = suggestionRegistry;
+        this.entityManager = entityManager;
+        this.validator = validator;
+    }
+
+    /**
+     * Create new sprs.
+     *
+     * @param sprs the entities to create, none of them may have an id.
+     * @return the outcome of every entity, in the same order.
+     */
+    public List<SprBatchResultDTO> create(List<Spr> sprs) {
+        log.debug("Request to create {} Sprs", sprs.size());
+        return save(sprs, true);
+    }
+
+    /**
+     * Update existing sprs.
+     *
+     * @param sprs the entities to update, all of them must have the id of an existing spr.
+     * @return the outcome of every entity, in the same order.
+     */
+    public List<SprBatchResultDTO> update(List<Spr> sprs) {
+        log.debug("Request to update {} Sprs", sprs.size());
+        return save(sprs, false);
+    }
+
+    private List<SprBatchResultDTO> save(List<Spr> sprs, boolean create) {
+        SprBatchResultDTO[] results = new SprBatchResultDTO[sprs.size()];
+        List<Integer> valid = validate(sprs, create, results);
+
+        List<Spr> saved = new ArrayList<>(valid.size());
+        for (int start = 0; start < valid.size(); start += CHUNK_SIZE) {
+            List<Integer> chunk = valid.subList(start, Math.min(start + CHUNK_SIZE, valid.size()));
+            saved.addAll(saveChunk(sprs, chunk, create, results));
+        }
+        if (!saved.isEmpty()) {
+            searchIndexer.indexAll(Spr.class, saved.stream().map(Spr::getId).collect(Collectors.toList()));
+            suggestionRegistry.savedAfterCommit(saved);
+            entityVersionRegistry.bumpAfterCommit(Spr.class);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Checks the sprs which do not depend on the database, and fails the ones which are not valid.
+     *
+     * @return the indexes of the valid sprs.
+     */
+    private List<Integer> validate(List<Spr> sprs, boolean create, SprBatchResultDTO[] results) {
+        Map<Integer, Integer> numbers = new HashMap<>();
+        Map<String, Integer> fullNumbers = new HashMap<>();
+        Set<Long> ids = new HashSet<>();
+        List<Integer> valid = new ArrayList<>(sprs.size());
+        for (int index = 0; index < sprs.size(); index++) {
+            Spr spr = sprs.get(index);
+            if (spr == null) {
+                results[index] = SprBatchResultDTO.failed(index, null, "null", "The spr is missing");
+                continue;
+            }
+            if (create && spr.getId() != null) {
+                results[index] = SprBatchResultDTO.failed(index, spr.getId(), "idexists", "A new spr cannot already have an ID");
+                continue;
+            }
+            if (!create && spr.getId() == null) {
+                results[index] = SprBatchResultDTO.failed(index, null, "idnull", "Invalid id");
+                continue;
+            }
+            if (!create && !ids.add(spr.getId())) {
+                results[index] = SprBatchResultDTO.failed(index, spr.getId(), "duplicate", "The spr is updated twice in the batch");
+                continue;
+            }
+            Set<ConstraintViolation<Spr>> violations = validator.validate(spr);
+            if (!violations.isEmpty()) {
+                results[index] = SprBatchResultDTO.failed(index, spr.getId(), "invalid", violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+                continue;
+            }
+            if (numbers.putIfAbsent(spr.getNumber(), index) != null || fullNumbers.putIfAbsent(spr.getFullNumber(), index) != null) {
+                results[index] = SprBatchResultDTO.failed(index, spr.getId(), "duplicate", "The number is used by another spr of the batch");
+                continue;
+            }
+            valid.add(index);
+        }
+        return valid;
+    }
+
+    private List<Spr> saveChunk(List<Spr> sprs, List<Integer> chunk, boolean create, SprBatchResultDTO[] results) {
+        List<Spr> candidates = chunk.stream().map(sprs::get).collect(Collectors.toList());
+        Map<Long, Spr> existing = create ? new HashMap<>() : sprRepository.findAllById(candidates.stream()
+            .map(Spr::getId).collect(Collectors.toList())).stream()
+            .collect(Collectors.toMap(Spr::getId, Function.identity()));
+        List<SprRepository.SprKey> keys = sprRepository.findKeysByNumberInOrFullNumberIn(
+            candidates.stream().map(Spr::getNumber).collect(Collectors.toList()),
+            candidates.stream().map(Spr::getFullNumber).collect(Collectors.toList()));
+        // A missing user or release would only fail the flush, and with it the whole batch
+        Set<Long> userIds = existingIds(candidates, Spr::getUser, User::getId, userRepository::findIdsByIdIn);
+        Set<Long> releaseIds = existingIds(candidates, Spr::getRelease, Release::getId, releaseRepository::findIdsByIdIn);
+
+        List<Spr> toSave = new ArrayList<>(chunk.size());
+        List<Integer> toSaveIndexes = new ArrayList<>(chunk.size());
+        List<OpenSprCounterRegistry.Contribution> befores = new ArrayList<>(chunk.size());
+        for (int index : chunk) {
+            Spr spr = sprs.get(index);
+            if (!create && !existing.containsKey(spr.getId())) {
+                results[index] = SprBatchResultDTO.failed(index, spr.getId(), "idnotfound", "No spr has this id");
+            } else if (keys.stream().anyMatch(key -> !key.getId().equals(spr.getId()) &&
+                (key.getNumber().equals(spr.getNumber()) || key.getFullNumber().equals(spr.getFullNumber())))) {
+                results[index] = SprBatchResultDTO.failed(index, spr.getId(), "numberexists", "The number is used by another spr");
+            } else if (spr.getUser() != null && !userIds.contains(spr.getUser().getId())) {
+                results[index] = SprBatchResultDTO.failed(index, spr.getId(), "usernotfound", "No user has the id " + spr.getUser().getId());
+            } else if (spr.getRelease() != null && !releaseIds.contains(spr.getRelease().getId())) {
+                results[index] = SprBatchResultDTO.failed(index, spr.getId(), "releasenotfound", "No release has the id " + spr.getRelease().getId());
+            } else {
+                toSave.add(spr);
+                toSaveIndexes.add(index);
+                befores.add(OpenSprCounterRegistry.Contribution.of(existing.get(spr.getId())));
+            }
+        }
+
+        List<Spr> saved = sprRepository.saveAll(toSave);
+        sprRepository.flush();
+        entityManager.clear();
+        for (int i = 0; i < saved.size(); i++) {
+            Spr result = saved.get(i);
+            int index = toSaveIndexes.get(i);
+            results[index] = SprBatchResultDTO.saved(index, result.getId(),
+                create ? SprBatchResultDTO.Status.CREATED : SprBatchResultDTO.Status.UPDATED);
+            openSprCounterRegistry.updateAfterCommit(befores.get(i), OpenSprCounterRegistry.Contribution.of(result));
+        }
+        return saved;
+    }
+
+    /**
+     * @return the ids of the entities referenced by the sprs which exist in the database.
+     */
+    private static <E> Set<Long> existingIds(List<Spr> sprs, Function<Spr, E> reference, Function<E, Long> id,
+                                             Function<Collection<Long>, List<Long>> findIdsByIdIn) {
+        Set<Long> ids = sprs.stream()
+            .map(reference)
+            .filter(Objects::nonNull)
+            .map(id)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        return ids.isEmpty() ? Collections.emptySet() : new HashSet<>(findIdsByIdIn.apply(ids));
+    }
+}
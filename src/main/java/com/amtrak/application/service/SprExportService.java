@@ -0,0 +1,129 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.service.dto.SprCriteria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Service for exporting {@link Spr}s, streamed from the database straight to an output stream.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SprExportService {
+
+    /**
+     * The supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson"), CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return name().toLowerCase();
+        }
+
+        public static Optional<Format> fromExtension(String extension) {
+            return Arrays.stream(values()).filter(format -> format.getExtension().equalsIgnoreCase(extension)).findFirst();
+        }
+    }
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String CSV_HEADER =
+        "id,territory,number,fullNumber,description,priority,resolution,jiraLink,reviewerId,userLogin,releaseId";
+
+    private final Logger log = LoggerFactory.getLogger(SprExportService.class);
+
+    private final SprQueryService sprQueryService;
+
+    private final ObjectWriter sprWriter;
+
+    public SprExportService(SprQueryService sprQueryService, ObjectMapper objectMapper) {
+        this.sprQueryService = sprQueryService;
+        this.sprWriter = objectMapper.writerFor(Spr.class).without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Export the sprs matching the criteria, one line per spr.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param format the format of the export.
+     * @param outputStream the stream to write the export to, it is flushed but not closed.
+     * @throws IOException if the export could not be written.
+     */
+    public void export(SprCriteria criteria, Format format, OutputStream outputStream) throws IOException {
+        log.debug("Request to export Sprs as {} by criteria: {}", format, criteria);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try {
+            sprQueryService.forEachByCriteria(criteria, FETCH_SIZE, spr -> {
+                try {
+                    writer.write(format == Format.CSV ? toCsv(spr) : sprWriter.writeValueAsString(spr));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String toCsv(Spr spr) {
+        return String.join(",",
+            csv(spr.getId()),
+            csv(spr.getTerritory()),
+            csv(spr.getNumber()),
+            csv(spr.getFullNumber()),
+            csv(spr.getDescription()),
+            csv(spr.getPriority()),
+            csv(spr.getResolution()),
+            csv(spr.getJiraLink()),
+            csv(spr.getReviewerId()),
+            csv(spr.getUser() == null ? null : spr.getUser().getLogin()),
+            csv(spr.getRelease() == null ? null : spr.getRelease().getId()));
+    }
+
+    /**
+     * Format a value as a CSV field, quoting it when needed as described in RFC 4180.
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String field = value.toString();
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,371 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.config.ApplicationProperties;
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.domain.enumeration.Priority;
+import com.amtrak.application.domain.enumeration.Resolution;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.repository.UserRepository;
+import com.amtrak.application.service.dto.SprBatchResultDTO;
+import com.amtrak.application.service.dto.SprImportJobDTO;
+import com.amtrak.application.service.util.CsvTableReader;
+import com.amtrak.application.service.util.TableReader;
+import com.amtrak.application.service.util.XlsxTableReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for importing {@link Spr}s from CSV or XLSX files.
+ * <p>
+ * The file is read row by row on the {@code taskExecutor}, and every chunk of rows is created through
+ * {@link SprBatchService} in its own transaction, so that neither the file nor the import is held in memory
+ * or in a single transaction. The columns are the ones of the CSV export; users are referenced by login and
+ * releases by id.
+ */
+@Service
+public class SprImportService {
+
+    /**
+     * The supported import formats.
+     */
+    public enum Format {
+        CSV, XLSX;
+
+        public static Optional<Format> fromFileName(String fileName) {
+            if (fileName == null) {
+                return Optional.empty();
+            }
+            return Arrays.stream(values())
+                .filter(format -> fileName.toLowerCase(Locale.ROOT).endsWith("." + format.name().toLowerCase(Locale.ROOT)))
+                .findFirst();
+        }
+    }
+
+    private static final List<String> REQUIRED_COLUMNS = Arrays.asList("territory", "number", "fullnumber");
+
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofDays(1);
+
+    private final Logger log = LoggerFactory.getLogger(SprImportService.class);
+
+    private final SprBatchService sprBatchService;
+
+    private final UserRepository userRepository;
+
+    private final ReleaseRepository releaseRepository;
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties.SprImport properties;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public SprImportService(SprBatchService sprBatchService, UserRepository userRepository, ReleaseRepository releaseRepository,
+                            @Qualifier("taskExecutor") Executor taskExecutor, ApplicationProperties applicationProperties) {
+        this.sprBatchService = sprBatchService;
+        this.userRepository = userRepository;
+        this.releaseRepository = releaseRepository;
+        this.taskExecutor = taskExecutor;
+        this.properties = applicationProperties.getSprImport();
+    }
+
+    /**
+     * Start importing sprs in the background.
+     *
+     * @param fileName the name of the imported file.
+     * @param format the format of the imported file.
+     * @param content the content of the imported file, it is copied before this method returns.
+     * @return the import job, queued.
+     * @throws IOException if the content could not be copied.
+     */
+    public SprImportJobDTO start(String fileName, Format format, InputStream content) throws IOException {
+        log.debug("Request to import Sprs from {}", fileName);
+        Path file = Files.createTempFile("spr-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        Instant expired = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(expired));
+        Job job = new Job(UUID.randomUUID().toString(), fileName);
+        jobs.put(job.id, job);
+        try {
+            taskExecutor.execute(() -> run(job, format, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Get the progress of an import job.
+     *
+     * @param id the id of the job.
+     * @return the job, unless it does not exist or finished more than a day ago.
+     */
+    public Optional<SprImportJobDTO> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::toDTO);
+    }
+
+    private void run(Job job, Format format, Path file) {
+        job.state = SprImportJobDTO.State.RUNNING;
+        job.startedAt = Instant.now();
+        try (TableReader reader = format == Format.XLSX
+            ? new XlsxTableReader(file.toFile())
+            : new CsvTableReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            importRows(job, reader);
+            job.finish(SprImportJobDTO.State.COMPLETED, null);
+            log.info("Imported {} Sprs from {}, {} rows failed", job.created, job.fileName, job.failed);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not import Sprs from {}", job.fileName, e);
+            job.finish(SprImportJobDTO.State.FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete {}", file, e);
+            }
+        }
+    }
+
+    private void importRows(Job job, TableReader reader) throws IOException {
+        List<String> header = reader.readRow();
+        if (header == null) {
+            throw new IOException("The file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Spreadsheet tools may start CSV files with a byte order mark
+            columns.putIfAbsent(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new IOException("Missing columns: " + String.join(", ", missing));
+        }
+
+        References references = new References();
+        List<Spr> chunk = new ArrayList<>(properties.getChunkSize());
+        List<Long> chunkRows = new ArrayList<>(properties.getChunkSize());
+        long rowNumber = 1;
+        List<String> row;
+        while ((row = reader.readRow()) != null) {
+            rowNumber++;
+            if (row.stream().allMatch(cell -> cell.trim().isEmpty())) {
+                continue;
+            }
+            job.rowsRead.incrementAndGet();
+            try {
+                chunk.add(toSpr(new Row(row, columns), references));
+                chunkRows.add(rowNumber);
+            } catch (RowException e) {
+                job.fail(rowNumber, e.errorKey, e.getMessage(), properties.getMaxReportedErrors());
+            }
+            if (chunk.size() >= properties.getChunkSize()) {
+                commit(job, chunk, chunkRows);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            commit(job, chunk, chunkRows);
+        }
+    }
+
+    private void commit(Job job, List<Spr> chunk, List<Long> chunkRows) {
+        for (SprBatchResultDTO result : sprBatchService.create(chunk)) {
+            if (result.getStatus() == SprBatchResultDTO.Status.CREATED) {
+                job.created.incrementAndGet();
+            } else {
+                job.fail(chunkRows.get(result.getIndex()), result.getErrorKey(), result.getMessage(), properties.getMaxReportedErrors());
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private static Spr toSpr(Row row, References references) {
+        Spr spr = new Spr()
+            .territory(row.getEnum("territory", Territory.class))
+            .number(row.getNumber("number", BigDecimal::intValueExact))
+            .fullNumber(row.get("fullnumber"))
+            .description(row.get("description"))
+            .priority(row.getEnum("priority", Priority.class))
+            .resolution(row.getEnum("resolution", Resolution.class))
+            .jiraLink(row.get("jiralink"))
+            .reviewerId(row.getNumber("reviewerid", BigDecimal::longValueExact));
+        String login = row.get("userlogin");
+        if (login != null) {
+            spr.setUser(references.users.computeIfAbsent(login.toLowerCase(Locale.ROOT), references::findUser)
+                .orElseThrow(() -> new RowException("usernotfound", "No user has the login " + login)));
+        }
+        Long releaseId = row.getNumber("releaseid", BigDecimal::longValueExact);
+        if (releaseId != null) {
+            spr.setRelease(references.releases.computeIfAbsent(releaseId, references::findRelease)
+                .orElseThrow(() -> new RowException("releasenotfound", "No release has the id " + releaseId)));
+        }
+        return spr;
+    }
+
+    /**
+     * The users and releases referenced by the rows of a job, looked up once each.
+     */
+    private final class References {
+
+        private final Map<String, Optional<User>> users = new HashMap<>();
+
+        private final Map<Long, Optional<Release>> releases = new HashMap<>();
+
+        private Optional<User> findUser(String login) {
+            return userRepository.findOneByLogin(login);
+        }
+
+        private Optional<Release> findRelease(Long id) {
+            return releaseRepository.findById(id);
+        }
+    }
+
+    private static final class Row {
+
+        private final List<String> cells;
+
+        private final Map<String, Integer> columns;
+
+        private Row(List<String> cells, Map<String, Integer> columns) {
+            this.cells = cells;
+            this.columns = columns;
+        }
+
+        /**
+         * @return the trimmed value of the column, or {@code null} if it is empty.
+         */
+        private String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size()) {
+                return null;
+            }
+            String value = cells.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private <E extends Enum<E>> E getEnum(String column, Class<E> type) {
+            String value = get(column);
+            try {
+                return value == null ? null : Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RowException("invalid", "Invalid " + column + " " + value);
+            }
+        }
+
+        /**
+         * Numbers may come as decimals from spreadsheets, such as {@code 42.0}.
+         */
+        private <N> N getNumber(String column, Function<BigDecimal, N> conversion) {
+            String value = get(column);
+            try {
+                return value == null ? null : conversion.apply(new BigDecimal(value));
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw new RowException("invalid", "Invalid " + column + " " + value);
+            }
+        }
+    }
+
+    private static final class RowException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String errorKey;
+
+        private RowException(String errorKey, String message) {
+            super(message);
+            this.errorKey = errorKey;
+        }
+    }
+
+    private static final class Job {
+
+        private final String id;
+
+        private final String fileName;
+
+        private final AtomicLong rowsRead = new AtomicLong();
+
+        private final AtomicLong created = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final List<SprImportJobDTO.RowError> errors = new CopyOnWriteArrayList<>();
+
+        private volatile SprImportJobDTO.State state = SprImportJobDTO.State.QUEUED;
+
+        private volatile String message;
+
+        private volatile Instant startedAt;
+
+        private volatile Instant finishedAt;
+
+        private Job(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        private void fail(long row, String errorKey, String message, int maxReportedErrors) {
+            failed.incrementAndGet();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new SprImportJobDTO.RowError(row, errorKey, message));
+            }
+        }
+
+        private void finish(SprImportJobDTO.State state, String message) {
+            this.message = message;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private SprImportJobDTO toDTO() {
+            SprImportJobDTO dto = new SprImportJobDTO();
+            dto.setId(id);
+            dto.setFileName(fileName);
+            dto.setState(state);
+            dto.setRowsRead(rowsRead.get());
+            dto.setCreated(created.get());
+            dto.setFailed(failed.get());
+            dto.setErrors(new ArrayList<>(errors));
+            dto.setMessage(message);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
@@ -1,9 +1,20 @@
 package com.amtrak.application.service;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 
+import org.hibernate.jpa.QueryHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -12,13 +23,13 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
 import com.amtrak.application.domain.Spr;
 import com.amtrak.application.domain.*; // for static metamodels
 import com.amtrak.application.repository.SprRepository;
 import com.amtrak.application.repository.search.SprSearchRepository;
+import com.amtrak.application.service.dto.KeysetPage;
 import com.amtrak.application.service.dto.SprCriteria;
+import com.amtrak.application.service.dto.SprSummaryDTO;
 
 /**
  * Service for executing complex queries for {@link Spr} entities in the database.
@@ -28,7 +39,7 @@ import com.amtrak.application.service.dto.SprCriteria;
  */
 @Service
 @Transactional(readOnly = true)
-public class SprQueryService extends QueryService<Spr> {
+public class SprQueryService extends KeysetQueryService<Spr> {
 
     private final Logger log = LoggerFactory.getLogger(SprQueryService.class);
 
@@ -36,9 +47,14 @@ public class SprQueryService extends QueryService<Spr> {
 
     private final SprSearchRepository sprSearchRepository;
 
-    public SprQueryService(SprRepository sprRepository, SprSearchRepository sprSearchRepository) {
+    private final EntityManager entityManager;
+
+    public SprQueryService(SprRepository sprRepository, SprSearchRepository sprSearchRepository,
+                          EntityManager entityManager) {
+        super(entityManager, Spr.class, new HashSet<>(Arrays.asList("territory", "number", "fullNumber")));
         this.sprRepository = sprRepository;
         this.sprSearchRepository = sprSearchRepository;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -66,6 +82,61 @@ public class SprQueryService extends QueryService<Spr> {
         return sprRepository.findAll(specification, page);
     }
 
+    /**
+     * Return a {@link KeysetPage} of {@link SprSummaryDTO} of the {@link Spr}s which match the criteria
+     * from the database, starting right after the given cursor. The description is never read.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous page, or {@code null} for the first page.
+     * @param page The size and the sort of the page, which should be returned.
+     * @return the summaries of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<SprSummaryDTO> findSummariesByCriteria(SprCriteria criteria, String after, Pageable page) {
+        log.debug("find summaries by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Spr> specification = createSpecification(criteria);
+        return findByCriteriaAfter(specification, after, page, SprSummaryDTO.class, (root, builder) -> {
+            Join<Spr, User> user = root.join(Spr_.user, JoinType.LEFT);
+            Join<Spr, Release> release = root.join(Spr_.release, JoinType.LEFT);
+            return builder.construct(SprSummaryDTO.class,
+                root.get(Spr_.id), root.get(Spr_.territory), root.get(Spr_.number), root.get(Spr_.fullNumber),
+                root.get(Spr_.priority), root.get(Spr_.resolution), root.get(Spr_.jiraLink), root.get(Spr_.reviewerId),
+                user.get(User_.id), user.get(User_.login), release.get(Release_.id));
+        });
+    }
+
+    /**
+     * Stream the {@link Spr}s which match the criteria from the database, ordered by id, to the given action.
+     * Rows are fetched {@code fetchSize} at a time and every entity is detached once handled, so the memory
+     * used does not depend on the number of matching entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fetchSize The number of rows fetched from the database at a time.
+     * @param action The action to perform on each matching entity.
+     */
+    @Transactional(readOnly = true)
+    public void forEachByCriteria(SprCriteria criteria, int fetchSize, Consumer<Spr> action) {
+        log.debug("stream by criteria : {}", criteria);
+        final Specification<Spr> specification = createSpecification(criteria);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Spr> query = builder.createQuery(Spr.class);
+        Root<Spr> root = query.from(Spr.class);
+        root.fetch(Spr_.user, JoinType.LEFT);
+        root.fetch(Spr_.release, JoinType.LEFT);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(builder.asc(root.get(Spr_.id)));
+        try (Stream<Spr> sprs = entityManager.createQuery(query)
+            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .getResultStream()) {
+            sprs.forEach(spr -> {
+                action.accept(spr);
+                entityManager.detach(spr);
+            });
+        }
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -108,13 +179,14 @@ public class SprQueryService extends QueryService<Spr> {
             if (criteria.getReviewerId() != null) {
                 specification = specification.and(buildRangeSpecification(criteria.getReviewerId(), Spr_.reviewerId));
             }
+            // The ids of the user and release are read from the foreign keys, without joining their tables
             if (criteria.getUserId() != null) {
                 specification = specification.and(buildSpecification(criteria.getUserId(),
-                    root -> root.join(Spr_.user, JoinType.LEFT).get(User_.id)));
+                    root -> root.get(Spr_.user).get(User_.id)));
             }
             if (criteria.getReleaseId() != null) {
                 specification = specification.and(buildSpecification(criteria.getReleaseId(),
-                    root -> root.join(Spr_.release, JoinType.LEFT).get(Release_.id)));
+                    root -> root.get(Spr_.release).get(Release_.id)));
             }
         }
         return specification;
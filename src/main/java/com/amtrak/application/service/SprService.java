@@ -2,22 +2,23 @@ package com.amtrak.application.service;
 
 import com.amtrak.application.domain.Spr;
 import com.amtrak.application.domain.User;
+import com.amtrak.application.domain.enumeration.Priority;
 import com.amtrak.application.domain.enumeration.Resolution;
 import com.amtrak.application.domain.enumeration.Territory;
 import com.amtrak.application.repository.SprRepository;
-import com.amtrak.application.repository.UserRepository;
 import com.amtrak.application.repository.search.SprSearchRepository;
+import com.amtrak.application.service.dto.UserOpenSprCountDTO;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * Service Implementation for managing {@link Spr}.
@@ -33,13 +34,26 @@ public class SprService {
 
     private final SprSearchRepository sprSearchRepository;
 
-    private final UserRepository userRepository;
+    private final OpenSprCounterRegistry openSprCounterRegistry;
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final SearchIndexer searchIndexer;
+
+    private final SearchCache searchCache;
+
+    private final SuggestionRegistry suggestionRegistry;
 
     public SprService(SprRepository sprRepository, SprSearchRepository sprSearchRepository,
-                      UserRepository userRepository) {
+                      OpenSprCounterRegistry openSprCounterRegistry, EntityVersionRegistry entityVersionRegistry,
+                      SearchIndexer searchIndexer, SearchCache searchCache, SuggestionRegistry suggestionRegistry) {
         this.sprRepository = sprRepository;
         this.sprSearchRepository = sprSearchRepository;
-        this.userRepository = userRepository;
+        this.openSprCounterRegistry = openSprCounterRegistry;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.searchIndexer = searchIndexer;
+        this.searchCache = searchCache;
+        this.suggestionRegistry = suggestionRegistry;
     }
 
     /**
@@ -50,8 +64,13 @@ public class SprService {
      */
     public Spr save(Spr spr) {
         log.debug("Request to save Spr : {}", spr);
+        OpenSprCounterRegistry.Contribution before = spr.getId() == null ? null :
+            sprRepository.findById(spr.getId()).map(OpenSprCounterRegistry.Contribution::of).orElse(null);
         Spr result = sprRepository.save(spr);
-        sprSearchRepository.save(result);
+        searchIndexer.index(Spr.class, result.getId());
+        openSprCounterRegistry.updateAfterCommit(before, OpenSprCounterRegistry.Contribution.of(result));
+        suggestionRegistry.savedAfterCommit(result);
+        entityVersionRegistry.bumpAfterCommit(Spr.class);
         return result;
     }
 
@@ -86,22 +105,29 @@ public class SprService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Spr : {}", id);
+        OpenSprCounterRegistry.Contribution before =
+            sprRepository.findById(id).map(OpenSprCounterRegistry.Contribution::of).orElse(null);
         sprRepository.deleteById(id);
-        sprSearchRepository.deleteById(id);
+        searchIndexer.delete(Spr.class, id);
+        openSprCounterRegistry.updateAfterCommit(before, null);
+        suggestionRegistry.deletedAfterCommit(SuggestionRegistry.Type.SPR, id);
+        entityVersionRegistry.bumpAfterCommit(Spr.class);
     }
 
     /**
-     * Search for the spr corresponding to the query.
+     * Search for the spr corresponding to the query, one page at a time.
      *
      * @param query the query of the search.
-     * @return the list of entities.
+     * @param after the cursor of the previous page, or {@code null} for the first page.
+     * @param pageable the size and the sort of the page.
+     * @return the page of entities.
+     * @throws IllegalArgumentException if the sort is not supported or the cursor is not valid for it.
      */
     @Transactional(readOnly = true)
-    public List<Spr> search(String query) {
-        log.debug("Request to search Sprs for query {}", query);
-        return StreamSupport
-            .stream(sprSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-            .collect(Collectors.toList());
+    public SearchPage<Spr> search(String query, String after, Pageable pageable) {
+        log.debug("Request to search a page of Sprs for query {}, after: {}", query, after);
+        return searchCache.get(Spr.class, query, after, pageable,
+            () -> SearchPageUtil.search(sprSearchRepository, Spr::getId, query, after, pageable));
     }
 
     /**
@@ -128,22 +154,7 @@ public class SprService {
     public List<Spr> getAllOpenSprsForUser(User user)
     {
         log.debug("Request to find all OPEN SPRs for User={}", user.getLogin());
-        List<Spr> allSprs =  sprRepository.findAllByUser(user);
-
-        for (Iterator<Spr> iterator = allSprs.iterator(); iterator.hasNext(); ) {
-            Spr spr = iterator.next();
-            switch(spr.getResolution())
-            {
-                case RELEASED:
-                case CANNOT_REPRODUCE:
-                case TESTED:
-                case REVIEWED:
-                case FIXED:
-                    iterator.remove();
-                    break;
-            }
-        }
-        return allSprs;
+        return sprRepository.findAllOpenByUser(user);
     }
 
     @Transactional(readOnly = true)
@@ -154,68 +165,51 @@ public class SprService {
     }
 
     /**
-     * Gets the SPR count for all users
+     * Gets the open SPR count for all users, from the in-memory counters.
+     * Users without any open SPR are not part of the result.
      *
-     * @return Map
+     * @return List
      */
-    @Transactional(readOnly = true)
-    public Map<User, Integer> getAllUserOpenSprCount()
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserOpenSprCountDTO> getAllUserOpenSprCount()
     {
         log.debug("Request to find all open SPR count for all users");
-        List<Spr> sprs = sprRepository.findAll();
-        List<User> users = userRepository.findAll();
-        Map<User, Integer> sprMap = new HashMap<>();
-
-        // Add users, initialize to 0
-        for ( User user : users )
-            sprMap.put(user, 0);
-
-        // Filter the SPRS
-        for (Iterator<Spr> iterator = sprs.iterator(); iterator.hasNext(); ) {
-            Spr spr = iterator.next();
-            switch(spr.getResolution())
-            {
-                case RELEASED:
-                case CANNOT_REPRODUCE:
-                case TESTED:
-                case REVIEWED:
-                case FIXED:
-                    iterator.remove();
-                    break;
-            }
-        }
-
-        // Tally up SPRs for each user
-        for ( Spr spr : sprs )
-            sprMap.replace(spr.getUser(), sprMap.get( spr.getUser() ) + 1);
-
-        return sprMap;
+        return openSprCounterRegistry.getUserCounts();
+    }
+
+    /**
+     * Gets the open SPR count for all territories, from the in-memory counters.
+     *
+     * @return Map
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<Territory, Long> getAllTerritoryOpenSprCount()
+    {
+        log.debug("Request to find all open SPR count for all territories");
+        return openSprCounterRegistry.getTerritoryCounts();
     }
 
     /**
-     * Gets the SPR count for all users
+     * Gets the open SPR count for all priorities, from the in-memory counters.
      *
      * @return Map
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<Priority, Long> getAllPriorityOpenSprCount()
+    {
+        log.debug("Request to find all open SPR count for all priorities");
+        return openSprCounterRegistry.getPriorityCounts();
+    }
+
+    /**
+     * Finds all SPRs which are still considered open
+     *
+     * @return List
+     */
     @Transactional(readOnly = true)
     public List<Spr> getAllOpenSprs()
     {
-        log.debug("Request to find all open SPR count for all users");
-        List<Spr> sprs = sprRepository.findAll();
-
-        for (Iterator<Spr> iterator = sprs.iterator(); iterator.hasNext(); ) {
-            Spr spr = iterator.next();
-            switch(spr.getResolution())
-            {
-                case RELEASED:
-                case CANNOT_REPRODUCE:
-                case TESTED:
-                case REVIEWED:
-                case FIXED:
-                    iterator.remove();
-                    break;
-            }
-        }
-        return sprs;
+        log.debug("Request to find all open SPRs");
+        return sprRepository.findAllOpen();
     }
 }
@@ -0,0 +1,339 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.config.Constants;
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.repository.SprRepository;
+import com.amtrak.application.repository.UserRepository;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
+import com.amtrak.application.service.dto.SuggestionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index of the {@link Spr} full numbers, {@link User} logins and {@link Release} builds,
+ * suggesting entities as their identifier is typed.
+ * <p>
+ * Each type is a sorted array of lower-cased keys: the suggestions for a prefix are found by a binary search, then
+ * read in order until a key does not start with the prefix. The arrays are loaded from the database at startup and
+ * never modified: once their transactions commit, the services swap in a copy merging their changed keys, unless
+ * the keys did not change, and a periodic reload repairs any drift. Reading them never touches the database.
+ */
+@Service
+public class SuggestionRegistry {
+
+    /**
+     * The types of suggested entities.
+     */
+    public enum Type {
+        SPR, USER, RELEASE
+    }
+
+    /**
+     * The maximum number of suggestions returned at once.
+     */
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private final Logger log = LoggerFactory.getLogger(SuggestionRegistry.class);
+
+    private final SprRepository sprRepository;
+
+    private final UserRepository userRepository;
+
+    private final ReleaseRepository releaseRepository;
+
+    private final Map<Type, Dictionary> dictionaries = Collections.synchronizedMap(new EnumMap<>(Type.class));
+
+    /**
+     * The number of changes applied to the dictionaries, so that a reload does not overwrite the changes committed while it read the database.
+     */
+    private long changes;
+
+    public SuggestionRegistry(SprRepository sprRepository, UserRepository userRepository, ReleaseRepository releaseRepository) {
+        this.sprRepository = sprRepository;
+        this.userRepository = userRepository;
+        this.releaseRepository = releaseRepository;
+        for (Type type : Type.values()) {
+            dictionaries.put(type, Dictionary.EMPTY);
+        }
+    }
+
+    /**
+     * Reloads the dictionaries from the database.
+     * <p>
+     * This is fired once the application is ready, then every hour.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 * * * ?")
+    public void reload() {
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = changes;
+        }
+        Map<Type, Dictionary> loaded = new EnumMap<>(Type.class);
+        try {
+            loaded.put(Type.SPR, Dictionary.of(sprRepository.findAllSuggestions().stream()
+                .map(suggestion -> new Entry(suggestion.getLabel(), suggestion))));
+            loaded.put(Type.USER, Dictionary.of(userRepository.findAllSuggestionsByLoginNot(Constants.ANONYMOUS_USER).stream()
+                .map(suggestion -> new Entry(suggestion.getLabel(), suggestion))));
+            loaded.put(Type.RELEASE, Dictionary.of(releaseRepository.findAllSummaries().stream()
+                .flatMap(SuggestionRegistry::entries)));
+        } catch (RuntimeException e) {
+            log.warn("Could not load the suggestions, keeping the current ones", e);
+            return;
+        }
+        synchronized (this) {
+            if (changes != changesBefore) {
+                log.debug("Suggestions changed during the reload, it will be done again on the next run");
+                return;
+            }
+            dictionaries.putAll(loaded);
+        }
+        log.debug("Loaded the suggestions: {}", loaded.entrySet().stream()
+            .map(dictionary -> dictionary.getKey() + "=" + dictionary.getValue().keys.length)
+            .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Suggests the entities of a type whose identifier starts with a prefix, ignoring case.
+     *
+     * @param type the type of the entities.
+     * @param prefix the typed prefix.
+     * @param size the maximum number of suggestions, capped to {@link #MAX_SUGGESTIONS}.
+     * @return the suggestions, in the order of their identifiers.
+     */
+    public List<SuggestionDTO> suggest(Type type, String prefix, int size) {
+        return dictionaries.get(type).suggest(normalize(prefix), Math.min(Math.max(size, 0), MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Updates the suggestion of a saved SPR once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param spr the saved SPR.
+     */
+    public void savedAfterCommit(Spr spr) {
+        savedAfterCommit(Collections.singletonList(spr));
+    }
+
+    /**
+     * Updates the suggestions of saved SPRs once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param sprs the saved SPRs.
+     */
+    public void savedAfterCommit(Collection<Spr> sprs) {
+        Set<Long> ids = sprs.stream().map(Spr::getId).collect(Collectors.toSet());
+        List<Entry> entries = sprs.stream()
+            .filter(spr -> spr.getFullNumber() != null)
+            .map(spr -> new Entry(spr.getFullNumber(), new SuggestionDTO(spr.getId(), spr.getFullNumber())))
+            .collect(Collectors.toList());
+        afterCommit(() -> apply(Type.SPR, ids, entries));
+    }
+
+    /**
+     * Updates the suggestion of a saved user once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param user the saved user.
+     */
+    public void savedAfterCommit(User user) {
+        List<Entry> entries = Constants.ANONYMOUS_USER.equals(user.getLogin()) ? Collections.emptyList() :
+            Collections.singletonList(new Entry(user.getLogin(), new SuggestionDTO(user.getId(), user.getLogin())));
+        afterCommit(() -> apply(Type.USER, Collections.singleton(user.getId()), entries));
+    }
+
+    /**
+     * Updates the suggestion of a saved release once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param release the saved release.
+     */
+    public void savedAfterCommit(Release release) {
+        List<Entry> entries = entries(CurrentReleaseRegistry.toSummary(release)).collect(Collectors.toList());
+        afterCommit(() -> apply(Type.RELEASE, Collections.singleton(release.getId()), entries));
+    }
+
+    /**
+     * Removes the suggestion of a deleted entity once the current transaction commits,
+     * or right away when there is no transaction.
+     *
+     * @param type the type of the entity.
+     * @param id the id of the deleted entity.
+     */
+    public void deletedAfterCommit(Type type, Long id) {
+        afterCommit(() -> apply(type, Collections.singleton(id), Collections.emptyList()));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private synchronized void apply(Type type, Set<Long> ids, List<Entry> entries) {
+        Dictionary dictionary = dictionaries.get(type);
+        // The keys of an entity derive from its label: when all its keys are there with the same label, nothing changed
+        boolean unchanged = entries.stream().map(entry -> entry.suggestion.getId()).collect(Collectors.toSet()).equals(ids) &&
+            entries.stream().allMatch(dictionary::contains);
+        if (unchanged) {
+            return;
+        }
+        dictionaries.put(type, dictionary.replace(ids, entries));
+        changes++;
+    }
+
+    /**
+     * A release is suggested for its label, and for its build number alone.
+     */
+    private static Stream<Entry> entries(ReleaseSummaryDTO release) {
+        String build = (release.getPrefixLetter() != null ? release.getPrefixLetter() : "") + release.getReleaseLetter() +
+            " build " + release.getBuild();
+        SuggestionDTO suggestion = new SuggestionDTO(release.getId(), release.getTerritory() + " " + build);
+        return Stream.of(suggestion.getLabel(), build, String.valueOf(release.getBuild()))
+            .map(key -> new Entry(key, suggestion));
+    }
+
+    private static String normalize(String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+
+        private final String key;
+
+        private final SuggestionDTO suggestion;
+
+        private Entry(String key, SuggestionDTO suggestion) {
+            this.key = normalize(key);
+            this.suggestion = suggestion;
+        }
+    }
+
+    /**
+     * The keys of a type, sorted, and the suggestion of each key at the same position.
+     */
+    private static final class Dictionary {
+
+        private static final Dictionary EMPTY = new Dictionary(new String[0], new SuggestionDTO[0]);
+
+        private static final Comparator<Entry> BY_KEY = Comparator.comparing(entry -> entry.key);
+
+        private final String[] keys;
+
+        private final SuggestionDTO[] suggestions;
+
+        private Dictionary(String[] keys, SuggestionDTO[] suggestions) {
+            this.keys = keys;
+            this.suggestions = suggestions;
+        }
+
+        private static Dictionary of(Stream<Entry> entries) {
+            Entry[] sorted = entries.sorted(BY_KEY).toArray(Entry[]::new);
+            String[] keys = new String[sorted.length];
+            SuggestionDTO[] suggestions = new SuggestionDTO[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i].key;
+                suggestions[i] = sorted[i].suggestion;
+            }
+            return new Dictionary(keys, suggestions);
+        }
+
+        private List<SuggestionDTO> suggest(String prefix, int size) {
+            Map<Long, SuggestionDTO> found = new LinkedHashMap<>();
+            for (int i = firstIndexOf(prefix); i < keys.length && found.size() < size && keys[i].startsWith(prefix); i++) {
+                found.putIfAbsent(suggestions[i].getId(), suggestions[i]);
+            }
+            return new ArrayList<>(found.values());
+        }
+
+        /**
+         * @return whether the key of the entry is suggested with the same id and label.
+         */
+        private boolean contains(Entry entry) {
+            for (int i = firstIndexOf(entry.key); i < keys.length && keys[i].equals(entry.key); i++) {
+                if (suggestions[i].getId().equals(entry.suggestion.getId()) &&
+                    suggestions[i].getLabel().equals(entry.suggestion.getLabel())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return a copy of this dictionary without the keys of the entities, and with the new entries.
+         * The kept keys are still sorted, so they are merged with the sorted new entries in one pass.
+         */
+        private Dictionary replace(Set<Long> ids, List<Entry> entries) {
+            Entry[] added = entries.stream().sorted(BY_KEY).toArray(Entry[]::new);
+            String[] mergedKeys = new String[keys.length + added.length];
+            SuggestionDTO[] mergedSuggestions = new SuggestionDTO[mergedKeys.length];
+            int size = 0;
+            int next = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (ids.contains(suggestions[i].getId())) {
+                    continue;
+                }
+                for (; next < added.length && added[next].key.compareTo(keys[i]) < 0; next++, size++) {
+                    mergedKeys[size] = added[next].key;
+                    mergedSuggestions[size] = added[next].suggestion;
+                }
+                mergedKeys[size] = keys[i];
+                mergedSuggestions[size] = suggestions[i];
+                size++;
+            }
+            for (; next < added.length; next++, size++) {
+                mergedKeys[size] = added[next].key;
+                mergedSuggestions[size] = added[next].suggestion;
+            }
+            return new Dictionary(Arrays.copyOf(mergedKeys, size), Arrays.copyOf(mergedSuggestions, size));
+        }
+
+        /**
+         * @return the position of the first key greater than or equal to the given one, which the binary search of
+         * {@link Arrays} does not guarantee when keys are repeated.
+         */
+        private int firstIndexOf(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
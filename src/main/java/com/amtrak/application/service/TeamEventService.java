@@ -3,18 +3,17 @@ package com.amtrak.application.service;
 import com.amtrak.application.domain.TeamEvent;
 import com.amtrak.application.repository.TeamEventRepository;
 import com.amtrak.application.repository.search.TeamEventSearchRepository;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * Service Implementation for managing {@link TeamEvent}.
@@ -29,9 +28,20 @@ public class TeamEventService {
 
     private final TeamEventSearchRepository teamEventSearchRepository;
 
-    public TeamEventService(TeamEventRepository teamEventRepository, TeamEventSearchRepository teamEventSearchRepository) {
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final SearchIndexer searchIndexer;
+
+    private final SearchCache searchCache;
+
+    public TeamEventService(TeamEventRepository teamEventRepository, TeamEventSearchRepository teamEventSearchRepository,
+                     EntityVersionRegistry entityVersionRegistry, SearchIndexer searchIndexer,
+                     SearchCache searchCache) {
         this.teamEventRepository = teamEventRepository;
         this.teamEventSearchRepository = teamEventSearchRepository;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.searchIndexer = searchIndexer;
+        this.searchCache = searchCache;
     }
 
     /**
@@ -43,7 +53,8 @@ public class TeamEventService {
     public TeamEvent save(TeamEvent teamEvent) {
         log.debug("Request to save TeamEvent : {}", teamEvent);
         TeamEvent result = teamEventRepository.save(teamEvent);
-        teamEventSearchRepository.save(result);
+        searchIndexer.index(TeamEvent.class, result.getId());
+        entityVersionRegistry.bumpAfterCommit(TeamEvent.class);
         return result;
     }
 
@@ -79,20 +90,23 @@ public class TeamEventService {
     public void delete(Long id) {
         log.debug("Request to delete TeamEvent : {}", id);
         teamEventRepository.deleteById(id);
-        teamEventSearchRepository.deleteById(id);
+        searchIndexer.delete(TeamEvent.class, id);
+        entityVersionRegistry.bumpAfterCommit(TeamEvent.class);
     }
 
     /**
-     * Search for the teamEvent corresponding to the query.
+     * Search for the teamEvent corresponding to the query, one page at a time.
      *
      * @param query the query of the search.
-     * @return the list of entities.
+     * @param after the cursor of the previous page, or {@code null} for the first page.
+     * @param pageable the size and the sort of the page.
+     * @return the page of entities.
+     * @throws IllegalArgumentException if the sort is not supported or the cursor is not valid for it.
      */
     @Transactional(readOnly = true)
-    public List<TeamEvent> search(String query) {
-        log.debug("Request to search TeamEvents for query {}", query);
-        return StreamSupport
-            .stream(teamEventSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-            .collect(Collectors.toList());
+    public SearchPage<TeamEvent> search(String query, String after, Pageable pageable) {
+        log.debug("Request to search a page of TeamEvents for query {}, after: {}", query, after);
+        return searchCache.get(TeamEvent.class, query, after, pageable,
+            () -> SearchPageUtil.search(teamEventSearchRepository, TeamEvent::getId, query, after, pageable));
     }
 }
@@ -5,7 +5,6 @@ import com.amtrak.application.domain.Authority;
 import com.amtrak.application.domain.User;
 import com.amtrak.application.repository.AuthorityRepository;
 import com.amtrak.application.repository.UserRepository;
-import com.amtrak.application.repository.search.UserSearchRepository;
 import com.amtrak.application.security.AuthoritiesConstants;
 import com.amtrak.application.security.SecurityUtils;
 import com.amtrak.application.service.dto.UserDTO;
@@ -40,18 +39,24 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    private final UserSearchRepository userSearchRepository;
-
     private final AuthorityRepository authorityRepository;
 
     private final CacheManager cacheManager;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserSearchRepository userSearchRepository, AuthorityRepository authorityRepository, CacheManager cacheManager) {
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    private final SearchIndexer searchIndexer;
+
+    private final SuggestionRegistry suggestionRegistry;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheManager cacheManager, EntityVersionRegistry entityVersionRegistry, SearchIndexer searchIndexer, SuggestionRegistry suggestionRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userSearchRepository = userSearchRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.entityVersionRegistry = entityVersionRegistry;
+        this.searchIndexer = searchIndexer;
+        this.suggestionRegistry = suggestionRegistry;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -61,7 +66,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
-                userSearchRepository.save(user);
+                searchIndexer.index(User.class, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Activated user: {}", user);
                 return user;
@@ -123,7 +128,8 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
-        userSearchRepository.save(newUser);
+        searchIndexer.index(User.class, newUser.getId());
+        suggestionRegistry.savedAfterCommit(newUser);
         this.clearUserCaches(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
@@ -135,6 +141,7 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        suggestionRegistry.deletedAfterCommit(SuggestionRegistry.Type.USER, existingUser.getId());
         this.clearUserCaches(existingUser);
         return true;
     }
@@ -165,7 +172,8 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
-        userSearchRepository.save(user);
+        searchIndexer.index(User.class, user.getId());
+        suggestionRegistry.savedAfterCommit(user);
         this.clearUserCaches(user);
         log.debug("Created Information for User: {}", user);
         return user;
@@ -189,7 +197,7 @@ public class UserService {
                 user.setEmail(email.toLowerCase());
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
-                userSearchRepository.save(user);
+                searchIndexer.index(User.class, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
             });
@@ -222,7 +230,8 @@ public class UserService {
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
-                userSearchRepository.save(user);
+                searchIndexer.index(User.class, user.getId());
+                suggestionRegistry.savedAfterCommit(user);
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
@@ -233,7 +242,8 @@ public class UserService {
     public void deleteUser(String login) {
         userRepository.findOneByLogin(login).ifPresent(user -> {
             userRepository.delete(user);
-            userSearchRepository.delete(user);
+            searchIndexer.delete(User.class, user.getId());
+            suggestionRegistry.deletedAfterCommit(SuggestionRegistry.Type.USER, user.getId());
             this.clearUserCaches(user);
             log.debug("Deleted User: {}", user);
         });
@@ -286,7 +296,8 @@ public class UserService {
             .forEach(user -> {
                 log.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
-                userSearchRepository.delete(user);
+                searchIndexer.delete(User.class, user.getId());
+                suggestionRegistry.deletedAfterCommit(SuggestionRegistry.Type.USER, user.getId());
                 this.clearUserCaches(user);
             });
     }
@@ -302,5 +313,6 @@ public class UserService {
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+        entityVersionRegistry.bumpAfterCommit(User.class);
     }
 }
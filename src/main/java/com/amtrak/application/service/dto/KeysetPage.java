@@ -0,0 +1,41 @@
+package com.amtrak.application.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A page of entities read with keyset (seek) pagination.
+ * <p>
+ * Instead of a page number, the next page is addressed by an opaque cursor built from the sort key
+ * and the id of the last entity of this page.
+ *
+ * @param <T> the type of the entities.
+ */
+public class KeysetPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<T> content;
+
+    private final String nextCursor;
+
+    public KeysetPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the cursor of the next page, or {@code null} if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
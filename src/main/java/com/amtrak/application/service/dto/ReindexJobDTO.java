@@ -0,0 +1,175 @@
+package com.amtrak.application.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO holding the progress of a full reindex of the search indices.
+ */
+public class ReindexJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The states of a reindex job, and of each of its indices.
+     */
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String id;
+
+    private State state;
+
+    private String message;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private List<IndexProgress> indices = new ArrayList<>();
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public List<IndexProgress> getIndices() {
+        return indices;
+    }
+
+    public void setIndices(List<IndexProgress> indices) {
+        this.indices = indices;
+    }
+
+    /**
+     * The progress of the rebuild of one index.
+     */
+    public static class IndexProgress implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String entity;
+
+        private String alias;
+
+        private String index;
+
+        private State state;
+
+        private long total;
+
+        private long indexed;
+
+        private Double documentsPerSecond;
+
+        private String message;
+
+        public String getEntity() {
+            return entity;
+        }
+
+        public void setEntity(String entity) {
+            this.entity = entity;
+        }
+
+        /**
+         * @return the name the index is searched by.
+         */
+        public String getAlias() {
+            return alias;
+        }
+
+        public void setAlias(String alias) {
+            this.alias = alias;
+        }
+
+        /**
+         * @return the name of the versioned index being built.
+         */
+        public String getIndex() {
+            return index;
+        }
+
+        public void setIndex(String index) {
+            this.index = index;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public void setState(State state) {
+            this.state = state;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public long getIndexed() {
+            return indexed;
+        }
+
+        public void setIndexed(long indexed) {
+            this.indexed = indexed;
+        }
+
+        public Double getDocumentsPerSecond() {
+            return documentsPerSecond;
+        }
+
+        public void setDocumentsPerSecond(Double documentsPerSecond) {
+            this.documentsPerSecond = documentsPerSecond;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.amtrak.application.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the difference between the SPRs delivered by two builds of a territory.
+ * <p>
+ * Builds are cumulative: a build holds the SPRs of its release and of all the earlier releases of its territory.
+ */
+public class ReleaseDiffDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private ReleaseSummaryDTO from;
+
+    private ReleaseSummaryDTO to;
+
+    private List<SprReferenceDTO> added = new ArrayList<>();
+
+    private List<SprReferenceDTO> removed = new ArrayList<>();
+
+    public ReleaseDiffDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ReleaseDiffDTO(ReleaseSummaryDTO from, ReleaseSummaryDTO to, List<SprReferenceDTO> added, List<SprReferenceDTO> removed) {
+        this.from = from;
+        this.to = to;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    public ReleaseSummaryDTO getFrom() {
+        return from;
+    }
+
+    public void setFrom(ReleaseSummaryDTO from) {
+        this.from = from;
+    }
+
+    public ReleaseSummaryDTO getTo() {
+        return to;
+    }
+
+    public void setTo(ReleaseSummaryDTO to) {
+        this.to = to;
+    }
+
+    /**
+     * @return the SPRs in the "to" build but not in the "from" build, by number.
+     */
+    public List<SprReferenceDTO> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<SprReferenceDTO> added) {
+        this.added = added;
+    }
+
+    /**
+     * @return the SPRs in the "from" build but not in the "to" build, by number.
+     */
+    public List<SprReferenceDTO> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<SprReferenceDTO> removed) {
+        this.removed = removed;
+    }
+
+    @Override
+    public String toString() {
+        return "ReleaseDiffDTO{" +
+            "from=" + getFrom() +
+            ", to=" + getTo() +
+            ", added=" + getAdded().size() +
+            ", removed=" + getRemoved().size() +
+            "}";
+    }
+}
@@ -0,0 +1,246 @@
+package com.amtrak.application.service.dto;
+
+import com.amtrak.application.domain.enumeration.Territory;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the release cadence of every territory.
+ */
+public class ReleaseStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<TerritoryStats> territories = new ArrayList<>();
+
+    public ReleaseStatsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ReleaseStatsDTO(List<TerritoryStats> territories) {
+        this.territories = territories;
+    }
+
+    public List<TerritoryStats> getTerritories() {
+        return territories;
+    }
+
+    public void setTerritories(List<TerritoryStats> territories) {
+        this.territories = territories;
+    }
+
+    /**
+     * The release cadence of a territory.
+     */
+    public static class TerritoryStats implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Territory territory;
+
+        private long releaseCount;
+
+        private Integer currentBuild;
+
+        private Long currentReleaseId;
+
+        private Double averageDaysBetweenReleases;
+
+        private Double averageSprsPerRelease;
+
+        private List<MonthlyCount> releasesPerMonth = new ArrayList<>();
+
+        private List<TimelineEntry> timeline = new ArrayList<>();
+
+        public TerritoryStats() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public TerritoryStats(Territory territory) {
+            this.territory = territory;
+        }
+
+        public Territory getTerritory() {
+            return territory;
+        }
+
+        public void setTerritory(Territory territory) {
+            this.territory = territory;
+        }
+
+        public long getReleaseCount() {
+            return releaseCount;
+        }
+
+        public void setReleaseCount(long releaseCount) {
+            this.releaseCount = releaseCount;
+        }
+
+        public Integer getCurrentBuild() {
+            return currentBuild;
+        }
+
+        public void setCurrentBuild(Integer currentBuild) {
+            this.currentBuild = currentBuild;
+        }
+
+        public Long getCurrentReleaseId() {
+            return currentReleaseId;
+        }
+
+        public void setCurrentReleaseId(Long currentReleaseId) {
+            this.currentReleaseId = currentReleaseId;
+        }
+
+        /**
+         * @return the average lead time between two consecutive releases, in days, or {@code null} with less than two releases.
+         */
+        public Double getAverageDaysBetweenReleases() {
+            return averageDaysBetweenReleases;
+        }
+
+        public void setAverageDaysBetweenReleases(Double averageDaysBetweenReleases) {
+            this.averageDaysBetweenReleases = averageDaysBetweenReleases;
+        }
+
+        public Double getAverageSprsPerRelease() {
+            return averageSprsPerRelease;
+        }
+
+        public void setAverageSprsPerRelease(Double averageSprsPerRelease) {
+            this.averageSprsPerRelease = averageSprsPerRelease;
+        }
+
+        public List<MonthlyCount> getReleasesPerMonth() {
+            return releasesPerMonth;
+        }
+
+        public void setReleasesPerMonth(List<MonthlyCount> releasesPerMonth) {
+            this.releasesPerMonth = releasesPerMonth;
+        }
+
+        public List<TimelineEntry> getTimeline() {
+            return timeline;
+        }
+
+        public void setTimeline(List<TimelineEntry> timeline) {
+            this.timeline = timeline;
+        }
+    }
+
+    /**
+     * The number of releases of a territory in a month.
+     */
+    public static class MonthlyCount implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String month;
+
+        private long releases;
+
+        public MonthlyCount() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public MonthlyCount(String month, long releases) {
+            this.month = month;
+            this.releases = releases;
+        }
+
+        /**
+         * @return the month, as {@code yyyy-MM} in UTC.
+         */
+        public String getMonth() {
+            return month;
+        }
+
+        public void setMonth(String month) {
+            this.month = month;
+        }
+
+        public long getReleases() {
+            return releases;
+        }
+
+        public void setReleases(long releases) {
+            this.releases = releases;
+        }
+    }
+
+    /**
+     * A release in the timeline of its territory.
+     */
+    public static class TimelineEntry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long releaseId;
+
+        private Integer build;
+
+        private Instant date;
+
+        private Double daysSincePreviousRelease;
+
+        private long sprs;
+
+        public TimelineEntry() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public TimelineEntry(Long releaseId, Integer build, Instant date, Double daysSincePreviousRelease, long sprs) {
+            this.releaseId = releaseId;
+            this.build = build;
+            this.date = date;
+            this.daysSincePreviousRelease = daysSincePreviousRelease;
+            this.sprs = sprs;
+        }
+
+        public Long getReleaseId() {
+            return releaseId;
+        }
+
+        public void setReleaseId(Long releaseId) {
+            this.releaseId = releaseId;
+        }
+
+        public Integer getBuild() {
+            return build;
+        }
+
+        public void setBuild(Integer build) {
+            this.build = build;
+        }
+
+        public Instant getDate() {
+            return date;
+        }
+
+        public void setDate(Instant date) {
+            this.date = date;
+        }
+
+        /**
+         * @return the lead time since the previous release of the territory, in days, or {@code null} for its first release.
+         */
+        public Double getDaysSincePreviousRelease() {
+            return daysSincePreviousRelease;
+        }
+
+        public void setDaysSincePreviousRelease(Double daysSincePreviousRelease) {
+            this.daysSincePreviousRelease = daysSincePreviousRelease;
+        }
+
+        public long getSprs() {
+            return sprs;
+        }
+
+        public void setSprs(long sprs) {
+            this.sprs = sprs;
+        }
+    }
+}
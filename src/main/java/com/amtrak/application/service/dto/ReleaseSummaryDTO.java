@@ -0,0 +1,194 @@
+package com.amtrak.application.service.dto;
+
+import com.amtrak.application.domain.enumeration.Territory;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the summary of a {@link com.amtrak.application.domain.Release}, as shown in lists.
+ * It leaves out the new and updated features, so that lists never read the LOB columns.
+ */
+public class ReleaseSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Instant date;
+
+    private Territory territory;
+
+    private Integer build;
+
+    private String releaseLetter;
+
+    private String prefixLetter;
+
+    private String databaseVersion;
+
+    private String wsVersion;
+
+    private String tmaVersion;
+
+    private Integer port;
+
+    private Boolean current;
+
+    public ReleaseSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ReleaseSummaryDTO(Long id, Instant date, Territory territory, Integer build, String releaseLetter,
+                             String prefixLetter, String databaseVersion, String wsVersion, String tmaVersion,
+                             Integer port, Boolean current) {
+        this.id = id;
+        this.date = date;
+        this.territory = territory;
+        this.build = build;
+        this.releaseLetter = releaseLetter;
+        this.prefixLetter = prefixLetter;
+        this.databaseVersion = databaseVersion;
+        this.wsVersion = wsVersion;
+        this.tmaVersion = tmaVersion;
+        this.port = port;
+        this.current = current;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+
+    public Territory getTerritory() {
+        return territory;
+    }
+
+    public void setTerritory(Territory territory) {
+        this.territory = territory;
+    }
+
+    public Integer getBuild() {
+        return build;
+    }
+
+    public void setBuild(Integer build) {
+        this.build = build;
+    }
+
+    public String getReleaseLetter() {
+        return releaseLetter;
+    }
+
+    public void setReleaseLetter(String releaseLetter) {
+        this.releaseLetter = releaseLetter;
+    }
+
+    public String getPrefixLetter() {
+        return prefixLetter;
+    }
+
+    public void setPrefixLetter(String prefixLetter) {
+        this.prefixLetter = prefixLetter;
+    }
+
+    public String getDatabaseVersion() {
+        return databaseVersion;
+    }
+
+    public void setDatabaseVersion(String databaseVersion) {
+        this.databaseVersion = databaseVersion;
+    }
+
+    public String getWsVersion() {
+        return wsVersion;
+    }
+
+    public void setWsVersion(String wsVersion) {
+        this.wsVersion = wsVersion;
+    }
+
+    public String getTmaVersion() {
+        return tmaVersion;
+    }
+
+    public void setTmaVersion(String tmaVersion) {
+        this.tmaVersion = tmaVersion;
+    }
+
+    public Integer getPort() {
+        return port;
+    }
+
+    public void setPort(Integer port) {
+        this.port = port;
+    }
+
+    public Boolean getCurrent() {
+        return current;
+    }
+
+    public void setCurrent(Boolean current) {
+        this.current = current;
+    }
+
+    /**
+     * Summaries are compared on all their fields, so that a changed summary of the same release is not equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReleaseSummaryDTO)) {
+            return false;
+        }
+        ReleaseSummaryDTO that = (ReleaseSummaryDTO) o;
+        return Objects.equals(id, that.id) &&
+            Objects.equals(date, that.date) &&
+            territory == that.territory &&
+            Objects.equals(build, that.build) &&
+            Objects.equals(releaseLetter, that.releaseLetter) &&
+            Objects.equals(prefixLetter, that.prefixLetter) &&
+            Objects.equals(databaseVersion, that.databaseVersion) &&
+            Objects.equals(wsVersion, that.wsVersion) &&
+            Objects.equals(tmaVersion, that.tmaVersion) &&
+            Objects.equals(port, that.port) &&
+            Objects.equals(current, that.current);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, date, territory, build, releaseLetter, prefixLetter, databaseVersion, wsVersion,
+            tmaVersion, port, current);
+    }
+
+    @Override
+    public String toString() {
+        return "ReleaseSummaryDTO{" +
+            "id=" + getId() +
+            ", date='" + getDate() + "'" +
+            ", territory='" + getTerritory() + "'" +
+            ", build=" + getBuild() +
+            ", releaseLetter='" + getReleaseLetter() + "'" +
+            ", prefixLetter='" + getPrefixLetter() + "'" +
+            ", databaseVersion='" + getDatabaseVersion() + "'" +
+            ", wsVersion='" + getWsVersion() + "'" +
+            ", tmaVersion='" + getTmaVersion() + "'" +
+            ", port=" + getPort() +
+            ", current='" + getCurrent() + "'" +
+            "}";
+    }
+}
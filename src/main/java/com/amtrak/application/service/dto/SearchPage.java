@@ -0,0 +1,29 @@
+package com.amtrak.application.service.dto;
+
+import java.util.List;
+
+/**
+ * A page of search results read with keyset (search after) pagination.
+ * <p>
+ * The first page also holds the number of hits of the query, which Elasticsearch counts while searching.
+ *
+ * @param <T> the type of the entities.
+ */
+public class SearchPage<T> extends KeysetPage<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long totalHits;
+
+    public SearchPage(List<T> content, String nextCursor, Long totalHits) {
+        super(content, nextCursor);
+        this.totalHits = totalHits;
+    }
+
+    /**
+     * @return the number of hits of the query, or {@code null} if this is not the first page.
+     */
+    public Long getTotalHits() {
+        return totalHits;
+    }
+}
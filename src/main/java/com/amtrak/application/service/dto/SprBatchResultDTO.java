@@ -0,0 +1,99 @@
+package com.amtrak.application.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO holding the outcome of one SPR of a batch.
+ */
+public class SprBatchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The outcomes of an SPR of a batch.
+     */
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+
+    private int index;
+
+    private Long id;
+
+    private Status status;
+
+    private String errorKey;
+
+    private String message;
+
+    public SprBatchResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SprBatchResultDTO(int index, Long id, Status status, String errorKey, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.errorKey = errorKey;
+        this.message = message;
+    }
+
+    public static SprBatchResultDTO saved(int index, Long id, Status status) {
+        return new SprBatchResultDTO(index, id, status, null, null);
+    }
+
+    public static SprBatchResultDTO failed(int index, Long id, String errorKey, String message) {
+        return new SprBatchResultDTO(index, id, Status.FAILED, errorKey, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public void setErrorKey(String errorKey) {
+        this.errorKey = errorKey;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "SprBatchResultDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status='" + status + "'" +
+            ", errorKey='" + errorKey + "'" +
+            ", message='" + message + "'" +
+            "}";
+    }
+}
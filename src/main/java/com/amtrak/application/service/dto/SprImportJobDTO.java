@@ -0,0 +1,184 @@
+package com.amtrak.application.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO holding the progress of an SPR import job.
+ */
+public class SprImportJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The states of an import job.
+     */
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String id;
+
+    private String fileName;
+
+    private State state;
+
+    private long rowsRead;
+
+    private long created;
+
+    private long failed;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    private String message;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SprImportJobDTO{" +
+            "id='" + id + "'" +
+            ", fileName='" + fileName + "'" +
+            ", state='" + state + "'" +
+            ", rowsRead=" + rowsRead +
+            ", created=" + created +
+            ", failed=" + failed +
+            ", message='" + message + "'" +
+            ", startedAt='" + startedAt + "'" +
+            ", finishedAt='" + finishedAt + "'" +
+            "}";
+    }
+
+    /**
+     * Why a row of the imported file was not imported.
+     */
+    public static class RowError implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long row;
+
+        private String errorKey;
+
+        private String message;
+
+        public RowError() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowError(long row, String errorKey, String message) {
+            this.row = row;
+            this.errorKey = errorKey;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getErrorKey() {
+            return errorKey;
+        }
+
+        public void setErrorKey(String errorKey) {
+            this.errorKey = errorKey;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
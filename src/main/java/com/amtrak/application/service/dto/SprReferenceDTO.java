@@ -0,0 +1,86 @@
+package com.amtrak.application.service.dto;
+
+import com.amtrak.application.domain.enumeration.Resolution;
+
+import java.io.Serializable;
+
+/**
+ * A DTO referencing a {@link com.amtrak.application.domain.Spr} and the release it was delivered in.
+ */
+public class SprReferenceDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Integer number;
+
+    private String fullNumber;
+
+    private Resolution resolution;
+
+    private Long releaseId;
+
+    public SprReferenceDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SprReferenceDTO(Long id, Integer number, String fullNumber, Resolution resolution, Long releaseId) {
+        this.id = id;
+        this.number = number;
+        this.fullNumber = fullNumber;
+        this.resolution = resolution;
+        this.releaseId = releaseId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getNumber() {
+        return number;
+    }
+
+    public void setNumber(Integer number) {
+        this.number = number;
+    }
+
+    public String getFullNumber() {
+        return fullNumber;
+    }
+
+    public void setFullNumber(String fullNumber) {
+        this.fullNumber = fullNumber;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(Resolution resolution) {
+        this.resolution = resolution;
+    }
+
+    public Long getReleaseId() {
+        return releaseId;
+    }
+
+    public void setReleaseId(Long releaseId) {
+        this.releaseId = releaseId;
+    }
+
+    @Override
+    public String toString() {
+        return "SprReferenceDTO{" +
+            "id=" + getId() +
+            ", number=" + getNumber() +
+            ", fullNumber='" + getFullNumber() + "'" +
+            ", resolution='" + getResolution() + "'" +
+            ", releaseId=" + getReleaseId() +
+            "}";
+    }
+}
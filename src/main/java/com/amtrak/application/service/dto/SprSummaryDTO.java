@@ -0,0 +1,212 @@
+package com.amtrak.application.service.dto;
+
+import com.amtrak.application.domain.enumeration.Priority;
+import com.amtrak.application.domain.enumeration.Resolution;
+import com.amtrak.application.domain.enumeration.Territory;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the summary of a {@link com.amtrak.application.domain.Spr}, as shown in lists.
+ * It leaves out the description, so that lists never read the LOB column.
+ */
+public class SprSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Territory territory;
+
+    private Integer number;
+
+    private String fullNumber;
+
+    private Priority priority;
+
+    private Resolution resolution;
+
+    private String jiraLink;
+
+    private Long reviewerId;
+
+    private UserRef user;
+
+    private ReleaseRef release;
+
+    public SprSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SprSummaryDTO(Long id, Territory territory, Integer number, String fullNumber, Priority priority,
+                         Resolution resolution, String jiraLink, Long reviewerId,
+                         Long userId, String userLogin, Long releaseId) {
+        this.id = id;
+        this.territory = territory;
+        this.number = number;
+        this.fullNumber = fullNumber;
+        this.priority = priority;
+        this.resolution = resolution;
+        this.jiraLink = jiraLink;
+        this.reviewerId = reviewerId;
+        this.user = userId == null ? null : new UserRef(userId, userLogin);
+        this.release = releaseId == null ? null : new ReleaseRef(releaseId);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Territory getTerritory() {
+        return territory;
+    }
+
+    public void setTerritory(Territory territory) {
+        this.territory = territory;
+    }
+
+    public Integer getNumber() {
+        return number;
+    }
+
+    public void setNumber(Integer number) {
+        this.number = number;
+    }
+
+    public String getFullNumber() {
+        return fullNumber;
+    }
+
+    public void setFullNumber(String fullNumber) {
+        this.fullNumber = fullNumber;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(Resolution resolution) {
+        this.resolution = resolution;
+    }
+
+    public String getJiraLink() {
+        return jiraLink;
+    }
+
+    public void setJiraLink(String jiraLink) {
+        this.jiraLink = jiraLink;
+    }
+
+    public Long getReviewerId() {
+        return reviewerId;
+    }
+
+    public void setReviewerId(Long reviewerId) {
+        this.reviewerId = reviewerId;
+    }
+
+    public UserRef getUser() {
+        return user;
+    }
+
+    public void setUser(UserRef user) {
+        this.user = user;
+    }
+
+    public ReleaseRef getRelease() {
+        return release;
+    }
+
+    public void setRelease(ReleaseRef release) {
+        this.release = release;
+    }
+
+    @Override
+    public String toString() {
+        return "SprSummaryDTO{" +
+            "id=" + getId() +
+            ", territory='" + getTerritory() + "'" +
+            ", number=" + getNumber() +
+            ", fullNumber='" + getFullNumber() + "'" +
+            ", priority='" + getPriority() + "'" +
+            ", resolution='" + getResolution() + "'" +
+            ", jiraLink='" + getJiraLink() + "'" +
+            ", reviewerId=" + getReviewerId() +
+            "}";
+    }
+
+    /**
+     * The user an SPR is assigned to.
+     */
+    public static class UserRef implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String login;
+
+        public UserRef() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public UserRef(Long id, String login) {
+            this.id = id;
+            this.login = login;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public void setLogin(String login) {
+            this.login = login;
+        }
+    }
+
+    /**
+     * The release an SPR is part of.
+     */
+    public static class ReleaseRef implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        public ReleaseRef() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public ReleaseRef(Long id) {
+            this.id = id;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+    }
+}
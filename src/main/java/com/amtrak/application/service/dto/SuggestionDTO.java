@@ -0,0 +1,48 @@
+package com.amtrak.application.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO suggesting an entity for a typed prefix: its id, and the text to display.
+ */
+public class SuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String label;
+
+    public SuggestionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SuggestionDTO(Long id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return "SuggestionDTO{" +
+            "id=" + getId() +
+            ", label='" + getLabel() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,60 @@
+package com.amtrak.application.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO holding the number of open SPRs assigned to a user.
+ */
+public class UserOpenSprCountDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userId;
+
+    private String login;
+
+    private long count;
+
+    public UserOpenSprCountDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public UserOpenSprCountDTO(Long userId, String login, long count) {
+        this.userId = userId;
+        this.login = login;
+        this.count = count;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "UserOpenSprCountDTO{" +
+            "userId=" + userId +
+            ", login='" + login + "'" +
+            ", count=" + count +
+            "}";
+    }
+}
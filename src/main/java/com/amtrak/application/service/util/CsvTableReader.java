@@ -0,0 +1,68 @@
+package com.amtrak.application.service.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a CSV table as described in RFC 4180: fields are separated by commas and may be quoted,
+ * in which case they can hold commas, line breaks and doubled quotes.
+ */
+public class CsvTableReader implements TableReader {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+
+    private int next;
+
+    public CsvTableReader(Reader reader) throws IOException {
+        this.reader = reader;
+        this.next = reader.read();
+    }
+
+    @Override
+    public List<String> readRow() throws IOException {
+        if (next == EOF) {
+            return null;
+        }
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = next;
+            next = reader.read();
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IOException("Unterminated quoted field");
+                } else if (c == '"' && next == '"') {
+                    field.append('"');
+                    next = reader.read();
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r' && next == '\n') {
+                    next = reader.read();
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
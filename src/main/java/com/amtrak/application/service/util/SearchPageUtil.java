@@ -0,0 +1,114 @@
+package com.amtrak.application.service.util;
+
+import com.amtrak.application.service.dto.SearchPage;
+
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+
+/**
+ * Utility class for searching one page of results at a time.
+ * <p>
+ * Hits are ordered by id, and every page is a filter on the ids beyond the last hit of the previous page, in the
+ * manner of the {@code search_after} parameter of Elasticsearch: reading a deep page costs the same as reading the
+ * first one, and no page can hold more than {@link #MAX_PAGE_SIZE} hits.
+ * <p>
+ * The ids are mapped as longs, so that both search backends order them numerically rather than as text.
+ */
+public final class SearchPageUtil {
+
+    /**
+     * Maximum number of hits returned in one page, whatever the requested size.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ID = "id";
+
+    private static final String CURSOR_SEPARATOR = "\n";
+
+    private SearchPageUtil() {
+    }
+
+    /**
+     * Return the page of hits of the query which comes right after the cursor.
+     * <p>
+     * Only the first order of the sort of the {@link Pageable} is used, it must be on the id, and its page number
+     * is ignored.
+     *
+     * @param repository the repository of the index to search.
+     * @param id the id of an entity.
+     * @param query the query, in the query string syntax.
+     * @param after the cursor of the previous page, or {@code null} for the first page.
+     * @param pageable the size and the sort of the page.
+     * @param <T> the type of the entities.
+     * @return the matching entities.
+     * @throws IllegalArgumentException if the sort is not supported or the cursor is not valid for it.
+     */
+    public static <T> SearchPage<T> search(ElasticsearchRepository<T, Long> repository, Function<T, Long> id, String query,
+                                           String after, Pageable pageable) {
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(ID));
+        if (!ID.equals(order.getProperty())) {
+            throw new IllegalArgumentException("Search results can only be sorted by id");
+        }
+        int size = Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+
+        BoolQueryBuilder bool = boolQuery().must(queryStringQuery(query));
+        if (after != null) {
+            long lastId = decodeCursor(after, order);
+            RangeQueryBuilder range = rangeQuery(ID);
+            bool.filter(order.isAscending() ? range.gt(lastId) : range.lt(lastId));
+        }
+        // One more hit than requested tells whether there is a next page
+        Page<T> hits = repository.search(new NativeSearchQueryBuilder()
+            .withQuery(bool)
+            .withSort(SortBuilders.fieldSort(ID).order(order.isAscending() ? SortOrder.ASC : SortOrder.DESC))
+            .withPageable(PageRequest.of(0, size + 1))
+            .build());
+
+        Long totalHits = after == null ? hits.getTotalElements() : null;
+        List<T> content = hits.getContent();
+        if (content.size() <= size) {
+            return new SearchPage<>(content, null, totalHits);
+        }
+        content = new ArrayList<>(content.subList(0, size));
+        return new SearchPage<>(content, encodeCursor(id.apply(content.get(size - 1)), order), totalHits);
+    }
+
+    private static String encodeCursor(Long id, Sort.Order order) {
+        String cursor = String.join(CURSOR_SEPARATOR, order.getDirection().name(), String.valueOf(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the id of the cursor.
+     */
+    private static long decodeCursor(String after, Sort.Order order) {
+        String[] cursor;
+        long id;
+        try {
+            cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split(CURSOR_SEPARATOR, 2);
+            id = Long.parseLong(cursor[1]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (!cursor[0].equals(order.getDirection().name())) {
+            throw new IllegalArgumentException("The cursor does not match the requested sort");
+        }
+        return id;
+    }
+}
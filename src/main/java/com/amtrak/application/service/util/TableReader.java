@@ -0,0 +1,19 @@
+package com.amtrak.application.service.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads a table one row at a time, without loading the whole table in memory.
+ */
+public interface TableReader extends Closeable {
+
+    /**
+     * Read the next row.
+     *
+     * @return the cells of the row, empty cells being empty strings, or {@code null} when there are no more rows.
+     * @throws IOException if the table could not be read.
+     */
+    List<String> readRow() throws IOException;
+}
@@ -0,0 +1,198 @@
+package com.amtrak.application.service.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the first sheet of an Office Open XML workbook ({@code .xlsx}).
+ * <p>
+ * The sheet is parsed as a stream, only the shared strings of the workbook are held in memory.
+ * Cells are read as they are stored: numbers are not formatted and formulas are not evaluated.
+ */
+public class XlsxTableReader implements TableReader {
+
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+
+    private static final String FIRST_SHEET = "xl/worksheets/sheet1.xml";
+
+    private static final String SHEETS = "xl/worksheets/sheet";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final ZipFile workbook;
+
+    private final List<String> sharedStrings;
+
+    private final InputStream sheetStream;
+
+    private final XMLStreamReader sheet;
+
+    public XlsxTableReader(File file) throws IOException {
+        this.workbook = new ZipFile(file);
+        try {
+            this.sharedStrings = readSharedStrings(workbook);
+            ZipEntry sheetEntry = workbook.getEntry(FIRST_SHEET);
+            if (sheetEntry == null) {
+                sheetEntry = workbook.stream()
+                    .filter(entry -> entry.getName().startsWith(SHEETS) && entry.getName().endsWith(".xml"))
+                    .findFirst()
+                    .orElseThrow(() -> new IOException("The workbook has no sheet"));
+            }
+            this.sheetStream = workbook.getInputStream(sheetEntry);
+            this.sheet = XML_INPUT_FACTORY.createXMLStreamReader(sheetStream);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            workbook.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Invalid workbook", e);
+        }
+    }
+
+    @Override
+    public List<String> readRow() throws IOException {
+        try {
+            if (!moveTo("row")) {
+                return null;
+            }
+            List<String> row = new ArrayList<>();
+            while (sheet.hasNext()) {
+                int event = sheet.next();
+                if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    return row;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheet.getLocalName())) {
+                    String reference = sheet.getAttributeValue(null, "r");
+                    int column = reference == null ? row.size() : columnIndex(reference);
+                    String value = readCell(sheet.getAttributeValue(null, "t"));
+                    while (row.size() < column) {
+                        row.add("");
+                    }
+                    row.add(value);
+                }
+            }
+            throw new IOException("Unterminated row");
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid sheet", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            sheetStream.close();
+            workbook.close();
+        }
+    }
+
+    private boolean moveTo(String element) throws XMLStreamException {
+        while (sheet.hasNext()) {
+            if (sheet.next() == XMLStreamConstants.START_ELEMENT && element.equals(sheet.getLocalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the value of the current cell, up to its end.
+     */
+    private String readCell(String type) throws XMLStreamException, IOException {
+        StringBuilder value = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if ("v".equals(sheet.getLocalName()) || "t".equals(sheet.getLocalName())) {
+                    value.append(sheet.getElementText());
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        if ("s".equals(type)) {
+            try {
+                return sharedStrings.get(Integer.parseInt(value.toString().trim()));
+            } catch (RuntimeException e) {
+                throw new IOException("Invalid shared string " + value, e);
+            }
+        }
+        if ("b".equals(type)) {
+            return "1".equals(value.toString()) ? "true" : "false";
+        }
+        return value.toString();
+    }
+
+    /**
+     * @return the zero based index of the column of a cell reference, such as {@code 2} for {@code C7}.
+     */
+    private static int columnIndex(String reference) {
+        int index = 0;
+        for (int i = 0; i < reference.length() && Character.isLetter(reference.charAt(i)); i++) {
+            index = index * 26 + (Character.toUpperCase(reference.charAt(i)) - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    private static List<String> readSharedStrings(ZipFile workbook) throws IOException, XMLStreamException {
+        ZipEntry entry = workbook.getEntry(SHARED_STRINGS);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<String> strings = new ArrayList<>();
+        try (InputStream input = workbook.getInputStream(entry)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            StringBuilder string = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("si".equals(reader.getLocalName())) {
+                        string = new StringBuilder();
+                    } else if ("t".equals(reader.getLocalName()) && string != null) {
+                        string.append(reader.getElementText());
+                    } else if ("rPh".equals(reader.getLocalName())) {
+                        skip(reader);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "si".equals(reader.getLocalName()) && string != null) {
+                    strings.add(string.toString());
+                    string = null;
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    /**
+     * Skips the current element, up to its end.
+     */
+    private static void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
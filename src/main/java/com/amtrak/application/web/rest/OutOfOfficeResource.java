@@ -1,8 +1,14 @@
 package com.amtrak.application.web.rest;
 
 import com.amtrak.application.domain.OutOfOffice;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.service.EntityVersionRegistry;
 import com.amtrak.application.service.OutOfOfficeService;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
 import com.amtrak.application.web.rest.errors.BadRequestAlertException;
+import com.amtrak.application.web.rest.util.KeysetPaginationUtil;
+import com.amtrak.application.web.rest.util.ConditionalGetUtil;
 import com.amtrak.application.service.dto.OutOfOfficeCriteria;
 import com.amtrak.application.service.OutOfOfficeQueryService;
 
@@ -11,8 +17,13 @@ import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
@@ -20,9 +31,6 @@ import java.net.URISyntaxException;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * REST controller for managing {@link com.amtrak.application.domain.OutOfOffice}.
@@ -42,9 +50,13 @@ public class OutOfOfficeResource {
 
     private final OutOfOfficeQueryService outOfOfficeQueryService;
 
-    public OutOfOfficeResource(OutOfOfficeService outOfOfficeService, OutOfOfficeQueryService outOfOfficeQueryService) {
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    public OutOfOfficeResource(OutOfOfficeService outOfOfficeService, OutOfOfficeQueryService outOfOfficeQueryService,
+                       EntityVersionRegistry entityVersionRegistry) {
         this.outOfOfficeService = outOfOfficeService;
         this.outOfOfficeQueryService = outOfOfficeQueryService;
+        this.entityVersionRegistry = entityVersionRegistry;
     }
 
     /**
@@ -91,13 +103,15 @@ public class OutOfOfficeResource {
      * {@code GET  /out-of-offices} : get all the outOfOffices.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of outOfOffices in body.
+     * @param request the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} header holds the current version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of outOfOffices in body,
+     * or with status {@code 304 (Not Modified)} if no outOfOffice changed since.
      */
     @GetMapping("/out-of-offices")
-    public ResponseEntity<List<OutOfOffice>> getAllOutOfOffices(OutOfOfficeCriteria criteria) {
+    public ResponseEntity<List<OutOfOffice>> getAllOutOfOffices(OutOfOfficeCriteria criteria, WebRequest request) {
         log.debug("REST request to get OutOfOffices by criteria: {}", criteria);
-        List<OutOfOffice> entityList = outOfOfficeQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+        String version = entityVersionRegistry.getVersion(OutOfOffice.class, User.class);
+        return ConditionalGetUtil.conditionalGet(request, version, () -> outOfOfficeQueryService.findByCriteria(criteria));
     }
 
     /**
@@ -139,16 +153,28 @@ public class OutOfOfficeResource {
     }
 
     /**
-     * {@code SEARCH  /_search/out-of-offices?query=:query} : search for the outOfOffice corresponding
-     * to the query.
+     * {@code SEARCH  /_search/out-of-offices?query=:query} : search for the outOfOffices corresponding
+     * to the query, one keyset page at a time.
      *
      * @param query the query of the outOfOffice search.
-     * @return the result of the search.
+     * @param after the cursor of the previous page, as given by its {@code Link} header.
+     * @param pageable the size and the sort of the page, by id only, capped to {@value SearchPageUtil#MAX_PAGE_SIZE} hits.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of outOfOffices in body, the number of hits
+     * being in the {@code X-Total-Count} header of the first page, or with status {@code 400 (Bad Request)} if the sort
+     * or the cursor is not valid.
      */
     @GetMapping("/_search/out-of-offices")
-    public List<OutOfOffice> searchOutOfOffices(@RequestParam String query) {
-        log.debug("REST request to search OutOfOffices for query {}", query);
-        return outOfOfficeService.search(query);
+    public ResponseEntity<List<OutOfOffice>> searchOutOfOffices(@RequestParam String query, @RequestParam(required = false) String after,
+                                                @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        log.debug("REST request to search a page of OutOfOffices for query {}, after: {}", query, after);
+        SearchPage<OutOfOffice> page;
+        try {
+            page = outOfOfficeService.search(query, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcursor");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
 }
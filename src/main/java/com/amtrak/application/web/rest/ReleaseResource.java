@@ -2,28 +2,48 @@ package com.amtrak.application.web.rest;
 
 import com.amtrak.application.domain.Release;
 import com.amtrak.application.exceptions.ReleaseException;
+import com.amtrak.application.service.EntityVersionRegistry;
+import com.amtrak.application.service.ReleaseDiffService;
+import com.amtrak.application.service.ReleaseNotesService;
+import com.amtrak.application.service.ReleaseStatsService;
 import com.amtrak.application.service.ReleaseService;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
+import com.amtrak.application.service.SprQueryService;
 import com.amtrak.application.web.rest.errors.BadRequestAlertException;
+import com.amtrak.application.web.rest.util.ConditionalGetUtil;
+import com.amtrak.application.web.rest.util.KeysetPaginationUtil;
 import com.amtrak.application.service.dto.ReleaseCriteria;
+import com.amtrak.application.service.dto.KeysetPage;
+import com.amtrak.application.service.dto.ReleaseDiffDTO;
+import com.amtrak.application.service.dto.ReleaseStatsDTO;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
+import com.amtrak.application.service.dto.SprCriteria;
+import com.amtrak.application.service.dto.SprSummaryDTO;
 import com.amtrak.application.service.ReleaseQueryService;
 
+import io.github.jhipster.service.filter.LongFilter;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * REST controller for managing {@link com.amtrak.application.domain.Release}.
@@ -36,6 +56,8 @@ public class ReleaseResource {
 
     private static final String ENTITY_NAME = "release";
 
+    private static final String GZIP = "gzip";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -43,9 +65,27 @@ public class ReleaseResource {
 
     private final ReleaseQueryService releaseQueryService;
 
-    public ReleaseResource(ReleaseService releaseService, ReleaseQueryService releaseQueryService) {
+    private final ReleaseDiffService releaseDiffService;
+
+    private final ReleaseNotesService releaseNotesService;
+
+    private final ReleaseStatsService releaseStatsService;
+
+    private final SprQueryService sprQueryService;
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    public ReleaseResource(ReleaseService releaseService, ReleaseQueryService releaseQueryService,
+                           ReleaseDiffService releaseDiffService, ReleaseNotesService releaseNotesService,
+                           ReleaseStatsService releaseStatsService, SprQueryService sprQueryService,
+                           EntityVersionRegistry entityVersionRegistry) {
         this.releaseService = releaseService;
         this.releaseQueryService = releaseQueryService;
+        this.releaseNotesService = releaseNotesService;
+        this.releaseStatsService = releaseStatsService;
+        this.sprQueryService = sprQueryService;
+        this.releaseDiffService = releaseDiffService;
+        this.entityVersionRegistry = entityVersionRegistry;
     }
 
     /**
@@ -96,39 +136,62 @@ public class ReleaseResource {
     }
 
     /**
-     * {@code GET  /releases} : get all the releases.
+     * {@code GET  /releases} : get the summaries of all the releases, one keyset page at a time.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of releases in body.
+     * @param after the cursor of the previous page, as given by its {@code Link} header.
+     * @param pageable the size and the sort of the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of release summaries in body,
+     * or with status {@code 400 (Bad Request)} if the sort or the cursor is not valid.
      */
     @GetMapping("/releases")
-    public ResponseEntity<List<Release>> getAllReleases(ReleaseCriteria criteria) {
-        log.debug("REST request to get Releases by criteria: {}", criteria);
-        List<Release> entityList = releaseQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+    public ResponseEntity<List<ReleaseSummaryDTO>> getAllReleases(ReleaseCriteria criteria, @RequestParam(required = false) String after,
+                                                        @PageableDefault(size = 100, sort = "id") Pageable pageable) {
+        log.debug("REST request to get Releases by criteria: {}, after: {}", criteria, after);
+        KeysetPage<ReleaseSummaryDTO> page;
+        try {
+            page = releaseQueryService.findSummariesByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcursor");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
     /**
      * {@code GET  /releases/current} : get all the current releases.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of current releases in body.
+     * @param request the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} header holds the current version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of current release summaries in body,
+     * or with status {@code 304 (Not Modified)} if no release changed since.
      */
     @GetMapping("/releases/current")
-    public ResponseEntity<List<Release>> getCurrentReleases() {
+    public ResponseEntity<List<ReleaseSummaryDTO>> getCurrentReleases(WebRequest request) {
         log.debug("REST request to get Current Releases");
-        List<Release> entityList = releaseService.getCurrentReleases();
-        return ResponseEntity.ok().body(entityList);
+        String version = entityVersionRegistry.getVersion(Release.class);
+        return ConditionalGetUtil.conditionalGet(request, version, releaseService::getCurrentReleases);
+    }
+
+    /**
+     * {@code GET  /releases/stats} : get the release cadence of every territory.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the statistics in body.
+     */
+    @GetMapping("/releases/stats")
+    public ResponseEntity<ReleaseStatsDTO> getReleaseStats() {
+        log.debug("REST request to get Release statistics");
+        return ResponseEntity.ok().body(releaseStatsService.getStats());
     }
 
     /**
      * {@code GET  /releases/future} : get all the future releases.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of future releases in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of future release summaries in body.
      */
     @GetMapping("/releases/future")
-    public ResponseEntity<List<Release>> getFutureReleases() {
+    public ResponseEntity<List<ReleaseSummaryDTO>> getFutureReleases() {
         log.debug("REST request to get Future Releases");
-        List<Release> entityList = releaseService.findFutureReleases();
+        List<ReleaseSummaryDTO> entityList = releaseService.findFutureReleases();
         return ResponseEntity.ok().body(entityList);
     }
 
@@ -148,7 +211,7 @@ public class ReleaseResource {
      * {@code GET  /releases/:id} : get the "id" release.
      *
      * @param id the id of the release to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the release, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the release and the number of its sprs, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/releases/{id}")
     public ResponseEntity<Release> getRelease(@PathVariable Long id) {
@@ -157,6 +220,108 @@ public class ReleaseResource {
         return ResponseUtil.wrapOrNotFound(release);
     }
 
+    /**
+     * {@code GET  /releases/:id/sprs} : get the summaries of the sprs of the "id" release, one keyset page at a time.
+     *
+     * @param id the id of the release.
+     * @param criteria the criteria which the requested sprs should match.
+     * @param after the cursor of the previous page, as given by its {@code Link} header.
+     * @param pageable the size and the sort of the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of spr summaries in body,
+     * or with status {@code 400 (Bad Request)} if the sort or the cursor is not valid,
+     * or with status {@code 404 (Not Found)} if the release does not exist.
+     */
+    @GetMapping("/releases/{id}/sprs")
+    public ResponseEntity<List<SprSummaryDTO>> getReleaseSprs(@PathVariable Long id, SprCriteria criteria,
+                                                              @RequestParam(required = false) String after,
+                                                              @PageableDefault(size = 100, sort = "id") Pageable pageable) {
+        log.debug("REST request to get Sprs of Release : {} by criteria: {}, after: {}", id, criteria, after);
+        if (!releaseService.exists(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        LongFilter releaseId = new LongFilter();
+        releaseId.setEquals(id);
+        criteria.setReleaseId(releaseId);
+        KeysetPage<SprSummaryDTO> page;
+        try {
+            page = sprQueryService.findSummariesByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "spr", "invalidcursor");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /releases/:id/notes?format=:format} : get the notes of the "id" release.
+     * <p>
+     * The notes are sent gzipped to the clients accepting it, with the hash of their content as {@code ETag}.
+     *
+     * @param id the id of the release.
+     * @param format the format of the notes, {@code html} or {@code md}.
+     * @param request the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} header holds the current notes.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the notes in body,
+     * or with status {@code 304 (Not Modified)} if the notes did not change since,
+     * or with status {@code 400 (Bad Request)} if the format is not supported,
+     * or with status {@code 404 (Not Found)} if the release does not exist.
+     */
+    @GetMapping("/releases/{id}/notes")
+    public ResponseEntity<byte[]> getReleaseNotes(@PathVariable Long id, @RequestParam(defaultValue = "html") String format,
+                                                  WebRequest request) {
+        log.debug("REST request to get the {} notes of Release : {}", format, id);
+        ReleaseNotesService.Format notesFormat = ReleaseNotesService.Format.fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported release notes format", ENTITY_NAME, "formatinvalid"));
+        Optional<ReleaseNotesService.ReleaseNotes> notes = releaseNotesService.getNotes(id, notesFormat);
+        if (!notes.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType(MediaType.parseMediaType(notesFormat.getContentType()), StandardCharsets.UTF_8));
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        // Both encodings are different representations, so they must not share the same strong ETag
+        String version = gzip ? notes.get().getHash() + "-" + GZIP : notes.get().getHash();
+        return ConditionalGetUtil.conditionalGet(request, version, headers,
+            () -> gzip ? notes.get().getGzipped() : notes.get().getContent());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code GET  /releases/:from/diff/:to} : compare the SPRs delivered by the "from" and "to" builds of a territory.
+     *
+     * @param from the id of the release to compare from.
+     * @param to the id of the release to compare to.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the SPRs added and removed from "from" to "to",
+     * or with status {@code 400 (Bad Request)} if the releases are not of the same territory,
+     * or with status {@code 404 (Not Found)} if one of the releases does not exist.
+     */
+    @GetMapping("/releases/{from}/diff/{to}")
+    public ResponseEntity<ReleaseDiffDTO> getReleaseDiff(@PathVariable Long from, @PathVariable Long to) {
+        log.debug("REST request to diff Release : {} to Release : {}", from, to);
+        Optional<ReleaseDiffDTO> diff;
+        try {
+            diff = releaseDiffService.diff(from, to);
+        } catch (ReleaseException.TerritoryMismatch territoryMismatch) {
+            throw new BadRequestAlertException(territoryMismatch.getMessage(), ENTITY_NAME, "territorymismatch");
+        }
+        return ResponseUtil.wrapOrNotFound(diff);
+    }
+
     /**
      * {@code DELETE  /releases/:id} : delete the "id" release.
      *
@@ -171,16 +336,28 @@ public class ReleaseResource {
     }
 
     /**
-     * {@code SEARCH  /_search/releases?query=:query} : search for the release corresponding
-     * to the query.
+     * {@code SEARCH  /_search/releases?query=:query} : search for the releases corresponding
+     * to the query, one keyset page at a time.
      *
      * @param query the query of the release search.
-     * @return the result of the search.
+     * @param after the cursor of the previous page, as given by its {@code Link} header.
+     * @param pageable the size and the sort of the page, by id only, capped to {@value SearchPageUtil#MAX_PAGE_SIZE} hits.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of releases in body, the number of hits
+     * being in the {@code X-Total-Count} header of the first page, or with status {@code 400 (Bad Request)} if the sort
+     * or the cursor is not valid.
      */
     @GetMapping("/_search/releases")
-    public List<Release> searchReleases(@RequestParam String query) {
-        log.debug("REST request to search Releases for query {}", query);
-        return releaseService.search(query);
+    public ResponseEntity<List<Release>> searchReleases(@RequestParam String query, @RequestParam(required = false) String after,
+                                                @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        log.debug("REST request to search a page of Releases for query {}, after: {}", query, after);
+        SearchPage<Release> page;
+        try {
+            page = releaseService.search(query, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcursor");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
 }
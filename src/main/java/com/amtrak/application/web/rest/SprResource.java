@@ -1,11 +1,26 @@
 package com.amtrak.application.web.rest;
 
+import com.amtrak.application.domain.Release;
 import com.amtrak.application.domain.Spr;
 import com.amtrak.application.domain.User;
+import com.amtrak.application.domain.enumeration.Priority;
 import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.service.EntityVersionRegistry;
+import com.amtrak.application.service.SprBatchService;
+import com.amtrak.application.service.SprExportService;
+import com.amtrak.application.service.SprImportService;
 import com.amtrak.application.service.SprService;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
 import com.amtrak.application.web.rest.errors.BadRequestAlertException;
+import com.amtrak.application.web.rest.util.ConditionalGetUtil;
+import com.amtrak.application.web.rest.util.KeysetPaginationUtil;
 import com.amtrak.application.service.dto.SprCriteria;
+import com.amtrak.application.service.dto.KeysetPage;
+import com.amtrak.application.service.dto.SprBatchResultDTO;
+import com.amtrak.application.service.dto.SprImportJobDTO;
+import com.amtrak.application.service.dto.SprSummaryDTO;
+import com.amtrak.application.service.dto.UserOpenSprCountDTO;
 import com.amtrak.application.service.SprQueryService;
 
 import io.github.jhipster.web.util.HeaderUtil;
@@ -13,19 +28,26 @@ import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * REST controller for managing {@link com.amtrak.application.domain.Spr}.
@@ -45,9 +67,23 @@ public class SprResource {
 
     private final SprQueryService sprQueryService;
 
-    public SprResource(SprService sprService, SprQueryService sprQueryService) {
+    private final SprExportService sprExportService;
+
+    private final SprBatchService sprBatchService;
+
+    private final SprImportService sprImportService;
+
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    public SprResource(SprService sprService, SprQueryService sprQueryService, SprExportService sprExportService,
+                       SprBatchService sprBatchService, SprImportService sprImportService,
+                       EntityVersionRegistry entityVersionRegistry) {
         this.sprService = sprService;
         this.sprQueryService = sprQueryService;
+        this.sprExportService = sprExportService;
+        this.sprBatchService = sprBatchService;
+        this.sprImportService = sprImportService;
+        this.entityVersionRegistry = entityVersionRegistry;
     }
 
     /**
@@ -91,16 +127,113 @@ public class SprResource {
     }
 
     /**
-     * {@code GET  /sprs} : get all the sprs.
+     * {@code POST  /sprs/batch} : Create new sprs.
+     *
+     * @param sprs the sprs to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of every spr, in the same order,
+     * or with status {@code 400 (Bad Request)} if there are too many sprs.
+     */
+    @PostMapping("/sprs/batch")
+    public ResponseEntity<List<SprBatchResultDTO>> createSprs(@RequestBody List<Spr> sprs) {
+        log.debug("REST request to save {} Sprs", sprs.size());
+        checkBatchSize(sprs);
+        return ResponseEntity.ok(sprBatchService.create(sprs));
+    }
+
+    /**
+     * {@code PUT  /sprs/batch} : Updates existing sprs.
+     *
+     * @param sprs the sprs to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of every spr, in the same order,
+     * or with status {@code 400 (Bad Request)} if there are too many sprs.
+     */
+    @PutMapping("/sprs/batch")
+    public ResponseEntity<List<SprBatchResultDTO>> updateSprs(@RequestBody List<Spr> sprs) {
+        log.debug("REST request to update {} Sprs", sprs.size());
+        checkBatchSize(sprs);
+        return ResponseEntity.ok(sprBatchService.update(sprs));
+    }
+
+    /**
+     * {@code POST  /sprs/import} : Import sprs from a CSV or XLSX file, in the background.
+     *
+     * @param file the file to import, with the columns of the CSV export.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the import job,
+     * or with status {@code 400 (Bad Request)} if the file is neither a CSV nor an XLSX file.
+     * @throws IOException if the file could not be read.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/sprs/import")
+    public ResponseEntity<SprImportJobDTO> importSprs(@RequestParam("file") MultipartFile file) throws IOException, URISyntaxException {
+        log.debug("REST request to import Sprs from {}", file.getOriginalFilename());
+        SprImportService.Format format = SprImportService.Format.fromFileName(file.getOriginalFilename())
+            .orElseThrow(() -> new BadRequestAlertException("Only csv and xlsx files can be imported", ENTITY_NAME, "formatinvalid"));
+        SprImportJobDTO job;
+        try (InputStream content = file.getInputStream()) {
+            job = sprImportService.start(file.getOriginalFilename(), format, content);
+        }
+        return ResponseEntity.accepted().location(new URI("/api/sprs/import/" + job.getId())).body(job);
+    }
+
+    /**
+     * {@code GET  /sprs/import/:id} : get the progress of an import.
+     *
+     * @param id the id of the import job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import job, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/sprs/import/{id}")
+    public ResponseEntity<SprImportJobDTO> getSprImport(@PathVariable String id) {
+        log.debug("REST request to get Spr import : {}", id);
+        return ResponseUtil.wrapOrNotFound(sprImportService.findJob(id));
+    }
+
+    private static void checkBatchSize(List<Spr> sprs) {
+        if (sprs.size() > SprBatchService.MAX_BATCH_SIZE) {
+            throw new BadRequestAlertException("A batch cannot hold more than " + SprBatchService.MAX_BATCH_SIZE + " sprs",
+                ENTITY_NAME, "batchtoolarge");
+        }
+    }
+
+    /**
+     * {@code GET  /sprs} : get the summaries of all the sprs, one keyset page at a time.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sprs in body.
+     * @param after the cursor of the previous page, as given by its {@code Link} header.
+     * @param pageable the size and the sort of the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of spr summaries in body,
+     * or with status {@code 400 (Bad Request)} if the sort or the cursor is not valid.
      */
     @GetMapping("/sprs")
-    public ResponseEntity<List<Spr>> getAllSprs(SprCriteria criteria) {
-        log.debug("REST request to get Sprs by criteria: {}", criteria);
-        List<Spr> entityList = sprQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+    public ResponseEntity<List<SprSummaryDTO>> getAllSprs(SprCriteria criteria, @RequestParam(required = false) String after,
+                                                @PageableDefault(size = 100, sort = "id") Pageable pageable) {
+        log.debug("REST request to get Sprs by criteria: {}, after: {}", criteria, after);
+        KeysetPage<SprSummaryDTO> page;
+        try {
+            page = sprQueryService.findSummariesByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcursor");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /sprs/export?format=:format} : export all the sprs, streamed one line per spr.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param format the format of the export, {@code ndjson} or {@code csv}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the export in body,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/sprs/export")
+    public ResponseEntity<StreamingResponseBody> exportSprs(SprCriteria criteria, @RequestParam(defaultValue = "ndjson") String format) {
+        log.debug("REST request to export Sprs as {} by criteria: {}", format, criteria);
+        SprExportService.Format exportFormat = SprExportService.Format.fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid"));
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sprs." + exportFormat.getExtension() + "\"")
+            .body(outputStream -> sprExportService.export(criteria, exportFormat, outputStream));
     }
 
     @GetMapping("/sprs/user=:user")
@@ -135,12 +268,52 @@ public class SprResource {
         return ResponseEntity.ok().body(entityList);
     }
 
+    /**
+     * {@code GET  /sprs/open} : get all the open sprs.
+     *
+     * @param request the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} header holds the current version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of open sprs in body,
+     * or with status {@code 304 (Not Modified)} if no spr, release or user changed since.
+     */
     @GetMapping("/sprs/open")
-    public ResponseEntity<List<Spr>> getAllOpenSprs()
+    public ResponseEntity<List<Spr>> getAllOpenSprs(WebRequest request)
     {
         log.debug("REST request to get open SPR count");
-        List<Spr> entityList = sprService.getAllOpenSprs();
-        return ResponseEntity.ok().body(entityList);
+        String version = entityVersionRegistry.getVersion(Spr.class, Release.class, User.class);
+        return ConditionalGetUtil.conditionalGet(request, version, sprService::getAllOpenSprs);
+    }
+
+    /**
+     * {@code GET  /sprs/open/counts} : get the number of open sprs per user.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the open spr count of every user having open sprs in body.
+     */
+    @GetMapping("/sprs/open/counts")
+    public ResponseEntity<List<UserOpenSprCountDTO>> getAllUserOpenSprCounts() {
+        log.debug("REST request to get open SPR count for all users");
+        return ResponseEntity.ok().body(sprService.getAllUserOpenSprCount());
+    }
+
+    /**
+     * {@code GET  /sprs/open/counts/territories} : get the number of open sprs per territory.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the open spr count of every territory having open sprs in body.
+     */
+    @GetMapping("/sprs/open/counts/territories")
+    public ResponseEntity<Map<Territory, Long>> getAllTerritoryOpenSprCounts() {
+        log.debug("REST request to get open SPR count for all territories");
+        return ResponseEntity.ok().body(sprService.getAllTerritoryOpenSprCount());
+    }
+
+    /**
+     * {@code GET  /sprs/open/counts/priorities} : get the number of open sprs per priority.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the open spr count of every priority having open sprs in body.
+     */
+    @GetMapping("/sprs/open/counts/priorities")
+    public ResponseEntity<Map<Priority, Long>> getAllPriorityOpenSprCounts() {
+        log.debug("REST request to get open SPR count for all priorities");
+        return ResponseEntity.ok().body(sprService.getAllPriorityOpenSprCount());
     }
 
     /**
@@ -182,16 +355,28 @@ public class SprResource {
     }
 
     /**
-     * {@code SEARCH  /_search/sprs?query=:query} : search for the spr corresponding
-     * to the query.
+     * {@code SEARCH  /_search/sprs?query=:query} : search for the sprs corresponding
+     * to the query, one keyset page at a time.
      *
      * @param query the query of the spr search.
-     * @return the result of the search.
+     * @param after the cursor of the previous page, as given by its {@code Link} header.
+     * @param pageable the size and the sort of the page, by id only, capped to {@value SearchPageUtil#MAX_PAGE_SIZE} hits.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of sprs in body, the number of hits
+     * being in the {@code X-Total-Count} header of the first page, or with status {@code 400 (Bad Request)} if the sort
+     * or the cursor is not valid.
      */
     @GetMapping("/_search/sprs")
-    public List<Spr> searchSprs(@RequestParam String query) {
-        log.debug("REST request to search Sprs for query {}", query);
-        return sprService.search(query);
+    public ResponseEntity<List<Spr>> searchSprs(@RequestParam String query, @RequestParam(required = false) String after,
+                                                @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        log.debug("REST request to search a page of Sprs for query {}, after: {}", query, after);
+        SearchPage<Spr> page;
+        try {
+            page = sprService.search(query, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcursor");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
 }
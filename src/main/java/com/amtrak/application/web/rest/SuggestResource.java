@@ -0,0 +1,43 @@
+package com.amtrak.application.web.rest;
+
+import com.amtrak.application.service.SuggestionRegistry;
+import com.amtrak.application.service.dto.SuggestionDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller suggesting {@link com.amtrak.application.domain.Spr}, {@link com.amtrak.application.domain.User}
+ * and {@link com.amtrak.application.domain.Release} entities as their identifier is typed.
+ */
+@RestController
+@RequestMapping("/api")
+public class SuggestResource {
+
+    private final Logger log = LoggerFactory.getLogger(SuggestResource.class);
+
+    private final SuggestionRegistry suggestionRegistry;
+
+    public SuggestResource(SuggestionRegistry suggestionRegistry) {
+        this.suggestionRegistry = suggestionRegistry;
+    }
+
+    /**
+     * {@code GET  /suggest?type=:type&prefix=:prefix} : suggest the entities whose identifier starts with a prefix:
+     * the full number of a spr, the login of a user, or the build of a release.
+     *
+     * @param type the type of the entities.
+     * @param prefix the typed prefix, ignoring case.
+     * @param size the maximum number of suggestions, at most {@link SuggestionRegistry#MAX_SUGGESTIONS}.
+     * @return the list of the ids and labels of the suggested entities.
+     */
+    @GetMapping("/suggest")
+    public List<SuggestionDTO> suggest(@RequestParam SuggestionRegistry.Type type, @RequestParam String prefix,
+                                       @RequestParam(defaultValue = "10") int size) {
+        log.debug("REST request to suggest {} for prefix : {}", type, prefix);
+        return suggestionRegistry.suggest(type, prefix, size);
+    }
+}
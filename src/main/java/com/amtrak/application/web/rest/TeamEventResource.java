@@ -1,8 +1,13 @@
 package com.amtrak.application.web.rest;
 
 import com.amtrak.application.domain.TeamEvent;
+import com.amtrak.application.service.EntityVersionRegistry;
 import com.amtrak.application.service.TeamEventService;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
 import com.amtrak.application.web.rest.errors.BadRequestAlertException;
+import com.amtrak.application.web.rest.util.KeysetPaginationUtil;
+import com.amtrak.application.web.rest.util.ConditionalGetUtil;
 import com.amtrak.application.service.dto.TeamEventCriteria;
 import com.amtrak.application.service.TeamEventQueryService;
 
@@ -11,8 +16,13 @@ import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
@@ -20,9 +30,6 @@ import java.net.URISyntaxException;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * REST controller for managing {@link com.amtrak.application.domain.TeamEvent}.
@@ -42,9 +49,13 @@ public class TeamEventResource {
 
     private final TeamEventQueryService teamEventQueryService;
 
-    public TeamEventResource(TeamEventService teamEventService, TeamEventQueryService teamEventQueryService) {
+    private final EntityVersionRegistry entityVersionRegistry;
+
+    public TeamEventResource(TeamEventService teamEventService, TeamEventQueryService teamEventQueryService,
+                       EntityVersionRegistry entityVersionRegistry) {
         this.teamEventService = teamEventService;
         this.teamEventQueryService = teamEventQueryService;
+        this.entityVersionRegistry = entityVersionRegistry;
     }
 
     /**
@@ -91,13 +102,15 @@ public class TeamEventResource {
      * {@code GET  /team-events} : get all the teamEvents.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of teamEvents in body.
+     * @param request the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} header holds the current version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of teamEvents in body,
+     * or with status {@code 304 (Not Modified)} if no teamEvent changed since.
      */
     @GetMapping("/team-events")
-    public ResponseEntity<List<TeamEvent>> getAllTeamEvents(TeamEventCriteria criteria) {
+    public ResponseEntity<List<TeamEvent>> getAllTeamEvents(TeamEventCriteria criteria, WebRequest request) {
         log.debug("REST request to get TeamEvents by criteria: {}", criteria);
-        List<TeamEvent> entityList = teamEventQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+        String version = entityVersionRegistry.getVersion(TeamEvent.class);
+        return ConditionalGetUtil.conditionalGet(request, version, () -> teamEventQueryService.findByCriteria(criteria));
     }
 
     /**
@@ -139,16 +152,28 @@ public class TeamEventResource {
     }
 
     /**
-     * {@code SEARCH  /_search/team-events?query=:query} : search for the teamEvent corresponding
-     * to the query.
+     * {@code SEARCH  /_search/team-events?query=:query} : search for the teamEvents corresponding
+     * to the query, one keyset page at a time.
      *
      * @param query the query of the teamEvent search.
-     * @return the result of the search.
+     * @param after the cursor of the previous page, as given by its {@code Link} header.
+     * @param pageable the size and the sort of the page, by id only, capped to {@value SearchPageUtil#MAX_PAGE_SIZE} hits.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of teamEvents in body, the number of hits
+     * being in the {@code X-Total-Count} header of the first page, or with status {@code 400 (Bad Request)} if the sort
+     * or the cursor is not valid.
      */
     @GetMapping("/_search/team-events")
-    public List<TeamEvent> searchTeamEvents(@RequestParam String query) {
-        log.debug("REST request to search TeamEvents for query {}", query);
-        return teamEventService.search(query);
+    public ResponseEntity<List<TeamEvent>> searchTeamEvents(@RequestParam String query, @RequestParam(required = false) String after,
+                                                @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        log.debug("REST request to search a page of TeamEvents for query {}, after: {}", query, after);
+        SearchPage<TeamEvent> page;
+        try {
+            page = teamEventService.search(query, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcursor");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
 }
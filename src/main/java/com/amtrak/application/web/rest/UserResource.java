@@ -7,10 +7,13 @@ import com.amtrak.application.repository.search.UserSearchRepository;
 import com.amtrak.application.security.AuthoritiesConstants;
 import com.amtrak.application.service.MailService;
 import com.amtrak.application.service.UserService;
+import com.amtrak.application.service.dto.SearchPage;
 import com.amtrak.application.service.dto.UserDTO;
+import com.amtrak.application.service.util.SearchPageUtil;
 import com.amtrak.application.web.rest.errors.BadRequestAlertException;
 import com.amtrak.application.web.rest.errors.EmailAlreadyUsedException;
 import com.amtrak.application.web.rest.errors.LoginAlreadyUsedException;
+import com.amtrak.application.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -21,22 +24,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static org.elasticsearch.index.query.QueryBuilders.*;
 
 /**
  * REST controller for managing users.
@@ -198,15 +199,26 @@ public class UserResource {
     }
 
     /**
-     * {@code SEARCH /_search/users/:query} : search for the User corresponding to the query.
+     * {@code SEARCH /_search/users/:query} : search for the Users corresponding to the query, one keyset page at a time.
      *
      * @param query the query to search.
-     * @return the result of the search.
+     * @param after the cursor of the previous page, as given by its {@code Link} header.
+     * @param pageable the size and the sort of the page, by id only, capped to {@value SearchPageUtil#MAX_PAGE_SIZE} hits.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of users in body, the number of hits
+     * being in the {@code X-Total-Count} header of the first page, or with status {@code 400 (Bad Request)} if the sort
+     * or the cursor is not valid.
      */
     @GetMapping("/_search/users/{query}")
-    public List<User> search(@PathVariable String query) {
-        return StreamSupport
-            .stream(userSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-            .collect(Collectors.toList());
+    public ResponseEntity<List<User>> search(@PathVariable String query, @RequestParam(required = false) String after,
+                                             @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        log.debug("REST request to search a page of Users for query {}, after: {}", query, after);
+        SearchPage<User> page;
+        try {
+            page = SearchPageUtil.search(userSearchRepository, User::getId, query, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "userManagement", "invalidcursor");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateSearchPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
@@ -0,0 +1,74 @@
+package com.amtrak.application.web.rest.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Utility class for answering conditional GET requests from a version of the requested data.
+ * <p>
+ * The version is sent as the {@code ETag} of the response, with {@code Cache-Control: no-cache} so that browsers
+ * keep the body and send the version back in {@code If-None-Match} instead of downloading it again.
+ */
+public final class ConditionalGetUtil {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ConditionalGetUtil() {
+    }
+
+    /**
+     * Build the response of a conditional GET.
+     *
+     * @param request the request, with its {@code If-None-Match} header.
+     * @param version the current version of the requested data.
+     * @param body loads the requested data, only called when the client does not hold the current version.
+     * @param <T> the type of the body.
+     * @return the {@link ResponseEntity} with status {@code 304 (Not Modified)} if the client holds the current version,
+     * or with status {@code 200 (OK)} and the data in body.
+     */
+    public static <T> ResponseEntity<T> conditionalGet(WebRequest request, String version, Supplier<T> body) {
+        return conditionalGet(request, version, new HttpHeaders(), body);
+    }
+
+    /**
+     * Build the response of a conditional GET, with additional headers.
+     *
+     * @param request the request, with its {@code If-None-Match} header.
+     * @param version the current version of the requested data.
+     * @param headers the headers to add to the response, whatever its status.
+     * @param body loads the requested data, only called when the client does not hold the current version.
+     * @param <T> the type of the body.
+     * @return the {@link ResponseEntity} with status {@code 304 (Not Modified)} if the client holds the current version,
+     * or with status {@code 200 (OK)} and the data in body.
+     */
+    public static <T> ResponseEntity<T> conditionalGet(WebRequest request, String version, HttpHeaders headers, Supplier<T> body) {
+        String etag = "\"" + version + "\"";
+        if (matches(request.getHeaderValues(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().headers(headers).eTag(etag).cacheControl(CacheControl.noCache()).body(body.get());
+    }
+
+    private static boolean matches(String[] ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith(WEAK_PREFIX)) {
+                    tag = tag.substring(WEAK_PREFIX.length());
+                }
+                if (tag.equals(etag) || tag.equals("*")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
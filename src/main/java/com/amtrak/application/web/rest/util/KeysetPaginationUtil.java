@@ -0,0 +1,58 @@
+package com.amtrak.application.web.rest.util;
+
+import com.amtrak.application.service.dto.KeysetPage;
+import com.amtrak.application.service.dto.SearchPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * Like the pagination headers of JHipster, the next page is advertised in the {@code Link} header, following the
+ * <a href="https://developer.github.com/v3/#pagination">GitHub API</a> format. There is no total count,
+ * as counting is exactly what keyset pagination avoids, except for the first page of search results whose hits
+ * Elasticsearch counts anyway.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private KeysetPaginationUtil() {
+    }
+
+    /**
+     * Generate pagination headers for a keyset page.
+     *
+     * @param uriBuilder the URI of the current page, with its query parameters.
+     * @param page the page.
+     * @param <T> the type of the entities.
+     * @return the http headers.
+     */
+    public static <T> HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, KeysetPage<T> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            String next = uriBuilder.replaceQueryParam("after", page.getNextCursor()).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return headers;
+    }
+
+    /**
+     * Generate pagination headers for a page of search results, with the number of hits on the first page.
+     *
+     * @param uriBuilder the URI of the current page, with its query parameters.
+     * @param page the page.
+     * @param <T> the type of the entities.
+     * @return the http headers.
+     */
+    public static <T> HttpHeaders generateSearchPaginationHttpHeaders(UriComponentsBuilder uriBuilder, SearchPage<T> page) {
+        HttpHeaders headers = generateKeysetPaginationHttpHeaders(uriBuilder, page);
+        if (page.getTotalHits() != null) {
+            headers.add(TOTAL_COUNT_HEADER, Long.toString(page.getTotalHits()));
+        }
+        return headers;
+    }
+}
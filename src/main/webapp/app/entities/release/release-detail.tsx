@@ -78,6 +78,10 @@ export class ReleaseDetail extends React.Component<IReleaseDetailProps> {
               <span id="current">Current</span>
             </dt>
             <dd>{releaseEntity.current ? 'true' : 'false'}</dd>
+            <dt>
+              <span id="sprCount">SPRs</span>
+            </dt>
+            <dd>{releaseEntity.sprCount}</dd>
           </dl>
           <Button tag={Link} to="/entity/release" replace color="info">
             <FontAwesomeIcon icon="arrow-left" /> <span className="d-none d-md-inline">Back</span>
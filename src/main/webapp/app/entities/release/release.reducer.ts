@@ -2,6 +2,7 @@ import axios from 'axios';
 import { ICrudSearchAction, ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getAllPages } from 'app/shared/util/keyset-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IRelease, defaultValue } from 'app/shared/model/release.model';
@@ -162,7 +163,7 @@ export const getSearchEntities: ICrudSearchAction<IRelease> = (query, page, size
 
 export const getEntities: ICrudGetAllAction<IRelease> = (page, size, sort) => ({
   type: ACTION_TYPES.FETCH_RELEASE_LIST,
-  payload: axios.get<IRelease>(`${apiUrl}?cacheBuster=${new Date().getTime()}`)
+  payload: getAllPages<IRelease>(`${apiUrl}?cacheBuster=${new Date().getTime()}`)
 });
 
 export const getEntity: ICrudGetAction<IRelease> = id => {
@@ -84,8 +84,6 @@ export class Release extends React.Component<IReleaseProps, IReleaseState> {
                 <th>Ws Version</th>
                 <th>Tma Version</th>
                 <th>Port</th>
-                <th>New Features</th>
-                <th>Updated Features</th>
                 <th>Current</th>
                 <th />
               </tr>
@@ -109,8 +107,6 @@ export class Release extends React.Component<IReleaseProps, IReleaseState> {
                   <td>{release.wsVersion}</td>
                   <td>{release.tmaVersion}</td>
                   <td>{release.port}</td>
-                  <td>{release.newFeatures}</td>
-                  <td>{release.updatedFeatures}</td>
                   <td>{release.current ? 'true' : 'false'}</td>
                   <td className="text-right">
                     <div className="btn-group flex-btn-group-container">
@@ -2,6 +2,7 @@ import axios from 'axios';
 import { ICrudSearchAction, ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getAllPages } from 'app/shared/util/keyset-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { ISpr, defaultValue } from 'app/shared/model/spr.model';
@@ -144,7 +145,7 @@ export const getSearchEntities: ICrudSearchAction<ISpr> = (query, page, size, so
 
 export const getEntities: ICrudGetAllAction<ISpr> = (page, size, sort) => ({
   type: ACTION_TYPES.FETCH_SPR_LIST,
-  payload: axios.get<ISpr>(`${apiUrl}?cacheBuster=${new Date().getTime()}`)
+  payload: getAllPages<ISpr>(`${apiUrl}?cacheBuster=${new Date().getTime()}`)
 });
 
 export const getAllOpenSprs: ICrudGetAllAction<ISpr> = () => ({
@@ -80,7 +80,6 @@ export class Spr extends React.Component<ISprProps, ISprState> {
                 <th>Territory</th>
                 <th>Number</th>
                 <th>Full Number</th>
-                <th>Description</th>
                 <th>Priority</th>
                 <th>Resolution</th>
                 <th>Jira Link</th>
@@ -101,7 +100,6 @@ export class Spr extends React.Component<ISprProps, ISprState> {
                   <td>{spr.territory}</td>
                   <td>{spr.number}</td>
                   <td>{spr.fullNumber}</td>
-                  <td>{spr.description}</td>
                   <td>{spr.priority}</td>
                   <td>{spr.resolution}</td>
                   <td>{spr.jiraLink}</td>
@@ -1,5 +1,4 @@
 import { Moment } from 'moment';
-import { ISpr } from 'app/shared/model/spr.model';
 
 export const enum Territory {
   CETC_WEST = 'CETC WEST',
@@ -25,7 +24,7 @@ export interface IRelease {
   newFeatures?: any;
   updatedFeatures?: any;
   current?: boolean;
-  sprs?: ISpr[];
+  sprCount?: number;
 }
 
 export const defaultValue: Readonly<IRelease> = {
@@ -0,0 +1,25 @@
+import axios, { AxiosResponse } from 'axios';
+
+import { KEYSET_PAGE_SIZE } from 'app/shared/util/pagination.constants';
+
+export const NEXT_CURSOR_HEADER = 'x-next-cursor';
+
+/**
+ * Reads a whole list served with keyset pagination, following the cursor of each page until the last one.
+ *
+ * @param url URL of the list, with its query parameters.
+ * @param size Number of entities read per request.
+ * @returns The last response, with the entities of all the pages as data.
+ */
+export const getAllPages = async <T>(url: string, size = KEYSET_PAGE_SIZE): Promise<AxiosResponse<T[]>> => {
+  const pageUrl = `${url}${url.includes('?') ? '&' : '?'}size=${size}`;
+  let response = await axios.get<T[]>(pageUrl);
+  const data = [...response.data];
+  let cursor = response.headers[NEXT_CURSOR_HEADER];
+  while (cursor) {
+    response = await axios.get<T[]>(`${pageUrl}&after=${encodeURIComponent(cursor)}`);
+    data.push(...response.data);
+    cursor = response.headers[NEXT_CURSOR_HEADER];
+  }
+  return { ...response, data };
+};
@@ -1 +1,2 @@
 export const ITEMS_PER_PAGE = 20;
+export const KEYSET_PAGE_SIZE = 1000;
@@ -0,0 +1,152 @@
+package com.amtrak.application.config;
+
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.repository.UserRepository;
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link CacheConfiguration} class.
+ */
+public class CacheConfigurationTest {
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        jHipsterProperties.getCache().getEhcache().setTimeToLiveSeconds(3600);
+        applicationProperties = new ApplicationProperties();
+
+        // A class loader of its own, so that the cache manager is not shared
+        CachingProvider provider = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider");
+        cacheManager = provider.getCacheManager(provider.getDefaultURI(),
+            new URLClassLoader(new URL[0], CacheConfigurationTest.class.getClassLoader()));
+    }
+
+    @AfterEach
+    public void teardown() {
+        cacheManager.close();
+    }
+
+    @Test
+    public void testConfiguredRegionGetsItsLimits() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapSize(DataSize.ofMegabytes(1));
+        region.setOffHeapSize(DataSize.ofMegabytes(2));
+        region.setTimeToLive(Duration.ofMinutes(5));
+        applicationProperties.getCache().getRegions().put(Release.class.getName(), region);
+
+        customize();
+
+        CacheRuntimeConfiguration<Object, Object> configuration = configuration(Release.class.getName());
+        ResourcePools pools = configuration.getResourcePools();
+        assertThat(pools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(DataSize.ofMegabytes(1).toBytes());
+        assertThat(pools.getPoolForResource(ResourceType.Core.HEAP).getUnit()).isEqualTo(MemoryUnit.B);
+        assertThat(pools.getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(DataSize.ofMegabytes(2).toBytes());
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(1L, "release")).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testRegionCanExpireWhenIdle() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setMaxEntries(500L);
+        region.setTimeToIdle(Duration.ofHours(6));
+        applicationProperties.getCache().getRegions().put(Release.class.getName(), region);
+
+        customize();
+
+        CacheRuntimeConfiguration<Object, Object> configuration = configuration(Release.class.getName());
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(500);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP)).isNull();
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess(1L, () -> "release")).isEqualTo(Duration.ofHours(6));
+    }
+
+    @Test
+    public void testUnconfiguredRegionGetsTheDefaultLimits() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setOffHeapSize(DataSize.ofMegabytes(2));
+        applicationProperties.getCache().getRegions().put(Release.class.getName(), region);
+
+        customize();
+
+        CacheRuntimeConfiguration<Object, Object> configuration = configuration(User.class.getName());
+        ResourcePools pools = configuration.getResourcePools();
+        assertThat(pools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(pools.getPoolForResource(ResourceType.Core.HEAP).getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(pools.getPoolForResource(ResourceType.Core.OFFHEAP)).isNull();
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(1L, "user")).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    public void testEveryRegionIsMonitored() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        customize(meterRegistry);
+
+        assertThat(cacheManager.getCacheNames())
+            .contains(UserRepository.USERS_BY_LOGIN_CACHE, UserRepository.USERS_BY_EMAIL_CACHE, User.class.getName())
+            .allSatisfy(cacheName -> assertThat(meterRegistry.find("cache.gets").tag("name", cacheName).meters()).isNotEmpty());
+    }
+
+    @Test
+    public void testHibernateStatisticsFollowTheProperty() {
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        new CacheConfiguration(jHipsterProperties, applicationProperties)
+            .hibernatePropertiesCustomizer(cacheManager)
+            .customize(hibernateProperties);
+        assertThat(hibernateProperties).containsEntry(AvailableSettings.GENERATE_STATISTICS, false);
+
+        applicationProperties.getCache().setHibernateStatistics(true);
+        new CacheConfiguration(jHipsterProperties, applicationProperties)
+            .hibernatePropertiesCustomizer(cacheManager)
+            .customize(hibernateProperties);
+        assertThat(hibernateProperties).containsEntry(AvailableSettings.GENERATE_STATISTICS, true);
+    }
+
+    private void customize() {
+        customize(new SimpleMeterRegistry());
+    }
+
+    private void customize(MeterRegistry meterRegistry) {
+        new CacheConfiguration(jHipsterProperties, applicationProperties)
+            .cacheManagerCustomizer(meterRegistry)
+            .customize(cacheManager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheRuntimeConfiguration<Object, Object> configuration(String cacheName) {
+        return (CacheRuntimeConfiguration<Object, Object>) cacheManager.getCache(cacheName)
+            .getConfiguration(Eh107Configuration.class)
+            .unwrap(CacheRuntimeConfiguration.class);
+    }
+}
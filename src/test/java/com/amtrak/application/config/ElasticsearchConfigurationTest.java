@@ -0,0 +1,104 @@
+package com.amtrak.application.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.core.Search;
+import org.apache.http.message.BasicHttpRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link ElasticsearchConfiguration} class.
+ */
+public class ElasticsearchConfigurationTest {
+
+    private HttpServer server;
+
+    private final Map<String, String> requestHeaders = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestHeaders().forEach((name, values) -> requestHeaders.put(name.toLowerCase(), values.get(0)));
+            byte[] body = "{\"hits\":{\"total\":0,\"hits\":[]}}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testIndexOfStripsTheVersionOfRebuiltIndices() {
+        assertThat(ElasticsearchConfiguration.indexOf(new BasicHttpRequest("POST", "/spr_20190101000000/_search?size=20")))
+            .isEqualTo("spr");
+        assertThat(ElasticsearchConfiguration.indexOf(new BasicHttpRequest("PUT", "/release/release/1"))).isEqualTo("release");
+        assertThat(ElasticsearchConfiguration.indexOf(new BasicHttpRequest("GET", "/spr_2019"))).isEqualTo("spr_2019");
+        assertThat(ElasticsearchConfiguration.indexOf(new BasicHttpRequest("POST", "/_bulk"))).isEqualTo("_bulk");
+        assertThat(ElasticsearchConfiguration.indexOf(new BasicHttpRequest("HEAD", "/"))).isEqualTo("_root");
+        assertThat(ElasticsearchConfiguration.indexOf(new BasicHttpRequest("GET", "/not a uri"))).isEqualTo("unknown");
+    }
+
+    @Test
+    public void testJestClientCompressesAndTimesRequests() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        String uri = "http://localhost:" + server.getAddress().getPort();
+        JestClient jestClient = new ElasticsearchConfiguration.ElasticsearchClientConfiguration()
+            .jestClient(uri, "", "", new ApplicationProperties(), meterRegistry);
+        try {
+            JestResult result = jestClient.execute(new Search.Builder("{\"query\":{\"match_all\":{}}}")
+                .addIndex("spr_20190101000000")
+                .build());
+
+            assertThat(result.isSucceeded()).isTrue();
+            assertThat(requestHeaders).containsEntry("content-encoding", "gzip");
+            Timer timer = meterRegistry.get("search.client.requests")
+                .tag("index", "spr")
+                .tag("method", "POST")
+                .tag("status", "200")
+                .timer();
+            assertThat(timer.count()).isEqualTo(1);
+            assertThat(timer.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        } finally {
+            jestClient.close();
+        }
+    }
+
+    @Test
+    public void testEntityMapperLeavesTheApplicationMapperUnchanged() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        EntityMapper entityMapper = new ElasticsearchConfiguration(mapper).getEntityMapper();
+
+        assertThat(entityMapper.mapToObject("{\"values\":\"single\"}", Document.class).values).containsExactly("single");
+        assertThat(mapper.isEnabled(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)).isFalse();
+        assertThat(mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isTrue();
+    }
+
+    public static class Document {
+
+        public List<String> values;
+    }
+}
@@ -0,0 +1,124 @@
+package com.amtrak.application.repository;
+
+import com.amtrak.application.AmtecPortalApp;
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.domain.enumeration.Resolution;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.service.SprQueryService;
+import com.amtrak.application.service.dto.SprCriteria;
+import com.amtrak.application.web.rest.ReleaseResourceIT;
+import com.amtrak.application.web.rest.UserResourceIT;
+
+import io.github.jhipster.service.filter.LongFilter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SprRepository}, checking that listing SPRs does not load their user and release one by one.
+ */
+@SpringBootTest(classes = AmtecPortalApp.class)
+@Transactional
+public class SprRepositoryIT {
+
+    private static final int SPR_COUNT = 3;
+
+    @Autowired
+    private SprRepository sprRepository;
+
+    @Autowired
+    private SprQueryService sprQueryService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        for (int i = 0; i < SPR_COUNT; i++) {
+            User user = UserResourceIT.createEntity(em);
+            em.persist(user);
+            users.add(user);
+            Release release = ReleaseResourceIT.createEntity(em);
+            em.persist(release);
+            em.persist(new Spr()
+                .territory(Territory.NED)
+                .number(7000 + i)
+                .fullNumber("NED-" + (7000 + i))
+                .resolution(Resolution.NEW)
+                .user(user)
+                .release(release));
+        }
+        em.flush();
+
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void assertThatSprsByCriteriaAreLoadedInOneStatement() {
+        List<Spr> sprs = countStatements(() -> sprQueryService.findByCriteria(new SprCriteria()), 1);
+
+        assertThat(sprs).hasSize(SPR_COUNT);
+        assertThat(sprs).allSatisfy(spr -> {
+            assertThat(spr.getUser().getLogin()).isNotNull();
+            assertThat(spr.getRelease().getBuild()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatSprsOfAUserAreLoadedInOneStatement() {
+        assertThat(countStatements(() -> sprRepository.findAllByUser(users.get(0)), 1)).hasSize(1);
+        assertThat(countStatements(() -> sprRepository.findAllOpenByUser(users.get(0)), 1)).hasSize(1);
+    }
+
+    @Test
+    public void assertThatSprsByResolutionAreLoadedInOneStatement() {
+        assertThat(countStatements(() -> sprRepository.findAllByResolution(Resolution.NEW), 1)).hasSize(SPR_COUNT);
+        assertThat(countStatements(() -> sprRepository.findAllOpen(), 1)).hasSize(SPR_COUNT);
+    }
+
+    @Test
+    public void assertThatSprsAreCountedInOneStatement() {
+        SprCriteria criteria = new SprCriteria();
+        LongFilter userId = new LongFilter();
+        userId.setEquals(users.get(0).getId());
+        criteria.setUserId(userId);
+
+        assertThat(countStatements(() -> sprQueryService.countByCriteria(criteria), 1)).isEqualTo(1);
+    }
+
+    /**
+     * Runs the query on an empty persistence context and checks the number of statements it prepared.
+     */
+    private <T> T countStatements(Supplier<T> query, long expectedStatements) {
+        em.clear();
+        statistics.clear();
+        T result = query.get();
+        assertThat(statistics.getPrepareStatementCount()).as("prepared statements").isEqualTo(expectedStatements);
+        return result;
+    }
+}
@@ -0,0 +1,119 @@
+package com.amtrak.application.repository.search.embedded;
+
+import com.amtrak.application.config.ElasticsearchConfiguration;
+import com.amtrak.application.domain.TeamEvent;
+import com.amtrak.application.repository.search.TeamEventSearchRepository;
+import com.amtrak.application.service.dto.SearchPage;
+import com.amtrak.application.service.util.SearchPageUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+
+/**
+ * Test class for the {@link EmbeddedSearchRepository}, on an index in a temporary directory.
+ */
+public class EmbeddedSearchRepositoryTest {
+
+    private Path directory;
+
+    private EmbeddedSearchEngine engine;
+
+    private TeamEventSearchRepository teamEventSearchRepository;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("search");
+        engine = new EmbeddedSearchEngine(directory);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        teamEventSearchRepository = EmbeddedSearchRepository.create(TeamEventSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, TeamEvent.class,
+                new ElasticsearchConfiguration(objectMapper).getEntityMapper(), objectMapper));
+        teamEventSearchRepository.saveAll(Arrays.asList(
+            teamEvent(1L, "Quarterly release planning"),
+            teamEvent(2L, "Release retrospective"),
+            teamEvent(3L, "Team lunch")));
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        engine.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void testQueryStringSearch() {
+        assertThat(teamEventSearchRepository.search(queryStringQuery("release")))
+            .extracting(TeamEvent::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(teamEventSearchRepository.search(queryStringQuery("description:lunch")))
+            .extracting(TeamEvent::getDescription).containsExactly("Team lunch");
+        assertThat(teamEventSearchRepository.search(queryStringQuery("id:2")))
+            .extracting(TeamEvent::getId).containsExactly(2L);
+        assertThat(teamEventSearchRepository.search(queryStringQuery("id:[2 TO *]")))
+            .extracting(TeamEvent::getId).containsExactlyInAnyOrder(2L, 3L);
+        assertThatThrownBy(() -> teamEventSearchRepository.search(queryStringQuery("description:(")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testWritesAreVisibleToTheNextSearch() {
+        teamEventSearchRepository.save(teamEvent(3L, "Release party"));
+        teamEventSearchRepository.deleteById(1L);
+
+        assertThat(teamEventSearchRepository.search(queryStringQuery("release")))
+            .extracting(TeamEvent::getId).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(teamEventSearchRepository.count()).isEqualTo(2);
+        assertThat(teamEventSearchRepository.findById(3L)).map(TeamEvent::getDescription).contains("Release party");
+    }
+
+    @Test
+    public void testDocumentsSurviveARestart() throws IOException {
+        engine.close();
+        engine = new EmbeddedSearchEngine(directory);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        TeamEventSearchRepository reopened = EmbeddedSearchRepository.create(TeamEventSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, TeamEvent.class,
+                new ElasticsearchConfiguration(objectMapper).getEntityMapper(), objectMapper));
+
+        assertThat(reopened.count()).isEqualTo(3);
+        assertThat(reopened.findById(1L)).map(TeamEvent::getStart).contains(Instant.parse("2026-01-01T10:00:00Z"));
+    }
+
+    @Test
+    public void testPagedAndSortedSearch() {
+        Page<TeamEvent> page = teamEventSearchRepository.search(matchAllQuery(), PageRequest.of(1, 2, Sort.by("id")));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(TeamEvent::getId).containsExactly(3L);
+
+        SearchPage<TeamEvent> first = SearchPageUtil.search(teamEventSearchRepository, TeamEvent::getId, "*:*", null,
+            PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+        assertThat(first.getContent()).extracting(TeamEvent::getId).containsExactly(3L, 2L);
+        assertThat(first.getTotalHits()).isEqualTo(3);
+        SearchPage<TeamEvent> next = SearchPageUtil.search(teamEventSearchRepository, TeamEvent::getId, "*:*",
+            first.getNextCursor(), PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+        assertThat(next.getContent()).extracting(TeamEvent::getId).containsExactly(1L);
+        assertThat(next.hasNext()).isFalse();
+    }
+
+    private static TeamEvent teamEvent(Long id, String description) {
+        TeamEvent teamEvent = new TeamEvent().start(Instant.parse("2026-01-01T10:00:00Z")).description(description);
+        teamEvent.setId(id);
+        return teamEvent;
+    }
+}
@@ -0,0 +1,57 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.AmtecPortalApp;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.repository.UserRepository;
+import com.amtrak.application.repository.search.ReleaseSearchRepository;
+import com.amtrak.application.repository.search.UserSearchRepository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for {@link EmbeddedSearchLoader}, as the tests run in the embedded search mode.
+ */
+@SpringBootTest(classes = AmtecPortalApp.class)
+public class EmbeddedSearchLoaderIT {
+
+    @Autowired
+    private EmbeddedSearchLoader embeddedSearchLoader;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * These repositories are mocked in the com.amtrak.application.repository.search test package.
+     *
+     * @see com.amtrak.application.repository.search.UserSearchRepositoryMockConfiguration
+     */
+    @Autowired
+    private UserSearchRepository mockUserSearchRepository;
+
+    @Autowired
+    private ReleaseSearchRepository mockReleaseSearchRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void assertThatOnlyEmptyIndicesAreLoaded() {
+        reset(mockUserSearchRepository, mockReleaseSearchRepository);
+        when(mockUserSearchRepository.count()).thenReturn(0L);
+        when(mockReleaseSearchRepository.count()).thenReturn(1L);
+
+        embeddedSearchLoader.loadEmptyIndices();
+
+        ArgumentCaptor<List<User>> users = ArgumentCaptor.forClass(List.class);
+        verify(mockUserSearchRepository, atLeastOnce()).saveAll(users.capture());
+        assertThat(users.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(userRepository.count());
+        verify(mockReleaseSearchRepository, never()).saveAll(anyIterable());
+    }
+}
@@ -0,0 +1,92 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.AmtecPortalApp;
+import com.amtrak.application.config.ApplicationProperties;
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.repository.ReleaseRepository;
+import com.amtrak.application.service.dto.ReleaseSummaryDTO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.amtrak.application.web.rest.TestUtil.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link FutureReleaseScheduler}.
+ * <p>
+ * The schedule is updated once transactions commit, so these tests are not transactional and clean up after themselves.
+ */
+@SpringBootTest(classes = AmtecPortalApp.class)
+public class FutureReleaseSchedulerIT {
+
+    private static final Territory TERRITORY = Territory.UNIFIED;
+
+    @Autowired
+    private ReleaseService releaseService;
+
+    @Autowired
+    private ReleaseRepository releaseRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getReleases().setAutoPromote(false);
+        created.forEach(releaseService::delete);
+        created.clear();
+    }
+
+    @Test
+    public void assertThatFutureReleaseLeavesTheScheduleAtItsDate() {
+        Release future = create(Instant.now().plusSeconds(1), false);
+
+        assertThat(releaseService.findFutureReleases()).extracting(ReleaseSummaryDTO::getId).contains(future.getId());
+
+        await(() -> releaseService.findFutureReleases().stream().noneMatch(release -> release.getId().equals(future.getId())));
+        assertThat(releaseRepository.findById(future.getId()).get().isCurrent()).isFalse();
+    }
+
+    @Test
+    public void assertThatDueReleaseIsPromotedWhenEnabled() {
+        applicationProperties.getReleases().setAutoPromote(true);
+        List<Release> previouslyCurrent = releaseRepository.findAllByTerritoryAndCurrentIsTrue(TERRITORY);
+        try {
+            Release current = previouslyCurrent.isEmpty() ? create(Instant.now().minus(Duration.ofDays(1)), true) : null;
+            Release future = create(Instant.now().plusSeconds(1), false);
+
+            await(() -> releaseRepository.findById(future.getId()).get().isCurrent());
+            List<Release> currents = releaseRepository.findAllByTerritoryAndCurrentIsTrue(TERRITORY);
+            assertThat(currents).extracting(Release::getId).containsExactly(future.getId());
+            if (current != null) {
+                assertThat(releaseRepository.findById(current.getId()).get().isCurrent()).isFalse();
+            }
+        } finally {
+            applicationProperties.getReleases().setAutoPromote(false);
+            previouslyCurrent.forEach(release -> releaseService.save(release.current(true)));
+        }
+    }
+
+    private Release create(Instant date, boolean current) {
+        Release release = releaseService.save(new Release()
+            .date(date)
+            .territory(TERRITORY)
+            .build(1)
+            .releaseLetter("Z")
+            .databaseVersion("1")
+            .current(current));
+        created.add(release.getId());
+        return release;
+    }
+}
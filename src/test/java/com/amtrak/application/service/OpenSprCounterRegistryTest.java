@@ -0,0 +1,56 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.enumeration.Priority;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.repository.SprRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link OpenSprCounterRegistry}.
+ */
+public class OpenSprCounterRegistryTest {
+
+    private SprRepository sprRepository;
+
+    private OpenSprCounterRegistry openSprCounterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        sprRepository = mock(SprRepository.class);
+        openSprCounterRegistry = new OpenSprCounterRegistry(sprRepository);
+    }
+
+    @Test
+    public void testChangeCommittedDuringARebuildIsKept() {
+        Spr spr = new Spr().territory(Territory.UNIFIED).priority(Priority.HIGH);
+        // The change commits while the rebuild reads the database, which does not see it yet
+        when(sprRepository.countOpen()).thenAnswer(invocation -> {
+            openSprCounterRegistry.updateAfterCommit(null, OpenSprCounterRegistry.Contribution.of(spr));
+            return Collections.emptyList();
+        });
+
+        openSprCounterRegistry.reconcile();
+
+        assertThat(openSprCounterRegistry.getPriorityCounts()).containsEntry(Priority.HIGH, 1L);
+        assertThat(openSprCounterRegistry.getTerritoryCounts()).containsEntry(Territory.UNIFIED, 1L);
+    }
+
+    @Test
+    public void testRebuildRepairsTheCounters() {
+        Spr spr = new Spr().territory(Territory.UNIFIED).priority(Priority.HIGH);
+        openSprCounterRegistry.updateAfterCommit(null, OpenSprCounterRegistry.Contribution.of(spr));
+        when(sprRepository.countOpen()).thenReturn(Collections.emptyList());
+
+        openSprCounterRegistry.reconcile();
+
+        assertThat(openSprCounterRegistry.getPriorityCounts()).isEmpty();
+    }
+}
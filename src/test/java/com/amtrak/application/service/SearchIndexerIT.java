@@ -0,0 +1,102 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.AmtecPortalApp;
+import com.amtrak.application.domain.IndexOutboxEntry;
+import com.amtrak.application.domain.TeamEvent;
+import com.amtrak.application.repository.search.TeamEventSearchRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.amtrak.application.web.rest.TestUtil.await;
+import static com.amtrak.application.web.rest.TestUtil.pendingIndexEntries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for {@link SearchIndexer}.
+ * <p>
+ * The outbox is drained once the changes commit, so these tests are not transactional and clean up after themselves.
+ */
+@SpringBootTest(classes = AmtecPortalApp.class)
+public class SearchIndexerIT {
+
+    @Autowired
+    private TeamEventService teamEventService;
+
+    @Autowired
+    private EntityManager em;
+
+    /**
+     * This repository is mocked in the com.amtrak.application.repository.search test package.
+     *
+     * @see com.amtrak.application.repository.search.TeamEventSearchRepositoryMockConfiguration
+     */
+    @Autowired
+    private TeamEventSearchRepository mockTeamEventSearchRepository;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        reset(mockTeamEventSearchRepository);
+        created.forEach(teamEventService::delete);
+        await(() -> pending().isEmpty());
+        created.clear();
+    }
+
+    @Test
+    public void assertThatChangesAreIndexedInBulkAfterCommit() {
+        Long first = create();
+        Long second = create();
+
+        await(() -> pending().isEmpty());
+        verify(mockTeamEventSearchRepository, atLeastOnce()).saveAll(anyIterable());
+        verify(mockTeamEventSearchRepository, never()).save(any(TeamEvent.class));
+
+        teamEventService.delete(first);
+        created.remove(first);
+        await(() -> pendingIndexEntries(em, TeamEvent.class, first).isEmpty());
+        verify(mockTeamEventSearchRepository).deleteById(first);
+        verify(mockTeamEventSearchRepository, never()).deleteById(second);
+    }
+
+    @Test
+    public void assertThatFailedChangesAreRetriedLater() {
+        doThrow(new IllegalStateException("Elasticsearch is down")).when(mockTeamEventSearchRepository).saveAll(anyIterable());
+        Long id = create();
+
+        await(() -> pending().stream().anyMatch(entry -> entry.getAttempts() > 0));
+        IndexOutboxEntry entry = pending().stream().filter(pending -> pending.getEntityId().equals(id)).findFirst().get();
+        assertThat(entry.getLastError()).isEqualTo("Elasticsearch is down");
+        assertThat(entry.getNextAttemptDate()).isAfter(entry.getCreatedDate());
+
+        reset(mockTeamEventSearchRepository);
+        await(() -> pending().isEmpty());
+        verify(mockTeamEventSearchRepository, atLeastOnce()).saveAll(anyIterable());
+        verify(mockTeamEventSearchRepository, never()).deleteById(anyLong());
+    }
+
+    private Long create() {
+        Long id = teamEventService.save(new TeamEvent().start(Instant.now()).description("indexed")).getId();
+        created.add(id);
+        return id;
+    }
+
+    private List<IndexOutboxEntry> pending() {
+        List<IndexOutboxEntry> entries = new ArrayList<>();
+        for (Long id : created) {
+            entries.addAll(pendingIndexEntries(em, TeamEvent.class, id));
+        }
+        return entries;
+    }
+}
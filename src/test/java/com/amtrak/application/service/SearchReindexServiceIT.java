@@ -0,0 +1,234 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.AmtecPortalApp;
+import com.amtrak.application.config.ApplicationProperties;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.repository.UserRepository;
+import com.amtrak.application.service.dto.ReindexJobDTO;
+import com.amtrak.application.service.dto.ReindexJobDTO.State;
+import com.amtrak.application.web.rest.UserResourceIT;
+import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import io.searchbox.indices.mapping.GetMapping;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for {@link SearchReindexService}.
+ * <p>
+ * The users are read from the database by the workers, so these tests are not transactional and clean up after
+ * themselves. Elasticsearch is mocked.
+ */
+@SpringBootTest(classes = AmtecPortalApp.class)
+public class SearchReindexServiceIT {
+
+    private static final int CHUNK_SIZE = 3;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityMapper entityMapper;
+
+    private SearchIndexer mockSearchIndexer;
+
+    private ElasticsearchOperations mockElasticsearchOperations;
+
+    private JestClient mockJestClient;
+
+    private SearchReindexService searchReindexService;
+
+    private final List<List<IndexQuery>> bulks = new CopyOnWriteArrayList<>();
+
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        mockSearchIndexer = mock(SearchIndexer.class);
+        when(mockSearchIndexer.getIndexedTypes()).thenReturn(Collections.<Class<?>>singletonList(User.class));
+
+        ElasticsearchPersistentEntity entity = mock(ElasticsearchPersistentEntity.class);
+        when(entity.getIndexName()).thenReturn("user");
+        when(entity.getIndexType()).thenReturn("user");
+        when(entity.getRefreshInterval()).thenReturn("1s");
+        mockElasticsearchOperations = mock(ElasticsearchOperations.class);
+        when(mockElasticsearchOperations.getPersistentEntityFor(User.class)).thenReturn(entity);
+        doAnswer(invocation -> bulks.add(new ArrayList<>(invocation.<List<IndexQuery>>getArgument(0))))
+            .when(mockElasticsearchOperations).bulkIndex(anyList());
+
+        JestResult succeeded = mock(JestResult.class);
+        when(succeeded.isSucceeded()).thenReturn(true);
+        mockJestClient = mock(JestClient.class);
+        when(mockJestClient.execute(any(Action.class))).thenReturn(succeeded);
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getReindex().setChunkSize(CHUNK_SIZE);
+        applicationProperties.getReindex().setWorkers(2);
+        searchReindexService = new SearchReindexService(mockSearchIndexer, mock(SearchCache.class),
+            mockElasticsearchOperations, mockJestClient, entityMapper, em, transactionManager, Runnable::run,
+            new SimpleMeterRegistry(), applicationProperties);
+
+        // Users created after the default ones get ids far from theirs
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            created.add(userRepository.saveAndFlush(UserResourceIT.createEntity(em)).getId());
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        created.forEach(userRepository::deleteById);
+        created.clear();
+        bulks.clear();
+    }
+
+    @Test
+    public void assertThatSparseIdsAreIndexedByPagesOfChunkSize() throws Exception {
+        aliasedIndices("user_20190101000000");
+        long users = userRepository.count();
+
+        ReindexJobDTO job = searchReindexService.start();
+
+        assertThat(job.getState()).isEqualTo(State.COMPLETED);
+        ReindexJobDTO.IndexProgress index = job.getIndices().get(0);
+        assertThat(index.getAlias()).isEqualTo("user");
+        assertThat(index.getIndex()).matches("user_\\d{14}");
+        assertThat(index.getTotal()).isEqualTo(users);
+        assertThat(index.getIndexed()).isEqualTo(users);
+        assertThat(bulks).hasSize((int) ((users + CHUNK_SIZE - 1) / CHUNK_SIZE));
+        assertThat(bulks).allSatisfy(bulk -> assertThat(bulk).hasSizeBetween(1, CHUNK_SIZE)
+            .allSatisfy(query -> {
+                assertThat(query.getIndexName()).isEqualTo(index.getIndex());
+                assertThat(query.getSource()).contains("\"login\"");
+            }));
+        assertThat(bulks.stream().flatMap(List::stream).map(IndexQuery::getId))
+            .doesNotHaveDuplicates()
+            .containsAll(created.stream().map(String::valueOf).collect(Collectors.toList()));
+
+        verify(mockJestClient).execute(any(ModifyAliases.class));
+        verify(mockElasticsearchOperations).deleteIndex("user_20190101000000");
+        verify(mockElasticsearchOperations, never()).deleteIndex("user");
+        verify(mockSearchIndexer).pause();
+        verify(mockSearchIndexer).resume();
+    }
+
+    @Test
+    public void assertThatIndexNamedLikeTheAliasIsReplacedOnTheFirstRun() throws Exception {
+        aliasedIndices("user");
+
+        ReindexJobDTO job = searchReindexService.start();
+
+        assertThat(job.getState()).isEqualTo(State.COMPLETED);
+        verify(mockElasticsearchOperations).deleteIndex("user");
+        verify(mockJestClient).execute(any(ModifyAliases.class));
+        verify(mockElasticsearchOperations, never()).deleteIndex(job.getIndices().get(0).getIndex());
+    }
+
+    @Test
+    public void assertThatNewIndexIsDeletedWhenARangeFails() throws Exception {
+        aliasedIndices("user_20190101000000");
+        doThrow(new IllegalStateException("Elasticsearch is down")).when(mockElasticsearchOperations).bulkIndex(anyList());
+
+        ReindexJobDTO job = searchReindexService.start();
+
+        assertThat(job.getState()).isEqualTo(State.FAILED);
+        ReindexJobDTO.IndexProgress index = job.getIndices().get(0);
+        assertThat(index.getState()).isEqualTo(State.FAILED);
+        assertThat(index.getMessage()).isEqualTo("Elasticsearch is down");
+
+        ArgumentCaptor<String> createdIndex = ArgumentCaptor.forClass(String.class);
+        verify(mockElasticsearchOperations).createIndex(createdIndex.capture(), any());
+        verify(mockElasticsearchOperations).deleteIndex(createdIndex.getValue());
+        verify(mockElasticsearchOperations, never()).deleteIndex(eq("user_20190101000000"));
+        verify(mockJestClient, never()).execute(any(ModifyAliases.class));
+        verify(mockSearchIndexer).resume();
+    }
+
+    @Test
+    public void assertThatIndexMappingTheIdAsKeywordIsRebuiltWhenReady() throws Exception {
+        aliasedIndices("user_20190101000000");
+        mappedId("user_20190101000000", "keyword");
+
+        searchReindexService.rebuildOutdatedIndices();
+
+        assertThat(searchReindexService.getJob()).hasValueSatisfying(job -> assertThat(job.getState()).isEqualTo(State.COMPLETED));
+        verify(mockJestClient).execute(any(ModifyAliases.class));
+        verify(mockElasticsearchOperations).deleteIndex("user_20190101000000");
+    }
+
+    @Test
+    public void assertThatIndexMappingTheIdAsLongIsKeptWhenReady() throws Exception {
+        aliasedIndices("user_20190101000000");
+        mappedId("user_20190101000000", "long");
+
+        searchReindexService.rebuildOutdatedIndices();
+
+        assertThat(searchReindexService.getJob()).isEmpty();
+        verify(mockElasticsearchOperations, never()).createIndex(any(String.class), any());
+        verify(mockJestClient, never()).execute(any(ModifyAliases.class));
+    }
+
+    private void mappedId(String index, String type) throws Exception {
+        JsonObject id = new JsonObject();
+        id.addProperty("type", type);
+        JsonObject properties = new JsonObject();
+        properties.add("id", id);
+        JsonObject mapping = new JsonObject();
+        mapping.add("properties", properties);
+        JsonObject mappings = new JsonObject();
+        mappings.add("user", mapping);
+        JsonObject indexMappings = new JsonObject();
+        indexMappings.add("mappings", mappings);
+        JsonObject indices = new JsonObject();
+        indices.add(index, indexMappings);
+        JestResult result = mock(JestResult.class);
+        when(result.isSucceeded()).thenReturn(true);
+        when(result.getJsonObject()).thenReturn(indices);
+        when(mockJestClient.execute(any(GetMapping.class))).thenReturn(result);
+    }
+
+    private void aliasedIndices(String... indices) throws Exception {
+        JsonObject aliases = new JsonObject();
+        for (String index : indices) {
+            aliases.add(index, new JsonObject());
+        }
+        JestResult result = mock(JestResult.class);
+        when(result.isSucceeded()).thenReturn(true);
+        when(result.getJsonObject()).thenReturn(aliases);
+        when(mockJestClient.execute(any(GetAliases.class))).thenReturn(result);
+    }
+}
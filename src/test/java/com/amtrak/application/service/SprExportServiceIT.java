@@ -0,0 +1,80 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.AmtecPortalApp;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.enumeration.Priority;
+import com.amtrak.application.domain.enumeration.Resolution;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.repository.SprRepository;
+import com.amtrak.application.service.dto.SprCriteria;
+
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SprExportService}.
+ */
+@SpringBootTest(classes = AmtecPortalApp.class)
+@Transactional
+public class SprExportServiceIT {
+
+    @Autowired
+    private SprRepository sprRepository;
+
+    @Autowired
+    private SprExportService sprExportService;
+
+    private Spr spr;
+
+    @BeforeEach
+    public void init() {
+        spr = new Spr()
+            .territory(Territory.NED)
+            .number(42)
+            .fullNumber("NED-42")
+            .description("Crashes, then \"recovers\"")
+            .priority(Priority.HIGH)
+            .resolution(Resolution.NEW);
+        sprRepository.saveAndFlush(spr);
+    }
+
+    @Test
+    public void assertThatSprsAreExportedAsCsv() throws Exception {
+        SprCriteria criteria = new SprCriteria();
+        StringFilter fullNumber = new StringFilter();
+        fullNumber.setEquals("NED-42");
+        criteria.setFullNumber(fullNumber);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        sprExportService.export(criteria, SprExportService.Format.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("id,territory,number,fullNumber,description");
+        assertThat(lines[1]).isEqualTo(spr.getId() + ",NED,42,NED-42,\"Crashes, then \"\"recovers\"\"\",HIGH,NEW,,,,");
+    }
+
+    @Test
+    public void assertThatSprsAreExportedAsNdjson() throws Exception {
+        SprCriteria criteria = new SprCriteria();
+        StringFilter fullNumber = new StringFilter();
+        fullNumber.setEquals("NED-42");
+        criteria.setFullNumber(fullNumber);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        sprExportService.export(criteria, SprExportService.Format.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).startsWith("{").contains("\"fullNumber\":\"NED-42\"");
+    }
+}
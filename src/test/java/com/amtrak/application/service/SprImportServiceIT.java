@@ -0,0 +1,141 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.AmtecPortalApp;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.enumeration.Priority;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.repository.SprRepository;
+import com.amtrak.application.service.dto.SprImportJobDTO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SprImportService}.
+ * <p>
+ * The imports run on the task executor and commit, so these tests are not transactional and clean up after themselves.
+ */
+@SpringBootTest(classes = AmtecPortalApp.class)
+public class SprImportServiceIT {
+
+    private static final String FULL_NUMBER_PREFIX = "IMPORT-";
+
+    @Autowired
+    private SprRepository sprRepository;
+
+    @Autowired
+    private SprImportService sprImportService;
+
+    @AfterEach
+    public void cleanup() {
+        sprRepository.deleteAll(importedSprs().values());
+    }
+
+    @Test
+    public void assertThatSprsAreImportedFromCsv() throws Exception {
+        String csv = "territory,number,fullNumber,description,priority,userLogin\r\n" +
+            "NED,9001,IMPORT-9001,\"Crashes,\nthen recovers\",HIGH,admin\r\n" +
+            "ned,9002,IMPORT-9002,,low,\r\n" +
+            "NED,9003,IMPORT-9003,,NOPE,\r\n" +
+            "NED,9004,IMPORT-9004,,,ghost\r\n" +
+            "\r\n" +
+            "NED,9005,IMPORT-9001,,,\r\n";
+
+        SprImportJobDTO job = awaitFinished(sprImportService.start("sprs.csv", SprImportService.Format.CSV,
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertThat(job.getState()).isEqualTo(SprImportJobDTO.State.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(5);
+        assertThat(job.getCreated()).isEqualTo(2);
+        assertThat(job.getFailed()).isEqualTo(3);
+        assertThat(job.getErrors()).extracting(SprImportJobDTO.RowError::getRow).containsExactly(4L, 5L, 7L);
+        assertThat(job.getErrors()).extracting(SprImportJobDTO.RowError::getErrorKey)
+            .containsExactly("invalid", "usernotfound", "numberexists");
+
+        Map<String, Spr> sprs = importedSprs();
+        assertThat(sprs).containsOnlyKeys("IMPORT-9001", "IMPORT-9002");
+        assertThat(sprs.get("IMPORT-9001").getDescription()).isEqualTo("Crashes,\nthen recovers");
+        assertThat(sprs.get("IMPORT-9001").getUser().getLogin()).isEqualTo("admin");
+        assertThat(sprs.get("IMPORT-9002").getPriority()).isEqualTo(Priority.LOW);
+    }
+
+    @Test
+    public void assertThatSprsAreImportedFromXlsx() throws Exception {
+        SprImportJobDTO job = awaitFinished(sprImportService.start("sprs.xlsx", SprImportService.Format.XLSX,
+            new ByteArrayInputStream(workbook())));
+
+        assertThat(job.getState()).isEqualTo(SprImportJobDTO.State.COMPLETED);
+        assertThat(job.getCreated()).isEqualTo(1);
+        Spr spr = importedSprs().get("IMPORT-9011");
+        assertThat(spr.getTerritory()).isEqualTo(Territory.HUDSON);
+        assertThat(spr.getNumber()).isEqualTo(9011);
+        assertThat(spr.getReviewerId()).isEqualTo(3L);
+    }
+
+    @Test
+    public void assertThatImportWithoutRequiredColumnsFails() throws Exception {
+        SprImportJobDTO job = awaitFinished(sprImportService.start("sprs.csv", SprImportService.Format.CSV,
+            new ByteArrayInputStream("territory,description\nNED,text\n".getBytes(StandardCharsets.UTF_8))));
+
+        assertThat(job.getState()).isEqualTo(SprImportJobDTO.State.FAILED);
+        assertThat(job.getMessage()).contains("number", "fullnumber");
+    }
+
+    private SprImportJobDTO awaitFinished(SprImportJobDTO started) throws InterruptedException {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            SprImportJobDTO job = sprImportService.findJob(started.getId()).get();
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("The import did not finish");
+    }
+
+    private Map<String, Spr> importedSprs() {
+        List<Spr> sprs = sprRepository.findAll();
+        return sprs.stream()
+            .filter(spr -> spr.getFullNumber().startsWith(FULL_NUMBER_PREFIX))
+            .collect(Collectors.toMap(Spr::getFullNumber, Function.identity()));
+    }
+
+    /**
+     * A workbook with shared strings, an inline string, decimal numbers and an empty cell.
+     */
+    private static byte[] workbook() throws IOException {
+        String sharedStrings = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">" +
+            "<si><t>territory</t></si><si><t>number</t></si><si><r><t>full</t></r><r><t>Number</t></r></si>" +
+            "<si><t>description</t></si><si><t>reviewerId</t></si><si><t>HUDSON</t></si></sst>";
+        String sheet = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+            "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c><c r=\"C1\" t=\"s\"><v>2</v></c>" +
+            "<c r=\"D1\" t=\"s\"><v>3</v></c><c r=\"E1\" t=\"s\"><v>4</v></c></row>" +
+            "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>5</v></c><c r=\"B2\"><v>9011</v></c>" +
+            "<c r=\"C2\" t=\"inlineStr\"><is><t>IMPORT-9011</t></is></c><c r=\"E2\"><v>3.0</v></c></row>" +
+            "</sheetData></worksheet>";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+            zip.write(sharedStrings.getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            zip.write(sheet.getBytes(StandardCharsets.UTF_8));
+        }
+        return output.toByteArray();
+    }
+}
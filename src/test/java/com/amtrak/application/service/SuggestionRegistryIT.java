@@ -0,0 +1,96 @@
+package com.amtrak.application.service;
+
+import com.amtrak.application.AmtecPortalApp;
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.enumeration.Territory;
+import com.amtrak.application.service.dto.SuggestionDTO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SuggestionRegistry}.
+ * <p>
+ * The suggestions are updated once transactions commit, so these tests are not transactional and clean up after themselves.
+ */
+@SpringBootTest(classes = AmtecPortalApp.class)
+public class SuggestionRegistryIT {
+
+    @Autowired
+    private SuggestionRegistry suggestionRegistry;
+
+    @Autowired
+    private ReleaseService releaseService;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        created.forEach(releaseService::delete);
+        created.clear();
+    }
+
+    @Test
+    public void assertThatUsersAreSuggestedByLoginPrefix() {
+        suggestionRegistry.reload();
+
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.USER, "ADM", 10))
+            .extracting(SuggestionDTO::getLabel).containsExactly("admin");
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.USER, "anonymous", 10)).isEmpty();
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.USER, "", 1)).hasSize(1);
+    }
+
+    @Test
+    public void assertThatSavedReleaseIsSuggestedOnceCommitted() {
+        Release release = create(9876);
+
+        List<SuggestionDTO> suggestions = suggestionRegistry.suggest(SuggestionRegistry.Type.RELEASE, "987", 10);
+        assertThat(suggestions).extracting(SuggestionDTO::getId).containsExactly(release.getId());
+        assertThat(suggestions.get(0).getLabel()).isEqualTo("UNIFIED Z build 9876");
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.RELEASE, "unified z build 98", 10))
+            .extracting(SuggestionDTO::getId).containsExactly(release.getId());
+
+        releaseService.save(release.build(9877));
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.RELEASE, "9876", 10)).isEmpty();
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.RELEASE, "9877", 10))
+            .extracting(SuggestionDTO::getId).containsExactly(release.getId());
+
+        releaseService.delete(release.getId());
+        created.remove(release.getId());
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.RELEASE, "9877", 10)).isEmpty();
+    }
+
+    @Test
+    public void assertThatReleasesSharingABuildAreAllSuggested() {
+        Release first = create(9876);
+        Release second = create(9876);
+        Release other = create(9875);
+
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.RELEASE, "9876", 10))
+            .extracting(SuggestionDTO::getId).containsExactlyInAnyOrder(first.getId(), second.getId());
+
+        releaseService.save(first.databaseVersion("2"));
+        assertThat(suggestionRegistry.suggest(SuggestionRegistry.Type.RELEASE, "987", 10))
+            .extracting(SuggestionDTO::getId).containsExactlyInAnyOrder(first.getId(), second.getId(), other.getId());
+    }
+
+    private Release create(int build) {
+        Release release = releaseService.save(new Release()
+            .date(Instant.now())
+            .territory(Territory.UNIFIED)
+            .build(build)
+            .releaseLetter("Z")
+            .databaseVersion("1")
+            .current(false));
+        created.add(release.getId());
+        return release;
+    }
+}
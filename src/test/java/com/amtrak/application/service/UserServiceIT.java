@@ -3,7 +3,7 @@ package com.amtrak.application.service;
 import com.amtrak.application.AmtecPortalApp;
 import com.amtrak.application.config.Constants;
 import com.amtrak.application.domain.User;
-import com.amtrak.application.repository.search.UserSearchRepository;
+import com.amtrak.application.domain.enumeration.IndexOperation;
 import com.amtrak.application.repository.UserRepository;
 import com.amtrak.application.service.dto.UserDTO;
 import com.amtrak.application.service.util.RandomUtil;
@@ -20,15 +20,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 
+import static com.amtrak.application.web.rest.TestUtil.pendingIndexOperations;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -54,15 +54,10 @@ public class UserServiceIT {
     private UserRepository userRepository;
 
     @Autowired
-    private UserService userService;
+    private EntityManager em;
 
-    /**
-     * This repository is mocked in the com.amtrak.application.repository.search test package.
-     *
-     * @see com.amtrak.application.repository.search.UserSearchRepositoryMockConfiguration
-     */
     @Autowired
-    private UserSearchRepository mockUserSearchRepository;
+    private UserService userService;
 
     @Autowired
     private AuditingHandler auditingHandler;
@@ -177,8 +172,8 @@ public class UserServiceIT {
         users = userRepository.findAllByActivatedIsFalseAndCreatedDateBefore(now.minus(3, ChronoUnit.DAYS));
         assertThat(users).isEmpty();
 
-        // Verify Elasticsearch mock
-        verify(mockUserSearchRepository, times(1)).delete(user);
+        // Verify the user is removed from Elasticsearch
+        assertThat(pendingIndexOperations(em, User.class, user.getId())).containsExactly(IndexOperation.DELETE);
     }
 
     @Test
@@ -209,8 +204,8 @@ public class UserServiceIT {
         userService.removeNotActivatedUsers();
         assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN)).isNotPresent();
 
-        // Verify Elasticsearch mock
-        verify(mockUserSearchRepository, times(1)).delete(user);
+        // Verify the user is removed from Elasticsearch
+        assertThat(pendingIndexOperations(em, User.class, user.getId())).containsExactly(IndexOperation.DELETE);
     }
 
 }
@@ -0,0 +1,105 @@
+package com.amtrak.application.service.util;
+
+import com.amtrak.application.config.ElasticsearchConfiguration;
+import com.amtrak.application.domain.Event;
+import com.amtrak.application.domain.OutOfOffice;
+import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.TeamEvent;
+import com.amtrak.application.domain.User;
+import com.amtrak.application.repository.search.TeamEventSearchRepository;
+import com.amtrak.application.repository.search.embedded.EmbeddedSearchEngine;
+import com.amtrak.application.repository.search.embedded.EmbeddedSearchRepository;
+import com.amtrak.application.service.dto.SearchPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SearchPageUtil}, on an embedded index in a temporary directory.
+ * <p>
+ * Elasticsearch orders the ids the way they are mapped, so the mapping of every indexed entity is checked too.
+ */
+public class SearchPageUtilIT {
+
+    private Path directory;
+
+    private EmbeddedSearchEngine engine;
+
+    private TeamEventSearchRepository teamEventSearchRepository;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("search");
+        engine = new EmbeddedSearchEngine(directory);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        teamEventSearchRepository = EmbeddedSearchRepository.create(TeamEventSearchRepository.class,
+            new EmbeddedSearchRepository<>(engine, TeamEvent.class,
+                new ElasticsearchConfiguration(objectMapper).getEntityMapper(), objectMapper));
+        // Ids on both sides of a digit boundary, which text order would sort as 10, 11, 2, 9
+        teamEventSearchRepository.saveAll(Arrays.asList(teamEvent(10L), teamEvent(2L), teamEvent(11L), teamEvent(9L)));
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        engine.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void assertThatAscendingPagesFollowTheNumericOrderOfIds() {
+        assertThat(readAllPages(Sort.Direction.ASC)).containsExactly(2L, 9L, 10L, 11L);
+    }
+
+    @Test
+    public void assertThatDescendingPagesFollowTheNumericOrderOfIds() {
+        assertThat(readAllPages(Sort.Direction.DESC)).containsExactly(11L, 10L, 9L, 2L);
+    }
+
+    @Test
+    public void assertThatIdsAreMappedAsLongs() throws Exception {
+        for (Class<?> type : Arrays.asList(Event.class, OutOfOffice.class, Release.class, Spr.class, TeamEvent.class,
+            User.class)) {
+            Field field = type.getDeclaredField("id").getAnnotation(Field.class);
+            assertThat(field).as(type.getSimpleName()).isNotNull();
+            assertThat(field.type()).as(type.getSimpleName()).isEqualTo(FieldType.Long);
+        }
+    }
+
+    private List<Long> readAllPages(Sort.Direction direction) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            SearchPage<TeamEvent> page = SearchPageUtil.search(teamEventSearchRepository, TeamEvent::getId, "*:*", cursor,
+                PageRequest.of(0, 1, Sort.by(direction, "id")));
+            assertThat(page.getContent()).hasSize(1);
+            ids.add(page.getContent().get(0).getId());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static TeamEvent teamEvent(Long id) {
+        TeamEvent teamEvent = new TeamEvent().start(Instant.parse("2026-01-01T10:00:00Z")).description("Event " + id);
+        teamEvent.setId(id);
+        return teamEvent;
+    }
+}
@@ -2,19 +2,24 @@ package com.amtrak.application.web.rest;
 
 import com.amtrak.application.AmtecPortalApp;
 import com.amtrak.application.domain.OutOfOffice;
+import com.amtrak.application.domain.enumeration.IndexOperation;
 import com.amtrak.application.domain.User;
+import com.amtrak.application.repository.IndexOutboxRepository;
 import com.amtrak.application.repository.OutOfOfficeRepository;
 import com.amtrak.application.repository.search.OutOfOfficeSearchRepository;
 import com.amtrak.application.service.OutOfOfficeService;
 import com.amtrak.application.web.rest.errors.ExceptionTranslator;
 import com.amtrak.application.service.dto.OutOfOfficeCriteria;
 import com.amtrak.application.service.OutOfOfficeQueryService;
+import com.amtrak.application.service.EntityVersionRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -30,9 +35,9 @@ import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 
+import static com.amtrak.application.web.rest.TestUtil.pendingIndexOperations;
 import static com.amtrak.application.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -56,6 +61,9 @@ public class OutOfOfficeResourceIT {
     @Autowired
     private OutOfOfficeRepository outOfOfficeRepository;
 
+    @Autowired
+    private IndexOutboxRepository indexOutboxRepository;
+
     @Autowired
     private OutOfOfficeService outOfOfficeService;
 
@@ -70,6 +78,9 @@ public class OutOfOfficeResourceIT {
     @Autowired
     private OutOfOfficeQueryService outOfOfficeQueryService;
 
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -92,7 +103,7 @@ public class OutOfOfficeResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final OutOfOfficeResource outOfOfficeResource = new OutOfOfficeResource(outOfOfficeService, outOfOfficeQueryService);
+        final OutOfOfficeResource outOfOfficeResource = new OutOfOfficeResource(outOfOfficeService, outOfOfficeQueryService, entityVersionRegistry);
         this.restOutOfOfficeMockMvc = MockMvcBuilders.standaloneSetup(outOfOfficeResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -140,7 +151,7 @@ public class OutOfOfficeResourceIT {
         assertThat(testOutOfOffice.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
 
         // Validate the OutOfOffice in Elasticsearch
-        verify(mockOutOfOfficeSearchRepository, times(1)).save(testOutOfOffice);
+        assertThat(pendingIndexOperations(em, OutOfOffice.class, testOutOfOffice.getId())).containsExactly(IndexOperation.INDEX);
     }
 
     @Test
@@ -162,7 +173,7 @@ public class OutOfOfficeResourceIT {
         assertThat(outOfOfficeList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the OutOfOffice in Elasticsearch
-        verify(mockOutOfOfficeSearchRepository, times(0)).save(outOfOffice);
+        assertThat(pendingIndexOperations(em, OutOfOffice.class, outOfOffice.getId())).isEmpty();
     }
 
 
@@ -380,8 +391,8 @@ public class OutOfOfficeResourceIT {
     public void updateOutOfOffice() throws Exception {
         // Initialize the database
         outOfOfficeService.save(outOfOffice);
-        // As the test used the service layer, reset the Elasticsearch mock repository
-        reset(mockOutOfOfficeSearchRepository);
+        // As the test used the service layer, clear the index outbox
+        indexOutboxRepository.deleteAll();
 
         int databaseSizeBeforeUpdate = outOfOfficeRepository.findAll().size();
 
@@ -408,7 +419,7 @@ public class OutOfOfficeResourceIT {
         assertThat(testOutOfOffice.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
 
         // Validate the OutOfOffice in Elasticsearch
-        verify(mockOutOfOfficeSearchRepository, times(1)).save(testOutOfOffice);
+        assertThat(pendingIndexOperations(em, OutOfOffice.class, testOutOfOffice.getId())).containsExactly(IndexOperation.INDEX);
     }
 
     @Test
@@ -429,7 +440,7 @@ public class OutOfOfficeResourceIT {
         assertThat(outOfOfficeList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the OutOfOffice in Elasticsearch
-        verify(mockOutOfOfficeSearchRepository, times(0)).save(outOfOffice);
+        assertThat(pendingIndexOperations(em, OutOfOffice.class, outOfOffice.getId())).isEmpty();
     }
 
     @Test
@@ -450,7 +461,7 @@ public class OutOfOfficeResourceIT {
         assertThat(outOfOfficeList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the OutOfOffice in Elasticsearch
-        verify(mockOutOfOfficeSearchRepository, times(1)).deleteById(outOfOffice.getId());
+        assertThat(pendingIndexOperations(em, OutOfOffice.class, outOfOffice.getId())).containsExactly(IndexOperation.INDEX, IndexOperation.DELETE);
     }
 
     @Test
@@ -458,11 +469,12 @@ public class OutOfOfficeResourceIT {
     public void searchOutOfOffice() throws Exception {
         // Initialize the database
         outOfOfficeService.save(outOfOffice);
-        when(mockOutOfOfficeSearchRepository.search(queryStringQuery("id:" + outOfOffice.getId())))
-            .thenReturn(Collections.singletonList(outOfOffice));
+        when(mockOutOfOfficeSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(outOfOffice)));
         // Search the outOfOffice
         restOutOfOfficeMockMvc.perform(get("/api/_search/out-of-offices?query=id:" + outOfOffice.getId()))
             .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(outOfOffice.getId().intValue())))
             .andExpect(jsonPath("$.[*].start").value(hasItem(DEFAULT_START.toString())))
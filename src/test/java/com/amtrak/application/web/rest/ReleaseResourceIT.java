@@ -2,21 +2,33 @@ package com.amtrak.application.web.rest;
 
 import com.amtrak.application.AmtecPortalApp;
 import com.amtrak.application.domain.Release;
+import com.amtrak.application.domain.enumeration.IndexOperation;
 import com.amtrak.application.domain.Spr;
+import com.amtrak.application.repository.IndexOutboxRepository;
 import com.amtrak.application.repository.ReleaseRepository;
 import com.amtrak.application.repository.search.ReleaseSearchRepository;
 import com.amtrak.application.service.ReleaseService;
 import com.amtrak.application.web.rest.errors.ExceptionTranslator;
 import com.amtrak.application.service.dto.ReleaseCriteria;
 import com.amtrak.application.service.ReleaseQueryService;
+import com.amtrak.application.service.EntityVersionRegistry;
+import com.amtrak.application.service.ReleaseDiffService;
+import com.amtrak.application.service.ReleaseNotesService;
+import com.amtrak.application.service.ReleaseStatsService;
+import com.amtrak.application.service.SprQueryService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -25,19 +37,28 @@ import org.springframework.util.Base64Utils;
 import org.springframework.validation.Validator;
 
 import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
+import java.util.Scanner;
+import java.util.zip.GZIPInputStream;
 
+import static com.amtrak.application.web.rest.TestUtil.pendingIndexOperations;
 import static com.amtrak.application.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.amtrak.application.domain.enumeration.Resolution;
 import com.amtrak.application.domain.enumeration.Territory;
 /**
  * Integration tests for the {@Link ReleaseResource} REST controller.
@@ -84,6 +105,9 @@ public class ReleaseResourceIT {
     @Autowired
     private ReleaseRepository releaseRepository;
 
+    @Autowired
+    private IndexOutboxRepository indexOutboxRepository;
+
     @Autowired
     private ReleaseService releaseService;
 
@@ -98,6 +122,24 @@ public class ReleaseResourceIT {
     @Autowired
     private ReleaseQueryService releaseQueryService;
 
+    @Autowired
+    private ReleaseDiffService releaseDiffService;
+
+    @Autowired
+    private ReleaseNotesService releaseNotesService;
+
+    @Autowired
+    private ReleaseStatsService releaseStatsService;
+
+    @Autowired
+    private SprQueryService sprQueryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -120,12 +162,13 @@ public class ReleaseResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final ReleaseResource releaseResource = new ReleaseResource(releaseService, releaseQueryService);
+        final ReleaseResource releaseResource = new ReleaseResource(releaseService, releaseQueryService, releaseDiffService, releaseNotesService,
+            releaseStatsService, sprQueryService, entityVersionRegistry);
         this.restReleaseMockMvc = MockMvcBuilders.standaloneSetup(releaseResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
             .setConversionService(createFormattingConversionService())
-            .setMessageConverters(jacksonMessageConverter)
+            .setMessageConverters(new ByteArrayHttpMessageConverter(), jacksonMessageConverter)
             .setValidator(validator).build();
     }
 
@@ -186,7 +229,7 @@ public class ReleaseResourceIT {
         assertThat(testRelease.isCurrent()).isEqualTo(DEFAULT_CURRENT);
 
         // Validate the Release in Elasticsearch
-        verify(mockReleaseSearchRepository, times(1)).save(testRelease);
+        assertThat(pendingIndexOperations(em, Release.class, testRelease.getId())).containsExactly(IndexOperation.INDEX);
     }
 
     @Test
@@ -208,7 +251,7 @@ public class ReleaseResourceIT {
         assertThat(releaseList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Release in Elasticsearch
-        verify(mockReleaseSearchRepository, times(0)).save(release);
+        assertThat(pendingIndexOperations(em, Release.class, release.getId())).isEmpty();
     }
 
 
@@ -340,8 +383,8 @@ public class ReleaseResourceIT {
             .andExpect(jsonPath("$.[*].wsVersion").value(hasItem(DEFAULT_WS_VERSION.toString())))
             .andExpect(jsonPath("$.[*].tmaVersion").value(hasItem(DEFAULT_TMA_VERSION.toString())))
             .andExpect(jsonPath("$.[*].port").value(hasItem(DEFAULT_PORT)))
-            .andExpect(jsonPath("$.[*].newFeatures").value(hasItem(DEFAULT_NEW_FEATURES.toString())))
-            .andExpect(jsonPath("$.[*].updatedFeatures").value(hasItem(DEFAULT_UPDATED_FEATURES.toString())))
+            .andExpect(jsonPath("$.[*].newFeatures").doesNotExist())
+            .andExpect(jsonPath("$.[*].updatedFeatures").doesNotExist())
             .andExpect(jsonPath("$.[*].current").value(hasItem(DEFAULT_CURRENT.booleanValue())));
     }
     
@@ -367,7 +410,132 @@ public class ReleaseResourceIT {
             .andExpect(jsonPath("$.port").value(DEFAULT_PORT))
             .andExpect(jsonPath("$.newFeatures").value(DEFAULT_NEW_FEATURES.toString()))
             .andExpect(jsonPath("$.updatedFeatures").value(DEFAULT_UPDATED_FEATURES.toString()))
-            .andExpect(jsonPath("$.current").value(DEFAULT_CURRENT.booleanValue()));
+            .andExpect(jsonPath("$.current").value(DEFAULT_CURRENT.booleanValue()))
+            .andExpect(jsonPath("$.sprCount").value(0))
+            .andExpect(jsonPath("$.sprs").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void getReleaseSprs() throws Exception {
+        // Initialize the database with a release of three sprs, one of them fixed
+        Release created = createRelease(Territory.SED, 1, Instant.ofEpochSecond(1000), 8021);
+        for (int number = 8022; number <= 8023; number++) {
+            em.persist(new Spr()
+                .territory(Territory.SED)
+                .number(number)
+                .fullNumber("SED-" + number)
+                .resolution(Resolution.NEW)
+                .release(created));
+        }
+        em.flush();
+
+        // The release itself only counts them
+        restReleaseMockMvc.perform(get("/api/releases/{id}", created.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.sprCount").value(3))
+            .andExpect(jsonPath("$.sprs").doesNotExist());
+
+        // Get the first page of its sprs, sorted by number
+        restReleaseMockMvc.perform(get("/api/releases/{id}/sprs?sort=number,desc&size=2", created.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.[*].number").value(contains(8023, 8022)))
+            .andExpect(jsonPath("$.[*].description").doesNotExist());
+
+        // Get its sprs matching criteria
+        restReleaseMockMvc.perform(get("/api/releases/{id}/sprs?resolution.equals=FIXED", created.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].number").value(contains(8021)));
+
+        restReleaseMockMvc.perform(get("/api/releases/{id}/sprs", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getCurrentReleases() throws Exception {
+        // Initialize the database, committing so that the current releases snapshot follows
+        release.setCurrent(true);
+        Release saved = releaseService.save(release);
+        try {
+            // Get the current releases, without their features
+            restReleaseMockMvc.perform(get("/api/releases/current"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(saved.getId().intValue())))
+                .andExpect(jsonPath("$.[*].build").value(hasItem(DEFAULT_BUILD)))
+                .andExpect(jsonPath("$.[*].current").value(hasItem(true)))
+                .andExpect(jsonPath("$.[*].newFeatures").doesNotExist())
+                .andExpect(jsonPath("$.[*].updatedFeatures").doesNotExist());
+
+            // Leaving production removes it from the current releases
+            releaseService.save(saved.current(false));
+            restReleaseMockMvc.perform(get("/api/releases/current"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(saved.getId().intValue()))));
+        } finally {
+            releaseService.delete(saved.getId());
+        }
+    }
+
+    @Test
+    public void createCurrentReleaseWhenTerritoryHasOne() throws Exception {
+        release.setCurrent(true);
+        Release saved = releaseService.save(release);
+        try {
+            int databaseSizeBeforeCreate = releaseRepository.findAll().size();
+
+            // A second release in production for the territory is rejected
+            restReleaseMockMvc.perform(post("/api/releases")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(createEntity(em).current(true))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.currentExists"));
+
+            assertThat(releaseRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+        } finally {
+            releaseService.delete(saved.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    public void getCurrentReleasesNotModified() throws Exception {
+        String etag = restReleaseMockMvc.perform(get("/api/releases/current"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        // Get the current releases again with the version the client holds
+        restReleaseMockMvc.perform(get("/api/releases/current").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().string(""));
+
+        // A weak validator in a list matches too
+        restReleaseMockMvc.perform(get("/api/releases/current").header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+            .andExpect(status().isNotModified());
+
+        restReleaseMockMvc.perform(get("/api/releases/current").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    public void getCurrentReleasesModifiedAfterCommit() throws Exception {
+        String etag = restReleaseMockMvc.perform(get("/api/releases/current"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Commit a release, outside of any test transaction
+        Release saved = releaseService.save(release);
+        try {
+            restReleaseMockMvc.perform(get("/api/releases/current").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+        } finally {
+            releaseService.delete(saved.getId());
+        }
     }
 
     @Test
@@ -849,8 +1017,8 @@ public class ReleaseResourceIT {
             .andExpect(jsonPath("$.[*].wsVersion").value(hasItem(DEFAULT_WS_VERSION)))
             .andExpect(jsonPath("$.[*].tmaVersion").value(hasItem(DEFAULT_TMA_VERSION)))
             .andExpect(jsonPath("$.[*].port").value(hasItem(DEFAULT_PORT)))
-            .andExpect(jsonPath("$.[*].newFeatures").value(hasItem(DEFAULT_NEW_FEATURES.toString())))
-            .andExpect(jsonPath("$.[*].updatedFeatures").value(hasItem(DEFAULT_UPDATED_FEATURES.toString())))
+            .andExpect(jsonPath("$.[*].newFeatures").doesNotExist())
+            .andExpect(jsonPath("$.[*].updatedFeatures").doesNotExist())
             .andExpect(jsonPath("$.[*].current").value(hasItem(DEFAULT_CURRENT.booleanValue())));
 
         // Check, that the count call also returns 1
@@ -878,6 +1046,152 @@ public class ReleaseResourceIT {
     }
 
 
+    @Test
+    @Transactional
+    public void getReleaseDiff() throws Exception {
+        // Initialize the database with three builds of a territory, delivering one spr each
+        Release first = createRelease(Territory.SED, 1, Instant.ofEpochSecond(1000), 8003);
+        Release second = createRelease(Territory.SED, 2, Instant.ofEpochSecond(2000), 8002);
+        Release third = createRelease(Territory.SED, 3, Instant.ofEpochSecond(3000), 8001);
+
+        // Get the sprs added from the first build to the third one, sorted by number
+        restReleaseMockMvc.perform(get("/api/releases/{from}/diff/{to}", first.getId(), third.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.from.id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$.to.id").value(third.getId().intValue()))
+            .andExpect(jsonPath("$.added.[*].number").value(contains(8001, 8002)))
+            .andExpect(jsonPath("$.added.[0].releaseId").value(third.getId().intValue()))
+            .andExpect(jsonPath("$.added.[0].resolution").value(Resolution.FIXED.toString()))
+            .andExpect(jsonPath("$.removed").isEmpty());
+
+        // Going back to an earlier build removes them
+        restReleaseMockMvc.perform(get("/api/releases/{from}/diff/{to}", third.getId(), second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.added").isEmpty())
+            .andExpect(jsonPath("$.removed.[*].number").value(contains(8001)));
+    }
+
+    @Test
+    @Transactional
+    public void getReleaseDiffAcrossTerritories() throws Exception {
+        Release sed = createRelease(Territory.SED, 1, Instant.ofEpochSecond(1000), 8011);
+        Release ned = createRelease(Territory.NED, 2, Instant.ofEpochSecond(2000), 8012);
+
+        restReleaseMockMvc.perform(get("/api/releases/{from}/diff/{to}", sed.getId(), ned.getId()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.territorymismatch"));
+    }
+
+    @Test
+    @Transactional
+    public void getReleaseDiffOfNonExistingRelease() throws Exception {
+        releaseRepository.saveAndFlush(release);
+
+        restReleaseMockMvc.perform(get("/api/releases/{from}/diff/{to}", release.getId(), Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getReleaseNotes() throws Exception {
+        // Initialize the database with a release of one spr, with markup in its features
+        Release created = createRelease(Territory.SED, 7, Instant.ofEpochSecond(1000), 8031);
+        created.setNewFeatures("Faster <search> & export");
+
+        // Get the notes in Markdown
+        restReleaseMockMvc.perform(get("/api/releases/{id}/notes?format=md", created.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/markdown;charset=UTF-8"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().string(containsString("# SED release " + DEFAULT_PREFIX_LETTER + DEFAULT_RELEASE_LETTER + " build 7")))
+            .andExpect(content().string(containsString("Faster <search> & export")))
+            .andExpect(content().string(containsString("- **SED-8031** (FIXED)")));
+
+        // Get the notes in HTML, gzipped
+        byte[] gzipped = restReleaseMockMvc.perform(get("/api/releases/{id}/notes", created.getId())
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/html;charset=UTF-8"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andReturn().getResponse().getContentAsByteArray();
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(gzipped));
+             Scanner scanner = new Scanner(input, StandardCharsets.UTF_8.name()).useDelimiter("\\A")) {
+            assertThat(scanner.next())
+                .contains("<h1>SED release " + DEFAULT_PREFIX_LETTER + DEFAULT_RELEASE_LETTER + " build 7</h1>")
+                .contains("Faster &lt;search&gt; &amp; export")
+                .contains("<strong>SED-8031</strong>");
+        }
+    }
+
+    @Test
+    @Transactional
+    public void getReleaseNotesNotModified() throws Exception {
+        releaseRepository.saveAndFlush(release);
+
+        String etag = restReleaseMockMvc.perform(get("/api/releases/{id}/notes", release.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        restReleaseMockMvc.perform(get("/api/releases/{id}/notes", release.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        // The gzipped notes are another representation, with their own ETag
+        restReleaseMockMvc.perform(get("/api/releases/{id}/notes", release.getId())
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+
+        restReleaseMockMvc.perform(get("/api/releases/{id}/notes?format=pdf", release.getId()))
+            .andExpect(status().isBadRequest());
+        restReleaseMockMvc.perform(get("/api/releases/{id}/notes", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getReleaseStats() throws Exception {
+        // Initialize the database with three releases of a territory, the first one delivering an spr
+        createRelease(Territory.PSCC, 1, Instant.parse("2019-01-05T10:00:00Z"), 8041);
+        Release second = createEntity(em).territory(Territory.PSCC).build(2).date(Instant.parse("2019-01-20T10:00:00Z"));
+        em.persist(second);
+        Release third = createEntity(em).territory(Territory.PSCC).build(3).date(Instant.parse("2019-03-02T10:00:00Z")).current(true);
+        em.persist(third);
+        em.flush();
+        // The statistics of the rolled back tests are cached under the same version
+        cacheManager.getCache(ReleaseStatsService.RELEASE_STATS_CACHE).clear();
+
+        String pscc = "$.territories[?(@.territory == 'PSCC')]";
+        restReleaseMockMvc.perform(get("/api/releases/stats"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath(pscc + ".releaseCount").value(3))
+            .andExpect(jsonPath(pscc + ".currentBuild").value(3))
+            .andExpect(jsonPath(pscc + ".currentReleaseId").value(third.getId().intValue()))
+            .andExpect(jsonPath(pscc + ".averageDaysBetweenReleases").value(28.0))
+            .andExpect(jsonPath(pscc + ".averageSprsPerRelease").value(0.33))
+            .andExpect(jsonPath(pscc + ".releasesPerMonth[*].month").value(contains("2019-01", "2019-03")))
+            .andExpect(jsonPath(pscc + ".releasesPerMonth[*].releases").value(contains(2, 1)))
+            .andExpect(jsonPath(pscc + ".timeline[*].build").value(contains(1, 2, 3)))
+            .andExpect(jsonPath(pscc + ".timeline[*].daysSincePreviousRelease").value(contains(null, 15.0, 41.0)))
+            .andExpect(jsonPath(pscc + ".timeline[*].sprs").value(contains(1, 0, 0)));
+    }
+
+    private Release createRelease(Territory territory, int build, Instant date, int sprNumber) {
+        Release created = createEntity(em).territory(territory).build(build).date(date);
+        em.persist(created);
+        em.persist(new Spr()
+            .territory(territory)
+            .number(sprNumber)
+            .fullNumber(territory + "-" + sprNumber)
+            .resolution(Resolution.FIXED)
+            .release(created));
+        em.flush();
+        return created;
+    }
+
     @Test
     @Transactional
     public void getNonExistingRelease() throws Exception {
@@ -891,8 +1205,8 @@ public class ReleaseResourceIT {
     public void updateRelease() throws Exception {
         // Initialize the database
         releaseService.save(release);
-        // As the test used the service layer, reset the Elasticsearch mock repository
-        reset(mockReleaseSearchRepository);
+        // As the test used the service layer, clear the index outbox
+        indexOutboxRepository.deleteAll();
 
         int databaseSizeBeforeUpdate = releaseRepository.findAll().size();
 
@@ -937,7 +1251,7 @@ public class ReleaseResourceIT {
         assertThat(testRelease.isCurrent()).isEqualTo(UPDATED_CURRENT);
 
         // Validate the Release in Elasticsearch
-        verify(mockReleaseSearchRepository, times(1)).save(testRelease);
+        assertThat(pendingIndexOperations(em, Release.class, testRelease.getId())).containsExactly(IndexOperation.INDEX);
     }
 
     @Test
@@ -958,7 +1272,7 @@ public class ReleaseResourceIT {
         assertThat(releaseList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Release in Elasticsearch
-        verify(mockReleaseSearchRepository, times(0)).save(release);
+        assertThat(pendingIndexOperations(em, Release.class, release.getId())).isEmpty();
     }
 
     @Test
@@ -979,7 +1293,7 @@ public class ReleaseResourceIT {
         assertThat(releaseList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Release in Elasticsearch
-        verify(mockReleaseSearchRepository, times(1)).deleteById(release.getId());
+        assertThat(pendingIndexOperations(em, Release.class, release.getId())).containsExactly(IndexOperation.INDEX, IndexOperation.DELETE);
     }
 
     @Test
@@ -987,11 +1301,12 @@ public class ReleaseResourceIT {
     public void searchRelease() throws Exception {
         // Initialize the database
         releaseService.save(release);
-        when(mockReleaseSearchRepository.search(queryStringQuery("id:" + release.getId())))
-            .thenReturn(Collections.singletonList(release));
+        when(mockReleaseSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(release)));
         // Search the release
         restReleaseMockMvc.perform(get("/api/_search/releases?query=id:" + release.getId()))
             .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(release.getId().intValue())))
             .andExpect(jsonPath("$.[*].date").value(hasItem(DEFAULT_DATE.toString())))
@@ -2,37 +2,56 @@ package com.amtrak.application.web.rest;
 
 import com.amtrak.application.AmtecPortalApp;
 import com.amtrak.application.domain.Spr;
+import com.amtrak.application.domain.enumeration.IndexOperation;
 import com.amtrak.application.domain.User;
 import com.amtrak.application.domain.Release;
+import com.amtrak.application.repository.IndexOutboxRepository;
 import com.amtrak.application.repository.SprRepository;
 import com.amtrak.application.repository.search.SprSearchRepository;
+import com.amtrak.application.service.OpenSprCounterRegistry;
+import com.amtrak.application.service.SearchCache;
+import com.amtrak.application.service.EntityVersionRegistry;
+import com.amtrak.application.service.SprBatchService;
+import com.amtrak.application.service.SprExportService;
+import com.amtrak.application.service.SprImportService;
 import com.amtrak.application.service.SprService;
 import com.amtrak.application.web.rest.errors.ExceptionTranslator;
+import com.amtrak.application.web.rest.util.KeysetPaginationUtil;
+import com.amtrak.application.service.util.SearchPageUtil;
 import com.amtrak.application.service.dto.SprCriteria;
 import com.amtrak.application.service.SprQueryService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Base64Utils;
 import org.springframework.validation.Validator;
 
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static com.amtrak.application.web.rest.TestUtil.pendingIndexOperations;
 import static com.amtrak.application.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -73,6 +92,9 @@ public class SprResourceIT {
     @Autowired
     private SprRepository sprRepository;
 
+    @Autowired
+    private IndexOutboxRepository indexOutboxRepository;
+
     @Autowired
     private SprService sprService;
 
@@ -84,9 +106,27 @@ public class SprResourceIT {
     @Autowired
     private SprSearchRepository mockSprSearchRepository;
 
+    @Autowired
+    private SearchCache searchCache;
+
     @Autowired
     private SprQueryService sprQueryService;
 
+    @Autowired
+    private OpenSprCounterRegistry openSprCounterRegistry;
+
+    @Autowired
+    private SprExportService sprExportService;
+
+    @Autowired
+    private SprBatchService sprBatchService;
+
+    @Autowired
+    private SprImportService sprImportService;
+
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -109,7 +149,8 @@ public class SprResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final SprResource sprResource = new SprResource(sprService, sprQueryService);
+        final SprResource sprResource = new SprResource(sprService, sprQueryService, sprExportService, sprBatchService, sprImportService,
+            entityVersionRegistry);
         this.restSprMockMvc = MockMvcBuilders.standaloneSetup(sprResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -167,7 +208,7 @@ public class SprResourceIT {
         assertThat(testSpr.getReviewerId()).isEqualTo(DEFAULT_REVIEWER_ID);
 
         // Validate the Spr in Elasticsearch
-        verify(mockSprSearchRepository, times(1)).save(testSpr);
+        assertThat(pendingIndexOperations(em, Spr.class, testSpr.getId())).containsExactly(IndexOperation.INDEX);
     }
 
     @Test
@@ -189,7 +230,7 @@ public class SprResourceIT {
         assertThat(sprList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Spr in Elasticsearch
-        verify(mockSprSearchRepository, times(0)).save(spr);
+        assertThat(pendingIndexOperations(em, Spr.class, spr.getId())).isEmpty();
     }
 
 
@@ -261,7 +302,7 @@ public class SprResourceIT {
             .andExpect(jsonPath("$.[*].territory").value(hasItem(DEFAULT_TERRITORY.toString())))
             .andExpect(jsonPath("$.[*].number").value(hasItem(DEFAULT_NUMBER)))
             .andExpect(jsonPath("$.[*].fullNumber").value(hasItem(DEFAULT_FULL_NUMBER.toString())))
-            .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION.toString())))
+            .andExpect(jsonPath("$.[*].description").doesNotExist())
             .andExpect(jsonPath("$.[*].priority").value(hasItem(DEFAULT_PRIORITY.toString())))
             .andExpect(jsonPath("$.[*].resolution").value(hasItem(DEFAULT_RESOLUTION.toString())))
             .andExpect(jsonPath("$.[*].jiraLink").value(hasItem(DEFAULT_JIRA_LINK.toString())))
@@ -664,7 +705,7 @@ public class SprResourceIT {
             .andExpect(jsonPath("$.[*].territory").value(hasItem(DEFAULT_TERRITORY.toString())))
             .andExpect(jsonPath("$.[*].number").value(hasItem(DEFAULT_NUMBER)))
             .andExpect(jsonPath("$.[*].fullNumber").value(hasItem(DEFAULT_FULL_NUMBER)))
-            .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION.toString())))
+            .andExpect(jsonPath("$.[*].description").doesNotExist())
             .andExpect(jsonPath("$.[*].priority").value(hasItem(DEFAULT_PRIORITY.toString())))
             .andExpect(jsonPath("$.[*].resolution").value(hasItem(DEFAULT_RESOLUTION.toString())))
             .andExpect(jsonPath("$.[*].jiraLink").value(hasItem(DEFAULT_JIRA_LINK)))
@@ -695,6 +736,130 @@ public class SprResourceIT {
     }
 
 
+    @Test
+    @Transactional
+    public void getAllSprsByKeysetPages() throws Exception {
+        // Initialize the database
+        sprRepository.saveAndFlush(spr);
+        sprRepository.saveAndFlush(createEntity(em).number(UPDATED_NUMBER).fullNumber(UPDATED_FULL_NUMBER));
+        sprRepository.saveAndFlush(createEntity(em).number(3).fullNumber("CCCCCCCCCC"));
+
+        // Get the first page
+        MvcResult firstPage = restSprMockMvc.perform(get("/api/sprs?sort=number,asc&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].number").value(contains(DEFAULT_NUMBER, UPDATED_NUMBER)))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+        String cursor = firstPage.getResponse().getHeader(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isNotNull();
+
+        // Get the next, and last, page
+        restSprMockMvc.perform(get("/api/sprs?sort=number,asc&size=2&after=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].number").value(contains(3)))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        // A cursor is only valid for the sort it was built with
+        restSprMockMvc.perform(get("/api/sprs?sort=number,desc&size=2&after=" + cursor))
+            .andExpect(status().isBadRequest());
+        restSprMockMvc.perform(get("/api/sprs?sort=description,asc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void exportSprs() throws Exception {
+        // The export is streamed asynchronously
+        restSprMockMvc.perform(get("/api/sprs/export?format=csv"))
+            .andExpect(request().asyncStarted());
+
+        // Only the supported formats can be exported
+        restSprMockMvc.perform(get("/api/sprs/export?format=xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllOpenSprs() throws Exception {
+        // Initialize the database with an open, an unresolved and a closed spr
+        sprRepository.saveAndFlush(spr);
+        Spr unresolvedSpr = createEntity(em)
+            .number(UPDATED_NUMBER)
+            .fullNumber(UPDATED_FULL_NUMBER)
+            .resolution(null);
+        sprRepository.saveAndFlush(unresolvedSpr);
+        Spr closedSpr = createEntity(em)
+            .number(3)
+            .fullNumber("CCCCCCCCCC")
+            .resolution(Resolution.RELEASED);
+        sprRepository.saveAndFlush(closedSpr);
+
+        // Get all the open sprs
+        restSprMockMvc.perform(get("/api/sprs/open"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(spr.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(unresolvedSpr.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(closedSpr.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    public void getAllUserOpenSprCounts() throws Exception {
+        // Initialize the database with two open sprs and a closed one for the same user
+        User user = UserResourceIT.createEntity(em);
+        em.persist(user);
+        em.flush();
+        sprRepository.saveAndFlush(spr.user(user));
+        sprRepository.saveAndFlush(createEntity(em)
+            .number(UPDATED_NUMBER)
+            .fullNumber(UPDATED_FULL_NUMBER)
+            .user(user));
+        sprRepository.saveAndFlush(createEntity(em)
+            .number(3)
+            .fullNumber("CCCCCCCCCC")
+            .resolution(Resolution.FIXED)
+            .user(user));
+        openSprCounterRegistry.reconcile();
+
+        // Get the open spr count per user
+        restSprMockMvc.perform(get("/api/sprs/open/counts"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[?(@.login == '" + user.getLogin() + "')].userId").value(user.getId().intValue()))
+            .andExpect(jsonPath("$.[?(@.login == '" + user.getLogin() + "')].count").value(2));
+
+        // Get the open spr count per territory and per priority
+        restSprMockMvc.perform(get("/api/sprs/open/counts/territories"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$." + DEFAULT_TERRITORY).value(2));
+        restSprMockMvc.perform(get("/api/sprs/open/counts/priorities"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$." + DEFAULT_PRIORITY).value(2));
+    }
+
+    @Test
+    public void openSprCountersFollowCommittedChanges() {
+        openSprCounterRegistry.reconcile();
+        long openBefore = openSprCounterRegistry.getTerritoryCounts().getOrDefault(DEFAULT_TERRITORY, 0L);
+
+        // Creating an open spr counts it once committed
+        Spr saved = sprService.save(spr);
+        assertThat(openSprCounterRegistry.getTerritoryCounts().getOrDefault(DEFAULT_TERRITORY, 0L))
+            .isEqualTo(openBefore + 1);
+
+        // Closing it removes it from the counters
+        sprService.save(saved.resolution(Resolution.RELEASED));
+        assertThat(openSprCounterRegistry.getTerritoryCounts().getOrDefault(DEFAULT_TERRITORY, 0L))
+            .isEqualTo(openBefore);
+
+        // Reopening then deleting it leaves the counters as they were
+        sprService.save(saved.resolution(Resolution.NEW));
+        sprService.delete(saved.getId());
+        assertThat(openSprCounterRegistry.getTerritoryCounts().getOrDefault(DEFAULT_TERRITORY, 0L))
+            .isEqualTo(openBefore);
+    }
+
     @Test
     @Transactional
     public void getNonExistingSpr() throws Exception {
@@ -708,8 +873,8 @@ public class SprResourceIT {
     public void updateSpr() throws Exception {
         // Initialize the database
         sprService.save(spr);
-        // As the test used the service layer, reset the Elasticsearch mock repository
-        reset(mockSprSearchRepository);
+        // As the test used the service layer, clear the index outbox
+        indexOutboxRepository.deleteAll();
 
         int databaseSizeBeforeUpdate = sprRepository.findAll().size();
 
@@ -746,7 +911,7 @@ public class SprResourceIT {
         assertThat(testSpr.getReviewerId()).isEqualTo(UPDATED_REVIEWER_ID);
 
         // Validate the Spr in Elasticsearch
-        verify(mockSprSearchRepository, times(1)).save(testSpr);
+        assertThat(pendingIndexOperations(em, Spr.class, testSpr.getId())).containsExactly(IndexOperation.INDEX);
     }
 
     @Test
@@ -767,7 +932,106 @@ public class SprResourceIT {
         assertThat(sprList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Spr in Elasticsearch
-        verify(mockSprSearchRepository, times(0)).save(spr);
+        assertThat(pendingIndexOperations(em, Spr.class, spr.getId())).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    public void createSprsInBatch() throws Exception {
+        int databaseSizeBeforeCreate = sprRepository.findAll().size();
+
+        Spr other = createEntity(em).number(UPDATED_NUMBER).fullNumber(UPDATED_FULL_NUMBER);
+        Spr withId = createEntity(em).number(3).fullNumber("CCCCCCCCCC");
+        withId.setId(1L);
+        Spr duplicate = createEntity(em).number(4).fullNumber(DEFAULT_FULL_NUMBER);
+        Spr invalid = createEntity(em).number(5).fullNumber("DDDDDDDDDD").territory(null);
+
+        // Create the Sprs, only the valid ones are saved
+        restSprMockMvc.perform(post("/api/sprs/batch")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(spr, other, withId, duplicate, invalid))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3, 4)))
+            .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "CREATED", "FAILED", "FAILED", "FAILED")))
+            .andExpect(jsonPath("$.[2].errorKey").value("idexists"))
+            .andExpect(jsonPath("$.[3].errorKey").value("duplicate"))
+            .andExpect(jsonPath("$.[4].errorKey").value("invalid"));
+
+        // Validate the Sprs in the database
+        List<Spr> sprList = sprRepository.findAll();
+        assertThat(sprList).hasSize(databaseSizeBeforeCreate + 2);
+        assertThat(sprList).extracting(Spr::getFullNumber).contains(DEFAULT_FULL_NUMBER, UPDATED_FULL_NUMBER);
+
+        // Validate the Sprs in Elasticsearch, queued at once
+        assertThat(sprList)
+            .filteredOn(created -> Arrays.asList(DEFAULT_FULL_NUMBER, UPDATED_FULL_NUMBER).contains(created.getFullNumber()))
+            .allSatisfy(created -> assertThat(pendingIndexOperations(em, Spr.class, created.getId()))
+                .containsExactly(IndexOperation.INDEX));
+    }
+
+    @Test
+    @Transactional
+    public void createSprsInBatchWithMissingReferences() throws Exception {
+        Release release = ReleaseResourceIT.createEntity(em);
+        em.persist(release);
+        em.flush();
+        spr.setRelease(release);
+        int databaseSizeBeforeCreate = sprRepository.findAll().size();
+
+        Release missingRelease = new Release();
+        missingRelease.setId(Long.MAX_VALUE);
+        Spr withMissingRelease = createEntity(em).number(UPDATED_NUMBER).fullNumber(UPDATED_FULL_NUMBER).release(missingRelease);
+        User missingUser = new User();
+        missingUser.setId(Long.MAX_VALUE);
+        Spr withMissingUser = createEntity(em).number(3).fullNumber("CCCCCCCCCC").user(missingUser);
+
+        // Create the Sprs, the ones referencing missing entities fail alone
+        restSprMockMvc.perform(post("/api/sprs/batch")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(spr, withMissingRelease, withMissingUser))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "FAILED", "FAILED")))
+            .andExpect(jsonPath("$.[1].errorKey").value("releasenotfound"))
+            .andExpect(jsonPath("$.[2].errorKey").value("usernotfound"));
+
+        // Validate the Sprs in the database
+        List<Spr> sprList = sprRepository.findAll();
+        assertThat(sprList).hasSize(databaseSizeBeforeCreate + 1);
+        assertThat(sprList).filteredOn(created -> DEFAULT_FULL_NUMBER.equals(created.getFullNumber()))
+            .extracting(created -> created.getRelease().getId()).containsExactly(release.getId());
+    }
+
+    @Test
+    @Transactional
+    public void updateSprsInBatch() throws Exception {
+        // Initialize the database
+        sprRepository.saveAndFlush(spr);
+        Spr other = sprRepository.saveAndFlush(createEntity(em).number(UPDATED_NUMBER).fullNumber(UPDATED_FULL_NUMBER));
+        sprRepository.saveAndFlush(createEntity(em).number(3).fullNumber("CCCCCCCCCC"));
+        int databaseSizeBeforeUpdate = sprRepository.findAll().size();
+
+        Spr updatedSpr = createEntity(em).resolution(UPDATED_RESOLUTION);
+        updatedSpr.setId(spr.getId());
+        Spr conflicting = createEntity(em).number(UPDATED_NUMBER).fullNumber("CCCCCCCCCC");
+        conflicting.setId(other.getId());
+        Spr unknown = createEntity(em).number(4).fullNumber("DDDDDDDDDD");
+        unknown.setId(Long.MAX_VALUE);
+
+        // Update the Sprs, only the valid ones are saved
+        restSprMockMvc.perform(put("/api/sprs/batch")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedSpr, conflicting, unknown, new Spr()))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("UPDATED", "FAILED", "FAILED", "FAILED")))
+            .andExpect(jsonPath("$.[0].id").value(spr.getId().intValue()))
+            .andExpect(jsonPath("$.[1].errorKey").value("numberexists"))
+            .andExpect(jsonPath("$.[2].errorKey").value("idnotfound"))
+            .andExpect(jsonPath("$.[3].errorKey").value("idnull"));
+
+        // Validate the Sprs in the database
+        assertThat(sprRepository.findAll()).hasSize(databaseSizeBeforeUpdate);
+        assertThat(sprRepository.findById(spr.getId()).get().getResolution()).isEqualTo(UPDATED_RESOLUTION);
+        assertThat(sprRepository.findById(other.getId()).get().getFullNumber()).isEqualTo(UPDATED_FULL_NUMBER);
     }
 
     @Test
@@ -788,7 +1052,7 @@ public class SprResourceIT {
         assertThat(sprList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Spr in Elasticsearch
-        verify(mockSprSearchRepository, times(1)).deleteById(spr.getId());
+        assertThat(pendingIndexOperations(em, Spr.class, spr.getId())).containsExactly(IndexOperation.INDEX, IndexOperation.DELETE);
     }
 
     @Test
@@ -796,11 +1060,12 @@ public class SprResourceIT {
     public void searchSpr() throws Exception {
         // Initialize the database
         sprService.save(spr);
-        when(mockSprSearchRepository.search(queryStringQuery("id:" + spr.getId())))
-            .thenReturn(Collections.singletonList(spr));
+        when(mockSprSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(spr)));
         // Search the spr
         restSprMockMvc.perform(get("/api/_search/sprs?query=id:" + spr.getId()))
             .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(spr.getId().intValue())))
             .andExpect(jsonPath("$.[*].territory").value(hasItem(DEFAULT_TERRITORY.toString())))
@@ -813,6 +1078,78 @@ public class SprResourceIT {
             .andExpect(jsonPath("$.[*].reviewerId").value(hasItem(DEFAULT_REVIEWER_ID.intValue())));
     }
 
+    @Test
+    @Transactional
+    public void searchSprsByKeysetPages() throws Exception {
+        // Initialize the database
+        sprService.save(spr);
+        Spr other = sprService.save(createEntity(em).number(UPDATED_NUMBER).fullNumber(UPDATED_FULL_NUMBER));
+        when(mockSprSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Arrays.asList(spr, other)));
+
+        // One more hit than requested is read, to know whether there is a next page
+        MvcResult firstPage = restSprMockMvc.perform(get("/api/_search/sprs?query=*&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(spr.getId().intValue())))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+        String cursor = firstPage.getResponse().getHeader(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isNotNull();
+        ArgumentCaptor<SearchQuery> query = ArgumentCaptor.forClass(SearchQuery.class);
+        verify(mockSprSearchRepository).search(query.capture());
+        assertThat(query.getValue().getPageable().getPageSize()).isEqualTo(2);
+
+        // The next page only holds the hits after the cursor, and does not count them again
+        reset(mockSprSearchRepository);
+        when(mockSprSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(other)));
+        restSprMockMvc.perform(get("/api/_search/sprs?query=*&size=1&after=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(other.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+        verify(mockSprSearchRepository).search(query.capture());
+        assertThat(query.getValue().getQuery().toString()).contains("\"from\" : " + spr.getId());
+
+        // Pages are capped, whatever the requested size
+        restSprMockMvc.perform(get("/api/_search/sprs?query=*&size=100000"))
+            .andExpect(status().isOk());
+        verify(mockSprSearchRepository, times(2)).search(query.capture());
+        assertThat(query.getValue().getPageable().getPageSize()).isEqualTo(SearchPageUtil.MAX_PAGE_SIZE + 1);
+
+        // A cursor is only valid for the sort it was built with, and hits can only be sorted by id
+        restSprMockMvc.perform(get("/api/_search/sprs?query=*&sort=id,desc&after=" + cursor))
+            .andExpect(status().isBadRequest());
+        restSprMockMvc.perform(get("/api/_search/sprs?query=*&sort=number,asc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void searchSprIsCachedUntilIndexed() throws Exception {
+        // Initialize the database
+        sprService.save(spr);
+        when(mockSprSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(spr)));
+
+        // The same query, up to whitespace, is only sent once
+        restSprMockMvc.perform(get("/api/_search/sprs?query=id:" + spr.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(spr.getId().intValue())));
+        restSprMockMvc.perform(get("/api/_search/sprs?query= id:" + spr.getId() + " "))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(spr.getId().intValue())));
+        verify(mockSprSearchRepository, times(1)).search(any(SearchQuery.class));
+
+        // Once the index changes, the query is sent again
+        searchCache.invalidate(Spr.class);
+        restSprMockMvc.perform(get("/api/_search/sprs?query=id:" + spr.getId()))
+            .andExpect(status().isOk());
+        verify(mockSprSearchRepository, times(2)).search(any(SearchQuery.class));
+    }
+
     @Test
     @Transactional
     public void equalsVerifier() throws Exception {
@@ -2,18 +2,23 @@ package com.amtrak.application.web.rest;
 
 import com.amtrak.application.AmtecPortalApp;
 import com.amtrak.application.domain.TeamEvent;
+import com.amtrak.application.domain.enumeration.IndexOperation;
+import com.amtrak.application.repository.IndexOutboxRepository;
 import com.amtrak.application.repository.TeamEventRepository;
 import com.amtrak.application.repository.search.TeamEventSearchRepository;
 import com.amtrak.application.service.TeamEventService;
 import com.amtrak.application.web.rest.errors.ExceptionTranslator;
 import com.amtrak.application.service.dto.TeamEventCriteria;
 import com.amtrak.application.service.TeamEventQueryService;
+import com.amtrak.application.service.EntityVersionRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -29,9 +34,9 @@ import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 
+import static com.amtrak.application.web.rest.TestUtil.pendingIndexOperations;
 import static com.amtrak.application.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -55,6 +60,9 @@ public class TeamEventResourceIT {
     @Autowired
     private TeamEventRepository teamEventRepository;
 
+    @Autowired
+    private IndexOutboxRepository indexOutboxRepository;
+
     @Autowired
     private TeamEventService teamEventService;
 
@@ -69,6 +77,9 @@ public class TeamEventResourceIT {
     @Autowired
     private TeamEventQueryService teamEventQueryService;
 
+    @Autowired
+    private EntityVersionRegistry entityVersionRegistry;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -91,7 +102,7 @@ public class TeamEventResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final TeamEventResource teamEventResource = new TeamEventResource(teamEventService, teamEventQueryService);
+        final TeamEventResource teamEventResource = new TeamEventResource(teamEventService, teamEventQueryService, entityVersionRegistry);
         this.restTeamEventMockMvc = MockMvcBuilders.standaloneSetup(teamEventResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -139,7 +150,7 @@ public class TeamEventResourceIT {
         assertThat(testTeamEvent.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
 
         // Validate the TeamEvent in Elasticsearch
-        verify(mockTeamEventSearchRepository, times(1)).save(testTeamEvent);
+        assertThat(pendingIndexOperations(em, TeamEvent.class, testTeamEvent.getId())).containsExactly(IndexOperation.INDEX);
     }
 
     @Test
@@ -161,7 +172,7 @@ public class TeamEventResourceIT {
         assertThat(teamEventList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the TeamEvent in Elasticsearch
-        verify(mockTeamEventSearchRepository, times(0)).save(teamEvent);
+        assertThat(pendingIndexOperations(em, TeamEvent.class, teamEvent.getId())).isEmpty();
     }
 
 
@@ -342,8 +353,8 @@ public class TeamEventResourceIT {
     public void updateTeamEvent() throws Exception {
         // Initialize the database
         teamEventService.save(teamEvent);
-        // As the test used the service layer, reset the Elasticsearch mock repository
-        reset(mockTeamEventSearchRepository);
+        // As the test used the service layer, clear the index outbox
+        indexOutboxRepository.deleteAll();
 
         int databaseSizeBeforeUpdate = teamEventRepository.findAll().size();
 
@@ -370,7 +381,7 @@ public class TeamEventResourceIT {
         assertThat(testTeamEvent.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
 
         // Validate the TeamEvent in Elasticsearch
-        verify(mockTeamEventSearchRepository, times(1)).save(testTeamEvent);
+        assertThat(pendingIndexOperations(em, TeamEvent.class, testTeamEvent.getId())).containsExactly(IndexOperation.INDEX);
     }
 
     @Test
@@ -391,7 +402,7 @@ public class TeamEventResourceIT {
         assertThat(teamEventList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the TeamEvent in Elasticsearch
-        verify(mockTeamEventSearchRepository, times(0)).save(teamEvent);
+        assertThat(pendingIndexOperations(em, TeamEvent.class, teamEvent.getId())).isEmpty();
     }
 
     @Test
@@ -412,7 +423,7 @@ public class TeamEventResourceIT {
         assertThat(teamEventList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the TeamEvent in Elasticsearch
-        verify(mockTeamEventSearchRepository, times(1)).deleteById(teamEvent.getId());
+        assertThat(pendingIndexOperations(em, TeamEvent.class, teamEvent.getId())).containsExactly(IndexOperation.INDEX, IndexOperation.DELETE);
     }
 
     @Test
@@ -420,11 +431,12 @@ public class TeamEventResourceIT {
     public void searchTeamEvent() throws Exception {
         // Initialize the database
         teamEventService.save(teamEvent);
-        when(mockTeamEventSearchRepository.search(queryStringQuery("id:" + teamEvent.getId())))
-            .thenReturn(Collections.singletonList(teamEvent));
+        when(mockTeamEventSearchRepository.search(any(SearchQuery.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(teamEvent)));
         // Search the teamEvent
         restTeamEventMockMvc.perform(get("/api/_search/team-events?query=id:" + teamEvent.getId()))
             .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(teamEvent.getId().intValue())))
             .andExpect(jsonPath("$.[*].start").value(hasItem(DEFAULT_START.toString())))
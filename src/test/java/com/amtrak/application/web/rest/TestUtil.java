@@ -1,5 +1,7 @@
 package com.amtrak.application.web.rest;
 
+import com.amtrak.application.domain.IndexOutboxEntry;
+import com.amtrak.application.domain.enumeration.IndexOperation;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -10,9 +12,13 @@ import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.format.support.FormattingConversionService;
 import org.springframework.http.MediaType;
 
+import javax.persistence.EntityManager;
 import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -131,5 +137,52 @@ public final class TestUtil {
         return dfcs;
     }
 
+    /**
+     * Get the entries of an entity waiting in the index outbox, in the order they were made.
+     * @param em the entity manager.
+     * @param type the class of the entity.
+     * @param id the id of the entity.
+     * @return the pending entries.
+     */
+    public static List<IndexOutboxEntry> pendingIndexEntries(EntityManager em, Class<?> type, Long id) {
+        return em.createQuery("select entry from IndexOutboxEntry entry " +
+            "where entry.entityType = :entityType and entry.entityId = :entityId order by entry.id", IndexOutboxEntry.class)
+            .setParameter("entityType", type.getSimpleName())
+            .setParameter("entityId", id)
+            .getResultList();
+    }
+
+    /**
+     * Get the changes of an entity waiting in the index outbox, in the order they were made.
+     * @param em the entity manager.
+     * @param type the class of the entity.
+     * @param id the id of the entity.
+     * @return the pending operations.
+     */
+    public static List<IndexOperation> pendingIndexOperations(EntityManager em, Class<?> type, Long id) {
+        return pendingIndexEntries(em, type, id).stream()
+            .map(IndexOutboxEntry::getOperation)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Wait for a condition met in the background, such as a scheduled task or an after commit hook.
+     * @param condition the awaited condition.
+     * @throws AssertionError if the condition is still not met after 10 seconds.
+     */
+    public static void await(BooleanSupplier condition) {
+        try {
+            for (int attempt = 0; attempt < 200; attempt++) {
+                if (condition.getAsBoolean()) {
+                    return;
+                }
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new AssertionError("The condition was not met in time");
+    }
+
     private TestUtil() {}
 }
@@ -0,0 +1,30 @@
+import axios from 'axios';
+import sinon from 'sinon';
+
+import { getAllPages } from 'app/shared/util/keyset-utils';
+
+describe('Keyset utils', () => {
+  describe('getAllPages', () => {
+    it('should follow the cursors until the last page', async () => {
+      const get = sinon.stub();
+      get.onFirstCall().returns(Promise.resolve({ data: [{ id: 1 }, { id: 2 }], headers: { 'x-next-cursor': 'A/B=' } }));
+      get.onSecondCall().returns(Promise.resolve({ data: [{ id: 3 }], headers: {} }));
+      axios.get = get;
+
+      const response = await getAllPages('api/sprs?cacheBuster=1', 2);
+
+      expect(response.data).toEqual([{ id: 1 }, { id: 2 }, { id: 3 }]);
+      expect(get.firstCall.args[0]).toEqual('api/sprs?cacheBuster=1&size=2');
+      expect(get.secondCall.args[0]).toEqual('api/sprs?cacheBuster=1&size=2&after=A%2FB%3D');
+    });
+
+    it('should read a single page without a cursor', async () => {
+      axios.get = sinon.stub().returns(Promise.resolve({ data: [{ id: 1 }], headers: {} }));
+
+      const response = await getAllPages('api/releases');
+
+      expect(response.data).toEqual([{ id: 1 }]);
+      expect((axios.get as sinon.SinonStub).firstCall.args[0]).toEqual('api/releases?size=1000');
+    });
+  });
+});